@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cache;
+
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import jakarta.annotation.Nonnull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+
+/**
+ * Benchmarks for the subclasses of {@link com.yookue.commonplexus.springutil.cache.AbstractKeyGenerator}
+ * <p>
+ * Run with {@code mvn -P benchmark verify}, the allocation rate is reported by {@code -prof gc}, which is the default of {@code jmh.args}
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cache.HashCodeKeyGenerator
+ * @see com.yookue.commonplexus.springutil.cache.PlainParamKeyGenerator
+ * @see com.yookue.commonplexus.springutil.cache.MurmurHashKeyGenerator
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused")
+public class KeyGeneratorBenchmark {
+    @Param({"hashCode", "plainParam", "murmurHash"})
+    private String generatorType;
+
+    @Param({"1", "4", "8"})
+    private int argCount;
+
+    @Param({"string", "dateTime", "nestedBean"})
+    private String argType;
+
+    @Param({"false", "true"})
+    private boolean structuredKey;
+
+    private AbstractKeyGenerator<?> generator;
+    private final MockCacheService target = new MockCacheService();
+    private Method method;
+    private Object[] params;
+
+    @Setup(value = Level.Trial)
+    public void setup() throws NoSuchMethodException {
+        generator = switch (generatorType) {
+            case "hashCode" -> new HashCodeKeyGenerator();
+            case "plainParam" -> new PlainParamKeyGenerator();
+            case "murmurHash" -> new MurmurHashKeyGenerator();
+            default -> throw new IllegalArgumentException("Unsupported generator type: " + generatorType);
+        };
+        generator.setStructuredKey(structuredKey);
+        method = MockCacheService.class.getMethod("query", Object[].class);    // $NON-NLS-1$
+        params = new Object[argCount];
+        for (int i = 0; i < argCount; i++) {
+            params[i] = createParam(i);
+        }
+        // Resolve the format plan before measurement
+        generator.generate(target, method, params);
+    }
+
+    @Benchmark
+    @Threads(value = 1)
+    public void generateSingleThread(@Nonnull Blackhole blackhole) {
+        consumeKey(blackhole);
+    }
+
+    @Benchmark
+    @Threads(value = 4)
+    public void generateFourThreads(@Nonnull Blackhole blackhole) {
+        consumeKey(blackhole);
+    }
+
+    @Benchmark
+    @Threads(value = Threads.MAX)
+    public void generateMaxThreads(@Nonnull Blackhole blackhole) {
+        consumeKey(blackhole);
+    }
+
+    private void consumeKey(@Nonnull Blackhole blackhole) {
+        Object key = generator.generate(target, method, params);
+        // A local cache looks up by the hash code, while a remote cache renders the key to a string
+        blackhole.consume(key.hashCode());
+        blackhole.consume(key);
+    }
+
+    @Nonnull
+    private Object createParam(int index) {
+        return switch (argType) {
+            case "string" -> "param-value-" + index;    // $NON-NLS-1$
+            case "dateTime" -> LocalDateTime.of(2016, 1, 1, 8, 0).plusDays(index);
+            case "nestedBean" -> new MockOrder(1000L + index, "order-" + index, new MockCustomer(index, "customer-" + index, List.of("tag-a", "tag-b")));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$ // $NON-NLS-4$
+            default -> throw new IllegalArgumentException("Unsupported arg type: " + argType);
+        };
+    }
+
+    public static class MockCacheService {
+        @Nonnull
+        public Object query(Object... params) {
+            return params;
+        }
+    }
+
+    @AllArgsConstructor
+    @Getter
+    @ToString
+    public static class MockOrder {
+        private final long id;
+        private final String code;
+        private final MockCustomer customer;
+    }
+
+    @AllArgsConstructor
+    @Getter
+    @ToString
+    public static class MockCustomer {
+        private final int id;
+        private final String name;
+        private final List<String> tags;
+    }
+}
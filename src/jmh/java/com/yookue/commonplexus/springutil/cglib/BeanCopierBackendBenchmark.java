@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cglib;
+
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import jakarta.annotation.Nonnull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * Benchmarks for the CGLIB backend and the lambda backend of {@link com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier}
+ * <p>
+ * The first call benchmarks run a single shot in fresh JVMs, which includes generating the copier, while the steady state benchmarks reuse the copiers
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier
+ * @see com.yookue.commonplexus.springutil.cglib.LambdaBeanCopier
+ */
+@State(Scope.Benchmark)
+@SuppressWarnings("unused")
+public class BeanCopierBackendBenchmark {
+    @Param({"false", "true"})
+    private boolean useConverter;
+
+    private final MockEntity source = new MockEntity();
+    private final BeanCopierConverter converter = (sourceValue, targetType, targetSetter, targetName, targetValue) -> sourceValue;
+
+    @Setup(value = Level.Trial)
+    public void setup() {
+        source.setId(1000L);
+        source.setCode("yookue");    // $NON-NLS-1$
+        source.setCount(3);
+        source.setAmount(5.0D);
+        source.setCreated(LocalDateTime.now());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(value = 1)
+    public MockEntity steadyCglib(@Nonnull CopierState state) {
+        MockEntity target = new MockEntity();
+        state.cglibCopier.copy(source, target, converter);
+        return target;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(value = 1)
+    public MockEntity steadyLambda(@Nonnull CopierState state) {
+        MockEntity target = new MockEntity();
+        state.lambdaCopier.copy(source, target, converter);
+        return target;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(value = 20)
+    public MockEntity firstCallCglib() {
+        MockEntity target = new MockEntity();
+        createCglib(useConverter).copy(source, target, converter);
+        return target;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(value = 20)
+    public MockEntity firstCallLambda() {
+        MockEntity target = new MockEntity();
+        new LambdaBeanCopier(MockEntity.class, MockEntity.class, useConverter).copy(source, target, converter);
+        return target;
+    }
+
+    @Nonnull
+    private static EnhancedBeanCopier createCglib(boolean useConverter) {
+        EnhancedBeanCopier.Generator generator = new EnhancedBeanCopier.Generator();
+        generator.setSource(MockEntity.class);
+        generator.setTarget(MockEntity.class);
+        generator.setUseConverter(useConverter);
+        return generator.create();
+    }
+
+    /**
+     * Copiers that are generated before measurement, only for the steady state benchmarks
+     */
+    @State(Scope.Benchmark)
+    public static class CopierState {
+        private EnhancedBeanCopier cglibCopier;
+        private EnhancedBeanCopier lambdaCopier;
+
+        @Setup(value = Level.Trial)
+        public void setup(@Nonnull BeanCopierBackendBenchmark benchmark) {
+            cglibCopier = createCglib(benchmark.useConverter);
+            lambdaCopier = new LambdaBeanCopier(MockEntity.class, MockEntity.class, benchmark.useConverter);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class MockEntity {
+        private Long id;
+        private String code;
+        private int count;
+        private double amount;
+        private LocalDateTime created;
+    }
+}
@@ -84,4 +84,14 @@ public @interface EnableHashCodeKeyGenerator {
      * @return whether to wrap the params with parentheses or not
      */
     boolean paramParentheses() default true;
+
+    /**
+     * Returns whether to generate structured keys instead of string keys or not
+     * <p>
+     * The structured keys are rendered to strings only when required, such as for Redis
+     *
+     * @return whether to generate structured keys instead of string keys or not
+     * @see com.yookue.commonplexus.springutil.cache.StructuredCacheKey
+     */
+    boolean structuredKey() default false;
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.annotation;
+
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import com.google.common.hash.Hashing;
+import com.yookue.commonplexus.springutil.registrar.MurmurHashKeyGeneratorRegistrar;
+
+
+/**
+ * Annotation that enables murmur hash key generator for spring cache
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cache.MurmurHashKeyFormat
+ */
+@Target(value = ElementType.TYPE)
+@Retention(value = RetentionPolicy.RUNTIME)
+@Documented
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(value = {KeyGenerator.class, Hashing.class})
+@Import(value = MurmurHashKeyGeneratorRegistrar.class)
+@SuppressWarnings("unused")
+public @interface EnableMurmurHashKeyGenerator {
+    /**
+     * Returns the prefix of the generated keys
+     *
+     * @return the prefix of the generated keys
+     */
+    String prefix() default StringUtils.EMPTY;
+
+    /**
+     * Returns the suffix of the generated keys
+     *
+     * @return the suffix of the generated keys
+     */
+    String suffix() default StringUtils.EMPTY;
+
+    /**
+     * Returns whether to prepend the class name or not
+     *
+     * @return whether to prepend the class name or not
+     */
+    boolean clazzName() default false;
+
+    /**
+     * Returns whether to use the short class name when {@code clazzName} is {@code true}
+     *
+     * @return whether to use the short class name when {@code clazzName} is {@code true}
+     */
+    boolean shortClazzName() default true;
+
+    /**
+     * Returns whether to use the hash code of the method or not
+     *
+     * @return whether to use the hash code of the method or not
+     */
+    boolean methodHash() default false;
+
+    /**
+     * Returns whether to wrap the params with parentheses or not
+     *
+     * @return whether to wrap the params with parentheses or not
+     */
+    boolean paramParentheses() default true;
+
+    /**
+     * Returns whether to generate structured keys instead of string keys or not
+     * <p>
+     * The structured keys are rendered to strings only when required, such as for Redis
+     *
+     * @return whether to generate structured keys instead of string keys or not
+     * @see com.yookue.commonplexus.springutil.cache.StructuredCacheKey
+     */
+    boolean structuredKey() default false;
+}
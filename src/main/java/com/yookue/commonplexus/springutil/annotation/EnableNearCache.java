@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.commonplexus.springutil.annotation;
+
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import com.google.common.cache.CacheBuilder;
+import com.yookue.commonplexus.springutil.cache.RedisNearCacheBroadcaster;
+import com.yookue.commonplexus.springutil.registrar.NearCacheRegistrar;
+
+
+/**
+ * Annotation that enables a two-level near cache manager for spring cache
+ * <p>
+ * The local tier is a bounded in-process cache, and the remote tier is Redis, and the invalidations are broadcast by Redis pub/sub
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cache.NearCacheManager
+ * @see com.yookue.commonplexus.springutil.registrar.NearCacheRegistrar
+ */
+@Target(value = ElementType.TYPE)
+@Retention(value = RetentionPolicy.RUNTIME)
+@Documented
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(value = {CacheManager.class, RedisConnectionFactory.class, CacheBuilder.class})
+@Import(value = NearCacheRegistrar.class)
+@SuppressWarnings("unused")
+public @interface EnableNearCache {
+    /**
+     * Returns the maximum entries of the local tier of each cache
+     *
+     * @return the maximum entries of the local tier of each cache
+     */
+    long localMaximumSize() default 10000L;
+
+    /**
+     * Returns the seconds that the local entries expire after written
+     *
+     * @return the seconds that the local entries expire after written
+     */
+    long localExpireSeconds() default 60L;
+
+    /**
+     * Returns the seconds that the remote entries expire after written, zero means never expire
+     *
+     * @return the seconds that the remote entries expire after written, zero means never expire
+     */
+    long remoteExpireSeconds() default 0L;
+
+    /**
+     * Returns whether to allow null values in the remote tier or not
+     *
+     * @return whether to allow null values in the remote tier or not
+     */
+    boolean allowNullValues() default true;
+
+    /**
+     * Returns the Redis channel to broadcast the invalidations
+     *
+     * @return the Redis channel to broadcast the invalidations
+     */
+    String channel() default RedisNearCacheBroadcaster.DEFAULT_CHANNEL;
+}
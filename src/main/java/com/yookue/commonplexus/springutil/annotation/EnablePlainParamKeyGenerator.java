@@ -103,4 +103,14 @@ public @interface EnablePlainParamKeyGenerator {
      * @return whether to use the hash code of the params or not
      */
     boolean paramHash() default true;
+
+    /**
+     * Returns whether to generate structured keys instead of string keys or not
+     * <p>
+     * The structured keys are rendered to strings only when required, such as for Redis
+     *
+     * @return whether to generate structured keys instead of string keys or not
+     * @see com.yookue.commonplexus.springutil.cache.StructuredCacheKey
+     */
+    boolean structuredKey() default false;
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.commonplexus.springutil.annotation;
+
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import com.google.common.cache.CacheBuilder;
+import com.yookue.commonplexus.springutil.registrar.SingleFlightCacheRegistrar;
+
+
+/**
+ * Annotation that enables single-flight loading for the caches of spring cache
+ * <p>
+ * Only one loader per key runs in a JVM on cache misses, for methods that annotated with {@code @Cacheable(sync = true)}.
+ * The misses of a plain {@code @Cacheable} are NOT coalesced, since spring cache reads and writes them by separate calls
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cache.SingleFlightCache
+ * @see com.yookue.commonplexus.springutil.registrar.SingleFlightCacheRegistrar
+ */
+@Target(value = ElementType.TYPE)
+@Retention(value = RetentionPolicy.RUNTIME)
+@Documented
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(value = {CacheManager.class, CacheBuilder.class})
+@Import(value = SingleFlightCacheRegistrar.class)
+@SuppressWarnings("unused")
+public @interface EnableSingleFlightCache {
+    /**
+     * Returns the milliseconds that the concurrent callers wait for the loading of the same key
+     *
+     * @return the milliseconds that the concurrent callers wait for the loading of the same key
+     */
+    long loadTimeoutMillis() default 30000L;
+
+    /**
+     * Returns the seconds that the cache entries live, which should be the same as the expiration of the cache provider
+     *
+     * @return the seconds that the cache entries live, which should be the same as the expiration of the cache provider
+     */
+    long timeToLiveSeconds() default 0L;
+
+    /**
+     * Returns the seconds before expiration, in which the hot keys will be reloaded in background, zero means never reload
+     *
+     * @return the seconds before expiration, in which the hot keys will be reloaded in background, zero means never reload
+     */
+    long refreshWindowSeconds() default 0L;
+
+    /**
+     * Returns the bean names of the cache managers to decorate, empty means all the cache managers
+     *
+     * @return the bean names of the cache managers to decorate, empty means all the cache managers
+     */
+    String[] cacheManagerNames() default {};
+
+    /**
+     * Returns the types of the cache managers to decorate, empty means all the cache managers
+     *
+     * @return the types of the cache managers to decorate, empty means all the cache managers
+     */
+    Class<? extends CacheManager>[] cacheManagerTypes() default {};
+}
@@ -18,18 +18,24 @@ package com.yookue.commonplexus.springutil.cache;
 
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.core.MethodClassKey;
+import org.springframework.util.ReflectionUtils;
 import com.yookue.commonplexus.javaseutil.constant.CharVariantConst;
 import com.yookue.commonplexus.javaseutil.constant.SymbolVariantConst;
 import com.yookue.commonplexus.javaseutil.util.StringUtilsWraps;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
-import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 
@@ -37,32 +43,225 @@ import lombok.Setter;
  * Abstract cache key generator by hash codes
  * <p>
  * The maximum allowed key/value size is 512 MB
+ * <p>
+ * The key format of each target class and method is resolved only once into an immutable {@link com.yookue.commonplexus.springutil.cache.KeyFormatPlan},
+ * so {@link #generate(Object, Method, Object...)} never scans annotations or modifies the state of the generator
+ * <p>
+ * If {@code structuredKey} is {@code true}, the generated keys are {@link com.yookue.commonplexus.springutil.cache.StructuredCacheKey}s,
+ * which are rendered to strings only when required
+ * <p>
+ * Changing a property that affects the key format discards the resolved plans, so the change takes effect on the next generation.
+ * Setting a property to its current value keeps the resolved plans.
+ * Subclasses that still override the deprecated {@link #beforeGenerate(Object, Method, Object...)} may change the properties on each generation,
+ * so their key formats are resolved on each generation without caching, the same as before the plans
+ *
+ * @param <P> the type of the key format plans
  *
  * @author David Hsing
  * @see org.springframework.cache.interceptor.KeyGenerator
  * @see org.springframework.cache.interceptor.SimpleKeyGenerator
  */
-@NoArgsConstructor
-@AllArgsConstructor
 @Getter
 @Setter
-public abstract class AbstractKeyGenerator implements KeyGenerator {
+public abstract class AbstractKeyGenerator<P extends KeyFormatPlan> implements KeyGenerator {
     private String prefix;
     private String suffix;
     private boolean clazzName = false;
     private boolean shortClazzName = true;
     private boolean methodHash = false;
+    private boolean structuredKey = false;
+
+    @Getter(value = AccessLevel.NONE)
+    @Setter(value = AccessLevel.NONE)
+    private volatile Map<MethodClassKey, P> formatPlans = new ConcurrentHashMap<>(256);
+
+    @Getter(value = AccessLevel.NONE)
+    @Setter(value = AccessLevel.NONE)
+    private final boolean legacyGenerate = overridesBeforeGenerate(getClass());
+
+    public AbstractKeyGenerator() {
+    }
+
+    public AbstractKeyGenerator(@Nullable String prefix, @Nullable String suffix, boolean clazzName, boolean shortClazzName, boolean methodHash) {
+        this(prefix, suffix, clazzName, shortClazzName, methodHash, false);
+    }
+
+    public AbstractKeyGenerator(@Nullable String prefix, @Nullable String suffix, boolean clazzName, boolean shortClazzName, boolean methodHash, boolean structuredKey) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.clazzName = clazzName;
+        this.shortClazzName = shortClazzName;
+        this.methodHash = methodHash;
+        this.structuredKey = structuredKey;
+    }
+
+    public void setPrefix(@Nullable String prefix) {
+        if (!Objects.equals(this.prefix, prefix)) {
+            this.prefix = prefix;
+            clearFormatPlans();
+        }
+    }
+
+    public void setSuffix(@Nullable String suffix) {
+        if (!Objects.equals(this.suffix, suffix)) {
+            this.suffix = suffix;
+            clearFormatPlans();
+        }
+    }
+
+    public void setClazzName(boolean clazzName) {
+        if (this.clazzName != clazzName) {
+            this.clazzName = clazzName;
+            clearFormatPlans();
+        }
+    }
+
+    public void setShortClazzName(boolean shortClazzName) {
+        if (this.shortClazzName != shortClazzName) {
+            this.shortClazzName = shortClazzName;
+            clearFormatPlans();
+        }
+    }
+
+    public void setMethodHash(boolean methodHash) {
+        if (this.methodHash != methodHash) {
+            this.methodHash = methodHash;
+            clearFormatPlans();
+        }
+    }
 
     @Nonnull
     @Override
     public Object generate(@Nonnull Object target, @Nonnull Method method, @Nullable Object... params) {
-        beforeGenerate(target, method, params);
+        Class<?> targetClass = AopUtils.getTargetClass(target);
+        P plan;
+        if (legacyGenerate) {
+            beforeGenerate(target, method, params);
+            plan = resolvePlan(targetClass, method);
+        } else {
+            plan = getFormatPlan(targetClass, method);
+        }
+        return structuredKey ? new StructuredCacheKey<>(this, plan, target, method, params) : renderKey(plan, target, method, params);
+    }
+
+    /**
+     * Returns the string key of the method and params, with the specified key format plan
+     *
+     * @param plan the key format plan
+     * @param target the target instance
+     * @param method the method
+     * @param params the method params
+     *
+     * @return the string key of the method and params, with the specified key format plan
+     */
+    protected String renderKey(@Nonnull P plan, @Nonnull Object target, @Nonnull Method method, @Nullable Object... params) {
+        StringBuilder builder = new StringBuilder(plan.getHead());
+        StringUtilsWraps.ifNotBlank(resolveParams(plan, target, method, params), builder::append);
+        builder.append(plan.getTail());
+        return afterGenerate(builder.toString());
+    }
+
+    /**
+     * Returns the cached key format plan of the target class and method, resolving it if absent
+     *
+     * @param targetClass the target class
+     * @param method the method
+     *
+     * @return the cached key format plan of the target class and method, resolving it if absent
+     */
+    @Nonnull
+    protected P getFormatPlan(@Nonnull Class<?> targetClass, @Nonnull Method method) {
+        // A plan resolved while a property is changing is put into the discarded map
+        Map<MethodClassKey, P> plans = formatPlans;
+        MethodClassKey index = new MethodClassKey(method, targetClass);
+        P plan = plans.get(index);
+        return (plan != null) ? plan : plans.computeIfAbsent(index, key -> resolvePlan(targetClass, method));
+    }
+
+    /**
+     * Discards the resolved key format plans, subclasses should call this when a property that affects the plans is changed to another value
+     */
+    protected void clearFormatPlans() {
+        formatPlans = new ConcurrentHashMap<>(256);
+    }
+
+    /**
+     * Resolves the key format plan of the target class and method, usually from the annotations on them
+     * <p>
+     * The default implementation resolves a {@link com.yookue.commonplexus.springutil.cache.KeyFormatPlan} from the properties of the generator,
+     * subclasses that use another type of plans must override this
+     *
+     * @param targetClass the target class
+     * @param method the method
+     *
+     * @return the key format plan of the target class and method
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    protected P resolvePlan(@Nonnull Class<?> targetClass, @Nonnull Method method) {
+        String head = resolvePlanHead(targetClass, method, prefix, clazzName, shortClazzName, methodHash);
+        return (P) new KeyFormatPlan(head, resolvePlanTail(suffix), false);
+    }
+
+    /**
+     * Returns the string of the params, with the specified key format plan
+     * <p>
+     * The default implementation delegates to {@link #resolveParams(Object, Method, Object...)}, for the subclasses that are written before the plans
+     *
+     * @param plan the key format plan
+     * @param target the target instance
+     * @param method the method
+     * @param params the method params
+     *
+     * @return the string of the params, with the specified key format plan
+     */
+    protected String resolveParams(@Nonnull P plan, @Nonnull Object target, @Nonnull Method method, @Nullable Object... params) {
+        return resolveParams(target, method, params);
+    }
+
+    /**
+     * Returns the string of the params
+     * <p>
+     * The default implementation returns the hash code of the params in square brackets
+     *
+     * @param target the target instance
+     * @param method the method
+     * @param params the method params
+     *
+     * @return the string of the params
+     *
+     * @deprecated override {@link #resolveParams(KeyFormatPlan, Object, Method, Object...)} instead
+     */
+    @Deprecated
+    protected String resolveParams(@Nonnull Object target, @Nonnull Method method, @Nullable Object... params) {
+        return ArrayUtils.isEmpty(params) ? null : String.format(SymbolVariantConst.HEX_ORDER_SQUARES, Math.abs(Arrays.deepHashCode(params)));
+    }
+
+    /**
+     * Invoked before each generation, only if a subclass overrides it
+     *
+     * @param target the target instance
+     * @param method the method
+     * @param params the method params
+     *
+     * @deprecated the key format is resolved once per method by {@link #resolvePlan(Class, Method)}, override it instead
+     */
+    @Deprecated
+    @SuppressWarnings("unused")
+    protected void beforeGenerate(@Nonnull Object target, @Nonnull Method method, @Nullable Object... params) {
+    }
+
+    protected String afterGenerate(@Nullable String generated) {
+        return generated;
+    }
+
+    @Nonnull
+    protected String resolvePlanHead(@Nonnull Class<?> targetClass, @Nonnull Method method, @Nullable String prefix, boolean clazzName, boolean shortClazzName, boolean methodHash) {
         StringBuilder builder = new StringBuilder();
         if (StringUtils.isNotBlank(prefix)) {
             builder.append(StringUtilsWraps.appendIfMissing(prefix, CharVariantConst.COLON));
         }
         if (clazzName) {
-            Class<?> targetClass = AopUtils.getTargetClass(target);
             String className = shortClazzName ? ClassUtils.getShortClassName(targetClass) : targetClass.getCanonicalName();
             builder.append(className).append(CharVariantConst.COLON);
         }
@@ -70,20 +269,16 @@ public abstract class AbstractKeyGenerator implements KeyGenerator {
         if (methodHash) {
             builder.append(String.format(SymbolVariantConst.HEX_ORDER_SQUARES, Math.abs(method.hashCode())));
         }
-        StringUtilsWraps.ifNotBlank(resolveParams(target, method, params), builder::append);
-        if (StringUtils.isNotBlank(suffix)) {
-            builder.append(StringUtilsWraps.prependIfMissing(suffix, CharVariantConst.COLON));
-        }
-        return afterGenerate(builder.toString());
+        return builder.toString();
     }
 
-    @SuppressWarnings("unused")
-    protected void beforeGenerate(@Nonnull Object target, @Nonnull Method method, @Nullable Object... params) {
+    @Nonnull
+    protected String resolvePlanTail(@Nullable String suffix) {
+        return StringUtils.isBlank(suffix) ? StringUtils.EMPTY : StringUtilsWraps.prependIfMissing(suffix, CharVariantConst.COLON);
     }
 
-    protected abstract String resolveParams(@Nonnull Object target, @Nonnull Method method, @Nullable Object... params);
-
-    protected String afterGenerate(@Nullable String generated) {
-        return generated;
+    private static boolean overridesBeforeGenerate(@Nonnull Class<?> generatorClass) {
+        Method method = ReflectionUtils.findMethod(generatorClass, "beforeGenerate", Object.class, Method.class, Object[].class);    // $NON-NLS-1$
+        return method != null && method.getDeclaringClass() != AbstractKeyGenerator.class;
     }
 }
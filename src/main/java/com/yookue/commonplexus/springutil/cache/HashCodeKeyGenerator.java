@@ -23,7 +23,6 @@ import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.aop.support.AopUtils;
 import org.springframework.core.annotation.AnnotationUtils;
 import com.yookue.commonplexus.javaseutil.constant.CharVariantConst;
 import com.yookue.commonplexus.javaseutil.constant.StringVariantConst;
@@ -42,34 +41,34 @@ import lombok.Setter;
 @Getter
 @Setter
 @SuppressWarnings("unused")
-public class HashCodeKeyGenerator extends AbstractKeyGenerator {
+public class HashCodeKeyGenerator extends AbstractKeyGenerator<KeyFormatPlan> {
     private boolean paramParentheses = true;
 
+    public void setParamParentheses(boolean paramParentheses) {
+        if (this.paramParentheses != paramParentheses) {
+            this.paramParentheses = paramParentheses;
+            super.clearFormatPlans();
+        }
+    }
+
+    @Nonnull
     @Override
-    protected void beforeGenerate(@Nonnull Object target, @Nonnull Method method, @Nullable Object... params) {
-        Class<?> targetClass = AopUtils.getTargetClass(target);
-        HashCodeKeyFormat clazzAnnotation = AnnotationUtils.findAnnotation(targetClass, HashCodeKeyFormat.class);
-        if (clazzAnnotation != null) {
-            processAnnotation(clazzAnnotation);
+    protected KeyFormatPlan resolvePlan(@Nonnull Class<?> targetClass, @Nonnull Method method) {
+        HashCodeKeyFormat annotation = AnnotationUtils.findAnnotation(method, HashCodeKeyFormat.class);
+        if (annotation == null) {
+            annotation = AnnotationUtils.findAnnotation(targetClass, HashCodeKeyFormat.class);
         }
-        HashCodeKeyFormat methodAnnotation = AnnotationUtils.findAnnotation(method, HashCodeKeyFormat.class);
-        if (methodAnnotation != null) {
-            processAnnotation(methodAnnotation);
+        if (annotation == null) {
+            String head = super.resolvePlanHead(targetClass, method, super.getPrefix(), super.isClazzName(), super.isShortClazzName(), super.isMethodHash());
+            return new KeyFormatPlan(head, super.resolvePlanTail(super.getSuffix()), paramParentheses);
         }
+        String head = super.resolvePlanHead(targetClass, method, annotation.prefix(), annotation.clazzName(), annotation.shortClazzName(), annotation.methodHash());
+        return new KeyFormatPlan(head, super.resolvePlanTail(annotation.suffix()), annotation.paramParentheses());
     }
 
     @Override
-    protected String resolveParams(@Nonnull Object target, @Nonnull Method method, @Nullable Object... params) {
+    protected String resolveParams(@Nonnull KeyFormatPlan plan, @Nonnull Object target, @Nonnull Method method, @Nullable Object... params) {
         String result = ArrayUtils.isEmpty(params) ? StringVariantConst.NULL : String.format(SymbolVariantConst.HEX_ORDER_SQUARES, Math.abs(Arrays.deepHashCode(params)));
-        return !paramParentheses ? result : StringUtils.join(CharVariantConst.PARENTHESIS_LEFT, CharVariantConst.PARENTHESIS_RIGHT, result);
-    }
-
-    private void processAnnotation(@Nonnull HashCodeKeyFormat annotation) {
-        super.setPrefix(annotation.prefix());
-        super.setSuffix(annotation.suffix());
-        super.setClazzName(annotation.clazzName());
-        super.setShortClazzName(annotation.shortClazzName());
-        super.setMethodHash(annotation.methodHash());
-        paramParentheses = annotation.paramParentheses();
+        return !plan.isParamParentheses() ? result : StringUtils.join(CharVariantConst.PARENTHESIS_LEFT, CharVariantConst.PARENTHESIS_RIGHT, result);
     }
 }
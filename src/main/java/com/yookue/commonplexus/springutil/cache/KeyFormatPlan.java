@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cache;
+
+
+import jakarta.annotation.Nonnull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/**
+ * Immutable key format of a target class and method, resolved once by {@link com.yookue.commonplexus.springutil.cache.AbstractKeyGenerator}
+ * <p>
+ * The {@code head} contains the prefix, the class name, the method name and the method hash, and the {@code tail} contains the suffix
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cache.AbstractKeyGenerator
+ */
+@AllArgsConstructor
+@Getter
+@SuppressWarnings("unused")
+public class KeyFormatPlan {
+    @Nonnull
+    private final String head;
+
+    @Nonnull
+    private final String tail;
+
+    private final boolean paramParentheses;
+}
@@ -0,0 +1,437 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cache;
+
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.UUID;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import com.google.common.hash.Funnel;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.PrimitiveSink;
+
+
+/**
+ * Funnel that streams the method params into a {@link com.google.common.hash.PrimitiveSink}, without building intermediate strings
+ * <p>
+ * Each runtime class is dispatched once to a stable encoder, which only writes the values of the params (never identity hash codes),
+ * so the hash of the same params is the same across JVM restarts and nodes
+ * <p>
+ * Unordered collections and maps are encoded regardless of their iteration order, and beans are encoded by their readable properties in name order,
+ * or by their instance fields if there are no readable properties.
+ * A param graph that is deeper than {@link #MAX_DEPTH}, or a type whose state cannot be read, is rejected rather than encoded partially,
+ * because a partial encoding would map different params to the same key
+ *
+ * @author David Hsing
+ * @see com.google.common.hash.Funnel
+ * @see com.yookue.commonplexus.springutil.cache.MurmurHashKeyGenerator
+ */
+@SuppressWarnings("unused")
+public final class MurmurHashKeyFunnel implements Funnel<Object> {
+    public static final MurmurHashKeyFunnel INSTANCE = new MurmurHashKeyFunnel();
+    public static final int MAX_DEPTH = 32;
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_BOOLEAN = 1;
+    private static final byte TAG_BYTE = 2;
+    private static final byte TAG_SHORT = 3;
+    private static final byte TAG_INTEGER = 4;
+    private static final byte TAG_LONG = 5;
+    private static final byte TAG_FLOAT = 6;
+    private static final byte TAG_DOUBLE = 7;
+    private static final byte TAG_CHARACTER = 8;
+    private static final byte TAG_STRING = 9;
+    private static final byte TAG_BIG_INTEGER = 10;
+    private static final byte TAG_BIG_DECIMAL = 11;
+    private static final byte TAG_ENUM = 12;
+    private static final byte TAG_UUID = 13;
+    private static final byte TAG_DATE = 14;
+    private static final byte TAG_INSTANT = 15;
+    private static final byte TAG_LOCAL_DATE = 16;
+    private static final byte TAG_LOCAL_DATE_TIME = 17;
+    private static final byte TAG_LOCAL_TIME = 18;
+    private static final byte TAG_TEMPORAL = 19;
+    private static final byte TAG_CLASS = 20;
+    private static final byte TAG_OPTIONAL = 21;
+    private static final byte TAG_ARRAY = 22;
+    private static final byte TAG_LIST = 23;
+    private static final byte TAG_SET = 24;
+    private static final byte TAG_MAP = 25;
+    private static final byte TAG_BEAN = 26;
+    private static final byte TAG_SORTED_SET = 27;
+    private static final byte TAG_LINKED_SET = 28;
+    private static final byte TAG_QUEUE = 29;
+    private static final byte TAG_ORDERED_MAP = 30;
+
+    private static final ClassValue<ParamEncoder> ENCODERS = new ClassValue<>() {
+        @Override
+        protected ParamEncoder computeValue(@Nonnull Class<?> type) {
+            return resolveEncoder(type);
+        }
+    };
+
+    private MurmurHashKeyFunnel() {
+    }
+
+    /**
+     * Returns the 128-bit hash of the params
+     *
+     * @param params the params to hash
+     *
+     * @return the 128-bit hash of the params
+     */
+    @Nonnull
+    public static HashCode hashParams(@Nullable Object... params) {
+        Hasher hasher = HASH_FUNCTION.newHasher();
+        if (params == null) {
+            hasher.putInt(0);
+        } else {
+            hasher.putInt(params.length);
+            for (Object param : params) {
+                encode(param, hasher, 0);
+            }
+        }
+        return hasher.hash();
+    }
+
+    @Override
+    public void funnel(@Nullable Object from, @Nonnull PrimitiveSink into) {
+        encode(from, into, 0);
+    }
+
+    private static void encode(@Nullable Object value, @Nonnull PrimitiveSink sink, int depth) {
+        if (value == null) {
+            sink.putByte(TAG_NULL);
+            return;
+        }
+        if (depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Param graph is deeper than " + MAX_DEPTH + " levels at type '" + value.getClass().getName() + "'");
+        }
+        ENCODERS.get(value.getClass()).encode(value, sink, depth);
+    }
+
+    @Nonnull
+    private static ParamEncoder resolveEncoder(@Nonnull Class<?> type) {
+        if (type == Boolean.class) {
+            return (value, sink, depth) -> sink.putByte(TAG_BOOLEAN).putBoolean((Boolean) value);
+        }
+        if (type == Byte.class) {
+            return (value, sink, depth) -> sink.putByte(TAG_BYTE).putByte((Byte) value);
+        }
+        if (type == Short.class) {
+            return (value, sink, depth) -> sink.putByte(TAG_SHORT).putShort((Short) value);
+        }
+        if (type == Integer.class) {
+            return (value, sink, depth) -> sink.putByte(TAG_INTEGER).putInt((Integer) value);
+        }
+        if (type == Long.class) {
+            return (value, sink, depth) -> sink.putByte(TAG_LONG).putLong((Long) value);
+        }
+        if (type == Float.class) {
+            return (value, sink, depth) -> sink.putByte(TAG_FLOAT).putFloat((Float) value);
+        }
+        if (type == Double.class) {
+            return (value, sink, depth) -> sink.putByte(TAG_DOUBLE).putDouble((Double) value);
+        }
+        if (type == Character.class) {
+            return (value, sink, depth) -> sink.putByte(TAG_CHARACTER).putChar((Character) value);
+        }
+        if (CharSequence.class.isAssignableFrom(type)) {
+            return (value, sink, depth) -> {
+                CharSequence alias = (CharSequence) value;
+                sink.putByte(TAG_STRING).putInt(alias.length()).putUnencodedChars(alias);
+            };
+        }
+        if (type == BigInteger.class) {
+            return (value, sink, depth) -> {
+                byte[] bytes = ((BigInteger) value).toByteArray();
+                sink.putByte(TAG_BIG_INTEGER).putInt(bytes.length).putBytes(bytes);
+            };
+        }
+        if (type == BigDecimal.class) {
+            return (value, sink, depth) -> {
+                BigDecimal alias = (BigDecimal) value;
+                byte[] bytes = alias.unscaledValue().toByteArray();
+                sink.putByte(TAG_BIG_DECIMAL).putInt(alias.scale()).putInt(bytes.length).putBytes(bytes);
+            };
+        }
+        if (Enum.class.isAssignableFrom(type)) {
+            return (value, sink, depth) -> {
+                Enum<?> alias = (Enum<?>) value;
+                putString(sink.putByte(TAG_ENUM), alias.getDeclaringClass().getName());
+                putString(sink, alias.name());
+            };
+        }
+        if (type == UUID.class) {
+            return (value, sink, depth) -> {
+                UUID alias = (UUID) value;
+                sink.putByte(TAG_UUID).putLong(alias.getMostSignificantBits()).putLong(alias.getLeastSignificantBits());
+            };
+        }
+        if (java.util.Date.class.isAssignableFrom(type)) {
+            return (value, sink, depth) -> sink.putByte(TAG_DATE).putLong(((java.util.Date) value).getTime());
+        }
+        if (type == Instant.class) {
+            return (value, sink, depth) -> {
+                Instant alias = (Instant) value;
+                sink.putByte(TAG_INSTANT).putLong(alias.getEpochSecond()).putInt(alias.getNano());
+            };
+        }
+        if (type == LocalDate.class) {
+            return (value, sink, depth) -> sink.putByte(TAG_LOCAL_DATE).putLong(((LocalDate) value).toEpochDay());
+        }
+        if (type == LocalDateTime.class) {
+            return (value, sink, depth) -> {
+                LocalDateTime alias = (LocalDateTime) value;
+                sink.putByte(TAG_LOCAL_DATE_TIME).putLong(alias.toLocalDate().toEpochDay()).putLong(alias.toLocalTime().toNanoOfDay());
+            };
+        }
+        if (type == LocalTime.class) {
+            return (value, sink, depth) -> sink.putByte(TAG_LOCAL_TIME).putLong(((LocalTime) value).toNanoOfDay());
+        }
+        if (TemporalAccessor.class.isAssignableFrom(type)) {
+            // The ISO representations of the other temporals are stable and compact enough
+            return (value, sink, depth) -> putString(sink.putByte(TAG_TEMPORAL), value.toString());
+        }
+        if (type == Class.class) {
+            return (value, sink, depth) -> putString(sink.putByte(TAG_CLASS), ((Class<?>) value).getName());
+        }
+        if (type == Optional.class) {
+            return (value, sink, depth) -> encode(((Optional<?>) value).orElse(null), sink.putByte(TAG_OPTIONAL), depth + 1);
+        }
+        if (type.isArray()) {
+            return resolveArrayEncoder(type.getComponentType());
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            // Each kind of collection has its own tag, so that a list and a set of the same elements never share a key
+            if (List.class.isAssignableFrom(type)) {
+                return (value, sink, depth) -> encodeOrdered(value, sink.putByte(TAG_LIST), depth);
+            }
+            if (SortedSet.class.isAssignableFrom(type)) {
+                return (value, sink, depth) -> encodeOrdered(value, sink.putByte(TAG_SORTED_SET), depth);
+            }
+            if (LinkedHashSet.class.isAssignableFrom(type)) {
+                return (value, sink, depth) -> encodeOrdered(value, sink.putByte(TAG_LINKED_SET), depth);
+            }
+            if (Queue.class.isAssignableFrom(type)) {
+                return (value, sink, depth) -> encodeOrdered(value, sink.putByte(TAG_QUEUE), depth);
+            }
+            return MurmurHashKeyFunnel::encodeUnordered;
+        }
+        if (Map.class.isAssignableFrom(type)) {
+            boolean ordered = SortedMap.class.isAssignableFrom(type) || LinkedHashMap.class.isAssignableFrom(type);
+            return ordered ? MurmurHashKeyFunnel::encodeOrderedMap : MurmurHashKeyFunnel::encodeUnorderedMap;
+        }
+        return resolveBeanEncoder(type);
+    }
+
+    @Nonnull
+    private static ParamEncoder resolveArrayEncoder(@Nonnull Class<?> componentType) {
+        if (componentType == byte.class) {
+            return (value, sink, depth) -> {
+                byte[] alias = (byte[]) value;
+                sink.putByte(TAG_ARRAY).putInt(alias.length).putBytes(alias);
+            };
+        }
+        if (componentType == char.class) {
+            return (value, sink, depth) -> {
+                char[] alias = (char[]) value;
+                sink.putByte(TAG_ARRAY).putInt(alias.length);
+                for (char element : alias) {
+                    sink.putChar(element);
+                }
+            };
+        }
+        if (componentType == int.class) {
+            return (value, sink, depth) -> {
+                int[] alias = (int[]) value;
+                sink.putByte(TAG_ARRAY).putInt(alias.length);
+                for (int element : alias) {
+                    sink.putInt(element);
+                }
+            };
+        }
+        if (componentType == long.class) {
+            return (value, sink, depth) -> {
+                long[] alias = (long[]) value;
+                sink.putByte(TAG_ARRAY).putInt(alias.length);
+                for (long element : alias) {
+                    sink.putLong(element);
+                }
+            };
+        }
+        if (componentType.isPrimitive()) {
+            // boolean, short, float and double arrays are rare in cache keys, so their elements are boxed
+            return (value, sink, depth) -> {
+                int length = Array.getLength(value);
+                sink.putByte(TAG_ARRAY).putInt(length);
+                for (int i = 0; i < length; i++) {
+                    encode(Array.get(value, i), sink, depth + 1);
+                }
+            };
+        }
+        return (value, sink, depth) -> {
+            Object[] alias = (Object[]) value;
+            sink.putByte(TAG_ARRAY).putInt(alias.length);
+            for (Object element : alias) {
+                encode(element, sink, depth + 1);
+            }
+        };
+    }
+
+    @Nonnull
+    private static ParamEncoder resolveBeanEncoder(@Nonnull Class<?> type) {
+        Class<?> userClass = ClassUtils.getUserClass(type);
+        List<Method> readers = new ArrayList<>();
+        if (userClass.isRecord()) {
+            Arrays.stream(userClass.getRecordComponents()).map(RecordComponent::getAccessor).forEach(readers::add);
+        } else {
+            Arrays.stream(BeanUtils.getPropertyDescriptors(userClass))
+                .filter(descriptor -> descriptor.getReadMethod() != null && !"class".equals(descriptor.getName()))    // $NON-NLS-1$
+                .sorted(Comparator.comparing(PropertyDescriptor::getName))
+                .map(PropertyDescriptor::getReadMethod)
+                .forEach(readers::add);
+        }
+        if (readers.isEmpty()) {
+            return resolveFieldEncoder(userClass);
+        }
+        try {
+            readers.forEach(ReflectionUtils::makeAccessible);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Could not read the properties of param type '" + userClass.getName() + "'", ex);
+        }
+        Method[] methods = readers.toArray(Method[]::new);
+        String typeName = userClass.getName();
+        return (value, sink, depth) -> {
+            putString(sink.putByte(TAG_BEAN), typeName);
+            sink.putInt(methods.length);
+            for (Method method : methods) {
+                encode(ReflectionUtils.invokeMethod(method, value), sink, depth + 1);
+            }
+        };
+    }
+
+    @Nonnull
+    private static ParamEncoder resolveFieldEncoder(@Nonnull Class<?> userClass) {
+        List<Field> fields = new ArrayList<>();
+        ReflectionUtils.doWithFields(userClass, fields::add, field -> !Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers()) && !field.isSynthetic());
+        fields.sort(Comparator.comparing((Field field) -> field.getDeclaringClass().getName()).thenComparing(Field::getName));
+        try {
+            fields.forEach(ReflectionUtils::makeAccessible);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Could not read the fields of param type '" + userClass.getName() + "', which has no readable properties", ex);
+        }
+        Field[] members = fields.toArray(Field[]::new);
+        String typeName = userClass.getName();
+        return (value, sink, depth) -> {
+            putString(sink.putByte(TAG_BEAN), typeName);
+            sink.putInt(members.length);
+            for (Field member : members) {
+                encode(ReflectionUtils.getField(member, value), sink, depth + 1);
+            }
+        };
+    }
+
+    private static void encodeOrdered(@Nonnull Object value, @Nonnull PrimitiveSink sink, int depth) {
+        Collection<?> alias = (Collection<?>) value;
+        sink.putInt(alias.size());
+        for (Object element : alias) {
+            encode(element, sink, depth + 1);
+        }
+    }
+
+    private static void encodeUnordered(@Nonnull Object value, @Nonnull PrimitiveSink sink, int depth) {
+        Collection<?> alias = (Collection<?>) value;
+        List<HashCode> elements = new ArrayList<>(alias.size());
+        for (Object element : alias) {
+            Hasher hasher = HASH_FUNCTION.newHasher();
+            encode(element, hasher, depth + 1);
+            elements.add(hasher.hash());
+        }
+        sink.putByte(TAG_SET).putInt(alias.size());
+        if (!elements.isEmpty()) {
+            sink.putBytes(Hashing.combineUnordered(elements).asBytes());
+        }
+    }
+
+    private static void encodeOrderedMap(@Nonnull Object value, @Nonnull PrimitiveSink sink, int depth) {
+        Map<?, ?> alias = (Map<?, ?>) value;
+        sink.putByte(TAG_ORDERED_MAP).putInt(alias.size());
+        for (Map.Entry<?, ?> entry : alias.entrySet()) {
+            encode(entry.getKey(), sink, depth + 1);
+            encode(entry.getValue(), sink, depth + 1);
+        }
+    }
+
+    private static void encodeUnorderedMap(@Nonnull Object value, @Nonnull PrimitiveSink sink, int depth) {
+        Map<?, ?> alias = (Map<?, ?>) value;
+        List<HashCode> entries = new ArrayList<>(alias.size());
+        for (Map.Entry<?, ?> entry : alias.entrySet()) {
+            Hasher hasher = HASH_FUNCTION.newHasher();
+            encode(entry.getKey(), hasher, depth + 1);
+            encode(entry.getValue(), hasher, depth + 1);
+            entries.add(hasher.hash());
+        }
+        sink.putByte(TAG_MAP).putInt(alias.size());
+        if (!entries.isEmpty()) {
+            sink.putBytes(Hashing.combineUnordered(entries).asBytes());
+        }
+    }
+
+    @Nonnull
+    private static PrimitiveSink putString(@Nonnull PrimitiveSink sink, @Nonnull CharSequence text) {
+        return sink.putInt(text.length()).putUnencodedChars(text);
+    }
+
+
+    @FunctionalInterface
+    private interface ParamEncoder {
+        void encode(@Nonnull Object value, @Nonnull PrimitiveSink sink, int depth);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cache;
+
+
+import java.lang.reflect.Method;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.core.annotation.AnnotationUtils;
+import com.yookue.commonplexus.javaseutil.constant.CharVariantConst;
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * Cache key generator by 128-bit murmur hashes
+ * <p>
+ * The params are streamed into a 128-bit hash by {@link com.yookue.commonplexus.springutil.cache.MurmurHashKeyFunnel},
+ * so the param part of the generated keys is always 32 hex characters, and stays the same across JVM restarts and nodes
+ *
+ * @author David Hsing
+ * @see org.springframework.cache.interceptor.KeyGenerator
+ * @see com.yookue.commonplexus.springutil.cache.MurmurHashKeyFunnel
+ */
+@Getter
+@Setter
+@SuppressWarnings("unused")
+public class MurmurHashKeyGenerator extends AbstractKeyGenerator<KeyFormatPlan> {
+    private boolean paramParentheses = true;
+
+    public void setParamParentheses(boolean paramParentheses) {
+        if (this.paramParentheses != paramParentheses) {
+            this.paramParentheses = paramParentheses;
+            super.clearFormatPlans();
+        }
+    }
+
+    @Nonnull
+    @Override
+    protected KeyFormatPlan resolvePlan(@Nonnull Class<?> targetClass, @Nonnull Method method) {
+        MurmurHashKeyFormat annotation = AnnotationUtils.findAnnotation(method, MurmurHashKeyFormat.class);
+        if (annotation == null) {
+            annotation = AnnotationUtils.findAnnotation(targetClass, MurmurHashKeyFormat.class);
+        }
+        if (annotation == null) {
+            String head = super.resolvePlanHead(targetClass, method, super.getPrefix(), super.isClazzName(), super.isShortClazzName(), super.isMethodHash());
+            return new KeyFormatPlan(head, super.resolvePlanTail(super.getSuffix()), paramParentheses);
+        }
+        String head = super.resolvePlanHead(targetClass, method, annotation.prefix(), annotation.clazzName(), annotation.shortClazzName(), annotation.methodHash());
+        return new KeyFormatPlan(head, super.resolvePlanTail(annotation.suffix()), annotation.paramParentheses());
+    }
+
+    @Override
+    protected String resolveParams(@Nonnull KeyFormatPlan plan, @Nonnull Object target, @Nonnull Method method, @Nullable Object... params) {
+        String result = MurmurHashKeyFunnel.hashParams(params).toString();
+        return !plan.isParamParentheses() ? result : CharVariantConst.PARENTHESIS_LEFT + result + CharVariantConst.PARENTHESIS_RIGHT;
+    }
+}
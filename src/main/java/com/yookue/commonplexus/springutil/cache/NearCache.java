@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.commonplexus.springutil.cache;
+
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import com.google.common.cache.CacheBuilder;
+
+
+/**
+ * Two-level {@link org.springframework.cache.Cache}, with a bounded in-process local tier in front of a remote tier
+ * <p>
+ * Reads are served from the local tier first, and the values of the remote tier are promoted to the local tier.
+ * Writes go to the remote tier, and are broadcast to the other nodes, so they evict their local copies
+ * <p>
+ * The local tier is keyed by the string forms of the keys, which are the same as the broadcast ones, so a broadcast eviction is a single lookup.
+ * Each local entry also keeps the original key, so two keys with the same string form never read the value of each other
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cache.NearCacheManager
+ */
+@SuppressWarnings("unused")
+public class NearCache implements Cache {
+    private final String name;
+    private final com.google.common.cache.Cache<String, LocalEntry> localCache;
+    private final Cache remoteCache;
+    private final NearCacheBroadcaster broadcaster;
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder localMisses = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+
+    public NearCache(@Nonnull Cache remoteCache, @Nonnull NearCacheBroadcaster broadcaster, long localMaximumSize, @Nonnull Duration localExpiration) {
+        this.name = remoteCache.getName();
+        this.localCache = CacheBuilder.newBuilder().maximumSize(localMaximumSize).expireAfterWrite(localExpiration).build();
+        this.remoteCache = remoteCache;
+        this.broadcaster = broadcaster;
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Nonnull
+    @Override
+    public Object getNativeCache() {
+        return localCache;
+    }
+
+    @Nonnull
+    public Cache getRemoteCache() {
+        return remoteCache;
+    }
+
+    @Nullable
+    @Override
+    public ValueWrapper get(@Nonnull Object key) {
+        LocalEntry entry = localCache.getIfPresent(renderKey(key));
+        if (entry != null && entry.key.equals(key)) {
+            localHits.increment();
+            return entry.wrapper;
+        }
+        localMisses.increment();
+        ValueWrapper wrapper = remoteCache.get(key);
+        if (wrapper == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        putLocal(key, wrapper);
+        return wrapper;
+    }
+
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@Nonnull Object key, @Nullable Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = (wrapper == null) ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(String.format("Cached value is not of required type [%s]: %s", type.getName(), value));    // $NON-NLS-1$
+        }
+        return (T) value;
+    }
+
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@Nonnull Object key, @Nonnull Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value = remoteCache.get(key, valueLoader);
+        putLocal(key, new SimpleValueWrapper(value));
+        return value;
+    }
+
+    @Override
+    public void put(@Nonnull Object key, @Nullable Object value) {
+        remoteCache.put(key, value);
+        putLocal(key, new SimpleValueWrapper(value));
+        broadcaster.broadcastEvict(name, key);
+    }
+
+    @Nullable
+    @Override
+    public ValueWrapper putIfAbsent(@Nonnull Object key, @Nullable Object value) {
+        ValueWrapper existing = remoteCache.putIfAbsent(key, value);
+        if (existing != null) {
+            putLocal(key, existing);
+            return existing;
+        }
+        putLocal(key, new SimpleValueWrapper(value));
+        broadcaster.broadcastEvict(name, key);
+        return null;
+    }
+
+    @Override
+    public void evict(@Nonnull Object key) {
+        remoteCache.evict(key);
+        localCache.invalidate(renderKey(key));
+        broadcaster.broadcastEvict(name, key);
+    }
+
+    @Override
+    public boolean evictIfPresent(@Nonnull Object key) {
+        boolean result = remoteCache.evictIfPresent(key);
+        localCache.invalidate(renderKey(key));
+        broadcaster.broadcastEvict(name, key);
+        return result;
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        localCache.invalidateAll();
+        broadcaster.broadcastClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean result = remoteCache.invalidate();
+        localCache.invalidateAll();
+        broadcaster.broadcastClear(name);
+        return result;
+    }
+
+    /**
+     * Evicts the key from the local tier only, which is rendered to the given string by the broadcaster
+     *
+     * @param renderedKey the string form of the cache key
+     */
+    public void evictLocal(@Nonnull String renderedKey) {
+        localCache.invalidate(renderedKey);
+    }
+
+    /**
+     * Clears the local tier only
+     */
+    public void clearLocal() {
+        localCache.invalidateAll();
+    }
+
+    public long getLocalHitCount() {
+        return localHits.sum();
+    }
+
+    public long getLocalMissCount() {
+        return localMisses.sum();
+    }
+
+    public long getRemoteHitCount() {
+        return remoteHits.sum();
+    }
+
+    public long getRemoteMissCount() {
+        return remoteMisses.sum();
+    }
+
+    public long getLocalSize() {
+        return localCache.size();
+    }
+
+    private void putLocal(@Nonnull Object key, @Nonnull ValueWrapper wrapper) {
+        localCache.put(renderKey(key), new LocalEntry(key, wrapper));
+    }
+
+    @Nonnull
+    private String renderKey(@Nonnull Object key) {
+        return (key instanceof String alias) ? alias : key.toString();
+    }
+
+
+    private static final class LocalEntry {
+        private final Object key;
+        private final ValueWrapper wrapper;
+
+        private LocalEntry(@Nonnull Object key, @Nonnull ValueWrapper wrapper) {
+            this.key = key;
+            this.wrapper = wrapper;
+        }
+    }
+}
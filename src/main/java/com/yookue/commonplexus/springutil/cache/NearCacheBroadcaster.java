@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.commonplexus.springutil.cache;
+
+
+import jakarta.annotation.Nonnull;
+
+
+/**
+ * Broadcaster that notifies the other nodes to invalidate their local tier of {@link com.yookue.commonplexus.springutil.cache.NearCache}s
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cache.NearCacheManager
+ * @see com.yookue.commonplexus.springutil.cache.RedisNearCacheBroadcaster
+ */
+@SuppressWarnings("unused")
+public interface NearCacheBroadcaster {
+    /**
+     * Broadcaster that notifies nobody, for single node deployments and tests
+     */
+    NearCacheBroadcaster NONE = new NearCacheBroadcaster() {
+        @Override
+        public void broadcastEvict(@Nonnull String cacheName, @Nonnull Object key) {
+        }
+
+        @Override
+        public void broadcastClear(@Nonnull String cacheName) {
+        }
+    };
+
+    /**
+     * Notifies the other nodes to evict the key from their local tier
+     *
+     * @param cacheName the cache name
+     * @param key the cache key
+     */
+    void broadcastEvict(@Nonnull String cacheName, @Nonnull Object key);
+
+    /**
+     * Notifies the other nodes to clear their local tier
+     *
+     * @param cacheName the cache name
+     */
+    void broadcastClear(@Nonnull String cacheName);
+}
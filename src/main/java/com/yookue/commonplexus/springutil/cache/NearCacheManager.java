@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.commonplexus.springutil.cache;
+
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.util.Assert;
+import lombok.Getter;
+
+
+/**
+ * {@link org.springframework.cache.CacheManager} of {@link com.yookue.commonplexus.springutil.cache.NearCache}s
+ * <p>
+ * The remote tier may be any cache manager, such as a {@link org.springframework.data.redis.cache.RedisCacheManager} in production,
+ * or a {@link org.springframework.cache.concurrent.ConcurrentMapCacheManager} in tests
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cache.NearCache
+ */
+@SuppressWarnings("unused")
+public class NearCacheManager implements CacheManager {
+    public static final long DEFAULT_LOCAL_SIZE = 10000L;
+    public static final Duration DEFAULT_LOCAL_EXPIRATION = Duration.ofMinutes(1L);
+
+    @Getter
+    private final CacheManager remoteManager;
+
+    @Getter
+    private final NearCacheBroadcaster broadcaster;
+
+    @Getter
+    private final long localMaximumSize;
+
+    @Getter
+    private final Duration localExpiration;
+
+    private final Map<String, NearCache> caches = new ConcurrentHashMap<>(16);
+
+    public NearCacheManager(@Nonnull CacheManager remoteManager) {
+        this(remoteManager, NearCacheBroadcaster.NONE);
+    }
+
+    public NearCacheManager(@Nonnull CacheManager remoteManager, @Nonnull NearCacheBroadcaster broadcaster) {
+        this(remoteManager, broadcaster, DEFAULT_LOCAL_SIZE, DEFAULT_LOCAL_EXPIRATION);
+    }
+
+    public NearCacheManager(@Nonnull CacheManager remoteManager, @Nonnull NearCacheBroadcaster broadcaster, long localMaximumSize, @Nonnull Duration localExpiration) {
+        Assert.isTrue(localMaximumSize > 0L, "Local maximum size must be greater than 0");
+        Assert.isTrue(!localExpiration.isNegative() && !localExpiration.isZero(), "Local expiration must be positive");
+        this.remoteManager = remoteManager;
+        this.broadcaster = broadcaster;
+        this.localMaximumSize = localMaximumSize;
+        this.localExpiration = localExpiration;
+    }
+
+    @Nullable
+    @Override
+    public Cache getCache(@Nonnull String name) {
+        NearCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remoteCache = remoteManager.getCache(name);
+        return (remoteCache == null) ? null : caches.computeIfAbsent(name, key -> new NearCache(remoteCache, broadcaster, localMaximumSize, localExpiration));
+    }
+
+    @Nonnull
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteManager.getCacheNames();
+    }
+
+    /**
+     * Evicts the key from the local tier of the named cache, usually invoked by the other nodes
+     *
+     * @param cacheName the cache name
+     * @param renderedKey the string form of the cache key
+     */
+    public void evictLocal(@Nonnull String cacheName, @Nonnull String renderedKey) {
+        NearCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.evictLocal(renderedKey);
+        }
+    }
+
+    /**
+     * Clears the local tier of the named cache, usually invoked by the other nodes
+     *
+     * @param cacheName the cache name
+     */
+    public void clearLocal(@Nonnull String cacheName) {
+        NearCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.clearLocal();
+        }
+    }
+}
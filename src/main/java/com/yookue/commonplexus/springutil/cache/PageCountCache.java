@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cache;
+
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.util.ObjectUtils;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.yookue.commonplexus.springutil.constant.MybatisPageConst;
+
+
+/**
+ * Short-lived cache of the totals of paged queries
+ * <p>
+ * The totals are keyed by the statement id and the normalized filter params.
+ * The params that only affect paging or sorting, such as the offset, the limit and the order columns, are excluded from the key,
+ * so that turning pages or sorting columns hits the same total
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.util.MybatisPageWraps#selectPageList
+ */
+@SuppressWarnings("unused")
+public class PageCountCache {
+    public static final long DEFAULT_MAXIMUM_SIZE = 1024L;
+    public static final Duration DEFAULT_EXPIRATION = Duration.ofSeconds(30L);
+
+    private static final Set<String> PAGE_PARAMS = Set.of("draw", "start", "length", "current", "pageSize", "pageNum", "_sort_order_", MybatisPageConst.COUNT, MybatisPageConst.ORDER_BY, MybatisPageConst.PAGE_SIZE_ZERO, MybatisPageConst.REASONABLE, MybatisPageConst.SEEK_TOKEN);    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$ // $NON-NLS-4$ // $NON-NLS-5$ // $NON-NLS-6$ // $NON-NLS-7$
+
+    private final Cache<String, Long> totals;
+
+    public PageCountCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_EXPIRATION);
+    }
+
+    public PageCountCache(long maximumSize, @Nonnull Duration expiration) {
+        this.totals = CacheBuilder.newBuilder().maximumSize(maximumSize).expireAfterWrite(expiration).build();
+    }
+
+    @Nullable
+    public Long get(@Nonnull String statementId, @Nullable Map<String, ?> params) {
+        return totals.getIfPresent(generateKey(statementId, params));
+    }
+
+    public void put(@Nonnull String statementId, @Nullable Map<String, ?> params, long total) {
+        totals.put(generateKey(statementId, params), total);
+    }
+
+    public void evict(@Nonnull String statementId, @Nullable Map<String, ?> params) {
+        totals.invalidate(generateKey(statementId, params));
+    }
+
+    public void clear() {
+        totals.invalidateAll();
+    }
+
+    /**
+     * Returns the cache key of the statement id and the filter params
+     *
+     * @param statementId the id of the statement
+     * @param params the parameters map
+     *
+     * @return the cache key of the statement id and the filter params
+     */
+    @Nonnull
+    public static String generateKey(@Nonnull String statementId, @Nullable Map<String, ?> params) {
+        if (params == null || params.isEmpty()) {
+            return statementId;
+        }
+        Map<String, String> filters = new TreeMap<>();
+        params.forEach((key, value) -> {
+            if (value != null && StringUtils.isNotBlank(key) && !PAGE_PARAMS.contains(key) && !StringUtils.startsWithAny(key, "order[", "_seek_")) {    // $NON-NLS-1$ // $NON-NLS-2$
+                filters.put(key, ObjectUtils.nullSafeToString(value));
+            }
+        });
+        return filters.isEmpty() ? statementId : statementId + filters;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.commonplexus.springutil.cache;
+
+
+import jakarta.annotation.Nonnull;
+
+
+/**
+ * Formatter that appends a param of a specified type to the cache keys of {@link com.yookue.commonplexus.springutil.cache.PlainParamKeyGenerator}
+ * <p>
+ * Formatters that are registered as beans take precedence over the built-in ones, and are sorted by {@link org.springframework.core.Ordered} or {@link org.springframework.core.annotation.Order}
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cache.ParamKeyFormatterRegistry
+ */
+@SuppressWarnings("unused")
+public interface ParamKeyFormatter {
+    /**
+     * Returns whether this formatter supports the given param type or not
+     * <p>
+     * The result is cached per runtime class, so it should only depend on the given type
+     *
+     * @param type the runtime class of the param
+     *
+     * @return whether this formatter supports the given param type or not
+     */
+    boolean supports(@Nonnull Class<?> type);
+
+    /**
+     * Appends the given param to the builder
+     *
+     * @param param the param to format
+     * @param builder the builder of the cache key
+     * @param registry the registry to format the nested params, such as collection elements
+     */
+    void format(@Nonnull Object param, @Nonnull StringBuilder builder, @Nonnull ParamKeyFormatterRegistry registry);
+}
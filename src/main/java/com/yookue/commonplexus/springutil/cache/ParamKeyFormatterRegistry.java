@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.commonplexus.springutil.cache;
+
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.time.FastDateFormat;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
+import com.yookue.commonplexus.javaseutil.constant.StringVariantConst;
+import com.yookue.commonplexus.javaseutil.constant.TemporalFormatConst;
+
+
+/**
+ * Registry of {@link com.yookue.commonplexus.springutil.cache.ParamKeyFormatter}s, which resolves the formatter of each runtime class only once
+ * <p>
+ * The custom formatters take precedence over the built-in ones, which format booleans, characters, char sequences, numbers, enums, UUIDs,
+ * dates, local dates/times, arrays, collections, maps and beans with identity fields.
+ * Params of other types are formatted by {@link org.springframework.util.ObjectUtils#getDisplayString(Object)}
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cache.ParamKeyFormatter
+ * @see com.yookue.commonplexus.springutil.cache.ParamKeyIdentity
+ */
+@SuppressWarnings("unused")
+public class ParamKeyFormatterRegistry {
+    private static final String ELEMENT_SEPARATOR = ", ";    // $NON-NLS-1$
+    private static final Set<String> IDENTITY_ANNOTATIONS = Set.of(ParamKeyIdentity.class.getName(), "jakarta.persistence.Id", "org.springframework.data.annotation.Id");    // $NON-NLS-1$ // $NON-NLS-2$
+    private static final FastDateFormat UTIL_DATE_FORMAT = FastDateFormat.getInstance(TemporalFormatConst.NON_YYYYMMDD);
+    private static final DateTimeFormatter LOCAL_DATE_FORMAT = DateTimeFormatter.ofPattern(TemporalFormatConst.NON_YYYYMMDD);
+    private static final DateTimeFormatter LOCAL_DATE_TIME_FORMAT = DateTimeFormatter.ofPattern(TemporalFormatConst.NON_YYYYMMDD_HHMMSS);
+    private static final DateTimeFormatter LOCAL_TIME_FORMAT = DateTimeFormatter.ofPattern(TemporalFormatConst.NON_HHMMSS);
+
+    private final List<ParamKeyFormatter> formatters;
+
+    private final ClassValue<ParamKeyFormatter> resolved = new ClassValue<>() {
+        @Override
+        protected ParamKeyFormatter computeValue(@Nonnull Class<?> type) {
+            return formatters.stream().filter(formatter -> formatter.supports(type)).findFirst().orElse(DisplayStringFormatter.INSTANCE);
+        }
+    };
+
+    public ParamKeyFormatterRegistry() {
+        this(null);
+    }
+
+    public ParamKeyFormatterRegistry(@Nullable Collection<? extends ParamKeyFormatter> customFormatters) {
+        List<ParamKeyFormatter> list = new ArrayList<>();
+        if (customFormatters != null) {
+            list.addAll(customFormatters);
+        }
+        list.addAll(builtinFormatters());
+        formatters = Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Appends the given param to the builder, with the formatter of its runtime class
+     *
+     * @param param the param to format
+     * @param builder the builder of the cache key
+     */
+    public void format(@Nullable Object param, @Nonnull StringBuilder builder) {
+        if (param == null) {
+            builder.append(StringVariantConst.NULL);
+            return;
+        }
+        resolved.get(param.getClass()).format(param, builder, this);
+    }
+
+    @Nonnull
+    public List<ParamKeyFormatter> getFormatters() {
+        return formatters;
+    }
+
+    @Nonnull
+    private static List<ParamKeyFormatter> builtinFormatters() {
+        return List.of(
+            new TypedFormatter<>(CharSequence.class, (param, builder) -> builder.append(param)),
+            new TypedFormatter<>(Boolean.class, (param, builder) -> builder.append(BooleanUtils.toStringTrueFalse(param))),
+            new TypedFormatter<>(Character.class, (param, builder) -> builder.append(param.charValue())),
+            new TypedFormatter<>(Number.class, (param, builder) -> builder.append(param)),
+            new TypedFormatter<>(Enum.class, (param, builder) -> builder.append(param.name())),
+            new TypedFormatter<>(UUID.class, (param, builder) -> builder.append(param)),
+            new TypedFormatter<>(Date.class, (param, builder) -> UTIL_DATE_FORMAT.format(param, builder)),
+            new TypedFormatter<>(LocalDate.class, (param, builder) -> LOCAL_DATE_FORMAT.formatTo(param, builder)),
+            new TypedFormatter<>(LocalDateTime.class, (param, builder) -> LOCAL_DATE_TIME_FORMAT.formatTo(param, builder)),
+            new TypedFormatter<>(LocalTime.class, (param, builder) -> LOCAL_TIME_FORMAT.formatTo(param, builder)),
+            new ArrayFormatter(),
+            new CollectionFormatter(),
+            new MapFormatter(),
+            new IdentityBeanFormatter()
+        );
+    }
+
+
+    private static final class TypedFormatter<T> implements ParamKeyFormatter {
+        private final Class<T> type;
+        private final BiConsumer<T, StringBuilder> appender;
+
+        private TypedFormatter(@Nonnull Class<T> type, @Nonnull BiConsumer<T, StringBuilder> appender) {
+            this.type = type;
+            this.appender = appender;
+        }
+
+        @Override
+        public boolean supports(@Nonnull Class<?> type) {
+            return this.type.isAssignableFrom(type);
+        }
+
+        @Override
+        public void format(@Nonnull Object param, @Nonnull StringBuilder builder, @Nonnull ParamKeyFormatterRegistry registry) {
+            appender.accept(this.type.cast(param), builder);
+        }
+    }
+
+
+    private static final class ArrayFormatter implements ParamKeyFormatter {
+        @Override
+        public boolean supports(@Nonnull Class<?> type) {
+            return type.isArray();
+        }
+
+        @Override
+        public void format(@Nonnull Object param, @Nonnull StringBuilder builder, @Nonnull ParamKeyFormatterRegistry registry) {
+            int length = Array.getLength(param);
+            builder.append('{');
+            for (int i = 0; i < length; i++) {
+                if (i > 0) {
+                    builder.append(ELEMENT_SEPARATOR);
+                }
+                registry.format(Array.get(param, i), builder);
+            }
+            builder.append('}');
+        }
+    }
+
+
+    private static final class CollectionFormatter implements ParamKeyFormatter {
+        @Override
+        public boolean supports(@Nonnull Class<?> type) {
+            return Collection.class.isAssignableFrom(type);
+        }
+
+        @Override
+        public void format(@Nonnull Object param, @Nonnull StringBuilder builder, @Nonnull ParamKeyFormatterRegistry registry) {
+            boolean first = true;
+            builder.append('[');
+            for (Object element : (Collection<?>) param) {
+                if (!first) {
+                    builder.append(ELEMENT_SEPARATOR);
+                }
+                first = false;
+                if (element == param) {
+                    builder.append("(this Collection)");    // $NON-NLS-1$
+                } else {
+                    registry.format(element, builder);
+                }
+            }
+            builder.append(']');
+        }
+    }
+
+
+    private static final class MapFormatter implements ParamKeyFormatter {
+        @Override
+        public boolean supports(@Nonnull Class<?> type) {
+            return Map.class.isAssignableFrom(type);
+        }
+
+        @Override
+        public void format(@Nonnull Object param, @Nonnull StringBuilder builder, @Nonnull ParamKeyFormatterRegistry registry) {
+            boolean first = true;
+            builder.append('{');
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) param).entrySet()) {
+                if (!first) {
+                    builder.append(ELEMENT_SEPARATOR);
+                }
+                first = false;
+                registry.format(entry.getKey(), builder);
+                builder.append('=');
+                if (entry.getValue() == param) {
+                    builder.append("(this Map)");    // $NON-NLS-1$
+                } else {
+                    registry.format(entry.getValue(), builder);
+                }
+            }
+            builder.append('}');
+        }
+    }
+
+
+    private static final class IdentityBeanFormatter implements ParamKeyFormatter {
+        private static final String CGLIB_CLASS_SEPARATOR = "$$";    // $NON-NLS-1$
+        private static final String HIBERNATE_PROXY_SEPARATOR = "$HibernateProxy$";    // $NON-NLS-1$
+
+        private final ClassValue<IdentityProperty[]> identityProperties = new ClassValue<>() {
+            @Override
+            protected IdentityProperty[] computeValue(@Nonnull Class<?> type) {
+                List<IdentityProperty> properties = new ArrayList<>();
+                ReflectionUtils.doWithFields(type, field -> properties.add(new IdentityProperty(type, field)), field -> !Modifier.isStatic(field.getModifiers()) && Arrays.stream(field.getAnnotations()).anyMatch(annotation -> IDENTITY_ANNOTATIONS.contains(annotation.annotationType().getName())));
+                return properties.toArray(IdentityProperty[]::new);
+            }
+        };
+
+        private final ClassValue<String> typeNames = new ClassValue<>() {
+            @Override
+            protected String computeValue(@Nonnull Class<?> type) {
+                // The proxies of the same entity must share the key of the entity
+                Class<?> userClass = type;
+                while (userClass.getSuperclass() != null && StringUtils.containsAny(userClass.getName(), CGLIB_CLASS_SEPARATOR, HIBERNATE_PROXY_SEPARATOR)) {
+                    userClass = userClass.getSuperclass();
+                }
+                return ClassUtils.getShortClassName(userClass);
+            }
+        };
+
+        @Override
+        public boolean supports(@Nonnull Class<?> type) {
+            return identityProperties.get(type).length > 0;
+        }
+
+        @Override
+        public void format(@Nonnull Object param, @Nonnull StringBuilder builder, @Nonnull ParamKeyFormatterRegistry registry) {
+            IdentityProperty[] properties = identityProperties.get(param.getClass());
+            builder.append(typeNames.get(param.getClass())).append('{');
+            for (int i = 0; i < properties.length; i++) {
+                if (i > 0) {
+                    builder.append(ELEMENT_SEPARATOR);
+                }
+                builder.append(properties[i].name).append('=');
+                registry.format(properties[i].getValue(param), builder);
+            }
+            builder.append('}');
+        }
+    }
+
+
+    /**
+     * Identity property of a bean, which is read through its getter if any
+     * <p>
+     * The fields of lazy proxies (such as the ones of Hibernate) are never initialized, but their getters delegate to the target entities
+     */
+    private static final class IdentityProperty {
+        private final String name;
+        private final Method getter;
+        private final Field field;
+
+        private IdentityProperty(@Nonnull Class<?> type, @Nonnull Field field) {
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, field.getName());
+            Method readMethod = (descriptor == null) ? null : descriptor.getReadMethod();
+            this.name = field.getName();
+            this.getter = (readMethod != null && !Modifier.isStatic(readMethod.getModifiers())) ? readMethod : null;
+            this.field = (getter == null) ? field : null;
+            if (getter != null) {
+                ReflectionUtils.makeAccessible(getter);
+            } else {
+                ReflectionUtils.makeAccessible(field);
+            }
+        }
+
+        @Nullable
+        private Object getValue(@Nonnull Object bean) {
+            return (getter != null) ? ReflectionUtils.invokeMethod(getter, bean) : ReflectionUtils.getField(field, bean);
+        }
+    }
+
+
+    private static final class DisplayStringFormatter implements ParamKeyFormatter {
+        private static final DisplayStringFormatter INSTANCE = new DisplayStringFormatter();
+
+        @Override
+        public boolean supports(@Nonnull Class<?> type) {
+            return true;
+        }
+
+        @Override
+        public void format(@Nonnull Object param, @Nonnull StringBuilder builder, @Nonnull ParamKeyFormatterRegistry registry) {
+            builder.append(ObjectUtils.getDisplayString(param));
+        }
+    }
+}
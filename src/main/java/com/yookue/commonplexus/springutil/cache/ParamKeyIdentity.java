@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.commonplexus.springutil.cache;
+
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Annotation that marks a field as an identity of the bean, when the bean is a param of {@link com.yookue.commonplexus.springutil.cache.PlainParamKeyGenerator}
+ * <p>
+ * Only the identity fields are formatted into the cache keys, fields that annotated with {@code jakarta.persistence.Id}
+ * or {@code org.springframework.data.annotation.Id} are treated as identities too
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cache.ParamKeyFormatterRegistry
+ */
+@Target(value = ElementType.FIELD)
+@Retention(value = RetentionPolicy.RUNTIME)
+@Documented
+@SuppressWarnings("unused")
+public @interface ParamKeyIdentity {
+}
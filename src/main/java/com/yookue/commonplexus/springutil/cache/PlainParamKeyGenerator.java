@@ -19,29 +19,23 @@ package com.yookue.commonplexus.springutil.cache;
 
 import java.lang.reflect.Method;
 import java.util.Arrays;
-import java.util.StringJoiner;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.ArrayUtils;
-import org.apache.commons.lang3.BooleanUtils;
-import org.apache.commons.lang3.CharUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.aop.support.AopUtils;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.util.Assert;
-import org.springframework.util.ObjectUtils;
 import com.yookue.commonplexus.javaseutil.constant.CharVariantConst;
 import com.yookue.commonplexus.javaseutil.constant.StringVariantConst;
 import com.yookue.commonplexus.javaseutil.constant.SymbolVariantConst;
-import com.yookue.commonplexus.javaseutil.constant.TemporalFormatConst;
-import com.yookue.commonplexus.javaseutil.util.LocalDateWraps;
-import com.yookue.commonplexus.javaseutil.util.UtilDateWraps;
 import lombok.Getter;
 import lombok.Setter;
 
 
 /**
  * Cache key generator by pain params
+ * <p>
+ * The params are formatted by the {@link com.yookue.commonplexus.springutil.cache.ParamKeyFormatter}s of {@code formatterRegistry}
  *
  * @author David Hsing
  * @see org.springframework.cache.interceptor.KeyGenerator
@@ -50,90 +44,75 @@ import lombok.Setter;
 @Getter
 @Setter
 @SuppressWarnings("unused")
-public class PlainParamKeyGenerator extends AbstractKeyGenerator {
+public class PlainParamKeyGenerator extends AbstractKeyGenerator<PlainParamKeyPlan> {
     public static final int DEFAULT_KEY_LENGTH = 512;
 
     private int maxKeyLength = DEFAULT_KEY_LENGTH;
     private boolean paramParentheses = true;
     private boolean paramHash = true;
+    private ParamKeyFormatterRegistry formatterRegistry = new ParamKeyFormatterRegistry();
 
+    public void setMaxKeyLength(int maxKeyLength) {
+        if (this.maxKeyLength != maxKeyLength) {
+            this.maxKeyLength = maxKeyLength;
+            super.clearFormatPlans();
+        }
+    }
+
+    public void setParamParentheses(boolean paramParentheses) {
+        if (this.paramParentheses != paramParentheses) {
+            this.paramParentheses = paramParentheses;
+            super.clearFormatPlans();
+        }
+    }
+
+    public void setParamHash(boolean paramHash) {
+        if (this.paramHash != paramHash) {
+            this.paramHash = paramHash;
+            super.clearFormatPlans();
+        }
+    }
+
+    @Nonnull
     @Override
-    protected void beforeGenerate(@Nonnull Object target, @Nonnull Method method, @Nullable Object... params) {
-        Class<?> targetClass = AopUtils.getTargetClass(target);
-        PlainParamKeyFormat clazzAnnotation = AnnotationUtils.findAnnotation(targetClass, PlainParamKeyFormat.class);
-        if (clazzAnnotation != null) {
-            processAnnotation(clazzAnnotation);
+    protected PlainParamKeyPlan resolvePlan(@Nonnull Class<?> targetClass, @Nonnull Method method) {
+        PlainParamKeyFormat annotation = AnnotationUtils.findAnnotation(method, PlainParamKeyFormat.class);
+        if (annotation == null) {
+            annotation = AnnotationUtils.findAnnotation(targetClass, PlainParamKeyFormat.class);
         }
-        PlainParamKeyFormat methodAnnotation = AnnotationUtils.findAnnotation(method, PlainParamKeyFormat.class);
-        if (methodAnnotation != null) {
-            processAnnotation(methodAnnotation);
+        PlainParamKeyPlan result;
+        if (annotation == null) {
+            String head = super.resolvePlanHead(targetClass, method, super.getPrefix(), super.isClazzName(), super.isShortClazzName(), super.isMethodHash());
+            result = new PlainParamKeyPlan(head, super.resolvePlanTail(super.getSuffix()), paramParentheses, maxKeyLength, paramHash);
+        } else {
+            String head = super.resolvePlanHead(targetClass, method, annotation.prefix(), annotation.clazzName(), annotation.shortClazzName(), annotation.methodHash());
+            result = new PlainParamKeyPlan(head, super.resolvePlanTail(annotation.suffix()), annotation.paramParentheses(), annotation.maxKeyLength(), annotation.paramHash());
         }
+        // Validate param length
+        Assert.isTrue(result.getMaxParamLength() > 0, "Prop 'maxKeyLength' must be greater than " + (result.getMaxKeyLength() - result.getMaxParamLength()));
+        return result;
     }
 
     @Override
     @SuppressWarnings("DataFlowIssue")
-    protected String resolveParams(@Nonnull Object target, @Nonnull Method method, @Nullable Object... params) {
-        // Validate param length
-        int minParamLength = paramParentheses ? 5 : 3;
-        Assert.isTrue(maxKeyLength > minParamLength, "Prop 'maxParamLength' must be greater than " + minParamLength);
+    protected String resolveParams(@Nonnull PlainParamKeyPlan plan, @Nonnull Object target, @Nonnull Method method, @Nullable Object... params) {
         // Generate cache key
-        StringJoiner joiner = new StringJoiner(CharUtils.toString(CharVariantConst.COMMA));
+        StringBuilder builder = new StringBuilder();
         if (ArrayUtils.isEmpty(params)) {
-            joiner.add(StringVariantConst.NULL);
+            builder.append(StringVariantConst.NULL);
         } else {
-            for (Object param : params) {
-                if (param == null) {
-                    joiner.add(StringVariantConst.NULL);
-                    continue;
-                }
-                if (param instanceof Boolean alias) {
-                    joiner.add(BooleanUtils.toStringTrueFalse(alias));
-                    continue;
-                }
-                if (param instanceof Character alias) {
-                    joiner.add(CharUtils.toString(alias));
-                    continue;
-                }
-                if (param instanceof CharSequence alias) {
-                    joiner.add(alias.toString());
-                    continue;
-                }
-                if (param instanceof java.util.Date alias) {
-                    joiner.add(UtilDateWraps.formatDateTime(alias, TemporalFormatConst.NON_YYYYMMDD));
-                    continue;
-                }
-                if (param instanceof java.time.LocalDate alias) {
-                    joiner.add(LocalDateWraps.formatDate(alias, TemporalFormatConst.NON_YYYYMMDD));
-                    continue;
+            for (int i = 0; i < params.length; i++) {
+                if (i > 0) {
+                    builder.append(CharVariantConst.COMMA);
                 }
-                if (param instanceof java.time.LocalDateTime alias) {
-                    joiner.add(LocalDateWraps.formatDateTime(alias, TemporalFormatConst.NON_YYYYMMDD_HHMMSS));
-                    continue;
-                }
-                if (param instanceof java.time.LocalTime alias) {
-                    joiner.add(LocalDateWraps.formatTime(alias, TemporalFormatConst.NON_HHMMSS));
-                    continue;
-                }
-                joiner.add(ObjectUtils.getDisplayString(param));
+                formatterRegistry.format(params[i], builder);
             }
         }
-        StringBuilder builder = new StringBuilder();
-        builder.append(StringUtils.abbreviate(joiner.toString(), maxKeyLength - minParamLength));
-        String content = !paramParentheses ? builder.toString() : StringUtils.join(CharVariantConst.PARENTHESIS_LEFT, builder.toString(), CharVariantConst.PARENTHESIS_RIGHT);
-        if (!paramHash) {
+        String abbreviated = StringUtils.abbreviate(builder.toString(), plan.getMaxParamLength());
+        String content = !plan.isParamParentheses() ? abbreviated : StringUtils.join(CharVariantConst.PARENTHESIS_LEFT, abbreviated, CharVariantConst.PARENTHESIS_RIGHT);
+        if (!plan.isParamHash()) {
             return content;
         }
         return StringUtils.join(content, String.format(SymbolVariantConst.HEX_ORDER_SQUARES, Math.abs(Arrays.deepHashCode(params))));
     }
-
-    private void processAnnotation(@Nonnull PlainParamKeyFormat annotation) {
-        super.setPrefix(annotation.prefix());
-        super.setSuffix(annotation.suffix());
-        super.setClazzName(annotation.clazzName());
-        super.setShortClazzName(annotation.shortClazzName());
-        super.setMethodHash(annotation.methodHash());
-        maxKeyLength = annotation.maxKeyLength();
-        paramParentheses = annotation.paramParentheses();
-        paramHash = annotation.paramHash();
-    }
 }
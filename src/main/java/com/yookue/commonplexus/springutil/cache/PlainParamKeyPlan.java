@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cache;
+
+
+import jakarta.annotation.Nonnull;
+import lombok.Getter;
+
+
+/**
+ * Immutable key format of a target class and method, resolved once by {@link com.yookue.commonplexus.springutil.cache.PlainParamKeyGenerator}
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cache.PlainParamKeyGenerator
+ */
+@Getter
+@SuppressWarnings("unused")
+public class PlainParamKeyPlan extends KeyFormatPlan {
+    private final int maxKeyLength;
+    private final int maxParamLength;
+    private final boolean paramHash;
+
+    public PlainParamKeyPlan(@Nonnull String head, @Nonnull String tail, boolean paramParentheses, int maxKeyLength, boolean paramHash) {
+        super(head, tail, paramParentheses);
+        this.maxKeyLength = maxKeyLength;
+        this.maxParamLength = maxKeyLength - (paramParentheses ? 5 : 3);
+        this.paramHash = paramHash;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.commonplexus.springutil.cache;
+
+
+import java.util.UUID;
+import jakarta.annotation.Nonnull;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import lombok.Getter;
+
+
+/**
+ * {@link com.yookue.commonplexus.springutil.cache.NearCacheBroadcaster} by Redis pub/sub
+ * <p>
+ * The messages contain the node id, the action, the cache name and the string form of the key, separated by line feeds.
+ * The messages published by the current node are ignored by its listener
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cache.NearCacheManager
+ */
+@Getter
+@SuppressWarnings("unused")
+public class RedisNearCacheBroadcaster implements NearCacheBroadcaster {
+    public static final String DEFAULT_CHANNEL = "plexus:near-cache:invalidation";    // $NON-NLS-1$
+    private static final char SEPARATOR = '\n';
+    private static final String ACTION_EVICT = "E";    // $NON-NLS-1$
+    private static final String ACTION_CLEAR = "C";    // $NON-NLS-1$
+
+    private final StringRedisTemplate template;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public RedisNearCacheBroadcaster(@Nonnull StringRedisTemplate template) {
+        this(template, DEFAULT_CHANNEL);
+    }
+
+    public RedisNearCacheBroadcaster(@Nonnull StringRedisTemplate template, @Nonnull String channel) {
+        this.template = template;
+        this.channel = channel;
+    }
+
+    @Override
+    public void broadcastEvict(@Nonnull String cacheName, @Nonnull Object key) {
+        template.convertAndSend(channel, nodeId + SEPARATOR + ACTION_EVICT + SEPARATOR + cacheName + SEPARATOR + key);
+    }
+
+    @Override
+    public void broadcastClear(@Nonnull String cacheName) {
+        template.convertAndSend(channel, nodeId + SEPARATOR + ACTION_CLEAR + SEPARATOR + cacheName + SEPARATOR);
+    }
+
+    /**
+     * Returns a listener that invalidates the local tier of the manager, when the other nodes broadcast
+     *
+     * @param manager the near cache manager of the current node
+     *
+     * @return a listener that invalidates the local tier of the manager, when the other nodes broadcast
+     */
+    @Nonnull
+    public MessageListener createListener(@Nonnull NearCacheManager manager) {
+        return (message, pattern) -> {
+            String payload = template.getStringSerializer().deserialize(message.getBody());
+            if (payload == null || StringUtils.startsWith(payload, nodeId)) {
+                return;
+            }
+            // The key may contain the separator, so only split the leading parts
+            String[] parts = payload.split(String.valueOf(SEPARATOR), 4);
+            if (parts.length < 4) {
+                return;
+            }
+            if (ACTION_CLEAR.equals(parts[1])) {
+                manager.clearLocal(parts[2]);
+            } else if (ACTION_EVICT.equals(parts[1])) {
+                manager.evictLocal(parts[2], parts[3]);
+            }
+        };
+    }
+}
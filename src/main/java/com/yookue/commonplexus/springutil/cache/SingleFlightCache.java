@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.commonplexus.springutil.cache;
+
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Decorator of {@link org.springframework.cache.Cache} that coalesces the concurrent loads of the same key
+ * <p>
+ * On a miss of {@link #get(Object, Callable)}, only one loader per key runs in the current JVM, and the concurrent callers of the key wait on the same future,
+ * so the methods should be annotated with {@code @Cacheable(sync = true)}.
+ * Please note that a plain {@code @Cacheable} reads by {@link #get(Object)} and writes by {@link #put(Object, Object)},
+ * which are passed to the delegate as they are, so the concurrent misses of it are NOT coalesced
+ * <p>
+ * If {@code timeToLive} and {@code refreshWindow} are positive, the hot keys that are loaded by the current JVM will be reloaded in background,
+ * when they are read within the refresh window before their expiration. A refresh that is rejected by the executor is skipped
+ *
+ * @author David Hsing
+ * @see org.springframework.cache.annotation.Cacheable#sync()
+ * @see com.yookue.commonplexus.springutil.cache.SingleFlightCacheManager
+ */
+@Slf4j
+@SuppressWarnings("unused")
+public class SingleFlightCache implements Cache {
+    @Getter
+    private final Cache delegate;
+
+    @Getter
+    private final Duration loadTimeout;
+
+    private final long refreshAfterMillis;
+    private final Executor refreshExecutor;
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> inflights = new ConcurrentHashMap<>();
+    private final com.google.common.cache.Cache<Object, Long> loadTimes;
+
+    public SingleFlightCache(@Nonnull Cache delegate, @Nonnull Duration loadTimeout, @Nullable Duration timeToLive, @Nullable Duration refreshWindow, @Nonnull Executor refreshExecutor) {
+        this.delegate = delegate;
+        this.loadTimeout = loadTimeout;
+        this.refreshExecutor = refreshExecutor;
+        boolean refreshable = timeToLive != null && refreshWindow != null && !refreshWindow.isNegative() && !refreshWindow.isZero() && timeToLive.compareTo(refreshWindow) > 0;
+        this.refreshAfterMillis = refreshable ? timeToLive.minus(refreshWindow).toMillis() : -1L;
+        this.loadTimes = refreshable ? CacheBuilder.newBuilder().expireAfterWrite(timeToLive).build() : null;
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Nonnull
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Nullable
+    @Override
+    public ValueWrapper get(@Nonnull Object key) {
+        return delegate.get(key);
+    }
+
+    @Nullable
+    @Override
+    public <T> T get(@Nonnull Object key, @Nullable Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@Nonnull Object key, @Nonnull Callable<T> valueLoader) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper != null) {
+            refreshIfNecessary(key, valueLoader);
+            return (T) wrapper.get();
+        }
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> inflight = inflights.putIfAbsent(key, future);
+        if (inflight != null) {
+            return (T) awaitInflight(key, valueLoader, inflight);
+        }
+        try {
+            // Another leader may have just finished loading the key
+            wrapper = delegate.get(key);
+            Object value = (wrapper != null) ? wrapper.get() : loadValue(key, valueLoader);
+            future.complete(value);
+            return (T) value;
+        } catch (Throwable ex) {
+            future.completeExceptionally(ex);
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        } finally {
+            inflights.remove(key, future);
+        }
+    }
+
+    @Override
+    public void put(@Nonnull Object key, @Nullable Object value) {
+        delegate.put(key, value);
+        recordLoadTime(key);
+    }
+
+    @Nullable
+    @Override
+    public ValueWrapper putIfAbsent(@Nonnull Object key, @Nullable Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(@Nonnull Object key) {
+        delegate.evict(key);
+        discardLoadTime(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(@Nonnull Object key) {
+        discardLoadTime(key);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        discardLoadTimes();
+    }
+
+    @Override
+    public boolean invalidate() {
+        discardLoadTimes();
+        return delegate.invalidate();
+    }
+
+    public int getInflightCount() {
+        return inflights.size();
+    }
+
+    @Nullable
+    private Object loadValue(@Nonnull Object key, @Nonnull Callable<?> valueLoader) throws Exception {
+        Object value = valueLoader.call();
+        delegate.put(key, value);
+        recordLoadTime(key);
+        return value;
+    }
+
+    @Nullable
+    private Object awaitInflight(@Nonnull Object key, @Nonnull Callable<?> valueLoader, @Nonnull CompletableFuture<Object> inflight) {
+        try {
+            return inflight.get(loadTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        } catch (ExecutionException ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+    }
+
+    private void refreshIfNecessary(@Nonnull Object key, @Nonnull Callable<?> valueLoader) {
+        if (loadTimes == null) {
+            return;
+        }
+        Long loadTime = loadTimes.getIfPresent(key);
+        if (loadTime == null || System.currentTimeMillis() - loadTime < refreshAfterMillis) {
+            return;
+        }
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        if (inflights.putIfAbsent(key, future) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    future.complete(loadValue(key, valueLoader));
+                } catch (Throwable ex) {
+                    future.completeExceptionally(ex);
+                    if (log.isWarnEnabled()) {
+                        log.warn("Refresh cache '{}' for key '{}' failed", getName(), key, ex);
+                    }
+                } finally {
+                    inflights.remove(key, future);
+                }
+            });
+        } catch (RuntimeException ex) {
+            inflights.remove(key, future);
+            future.completeExceptionally(ex);
+        }
+    }
+
+    private void recordLoadTime(@Nonnull Object key) {
+        if (loadTimes != null) {
+            loadTimes.put(key, System.currentTimeMillis());
+        }
+    }
+
+    private void discardLoadTime(@Nonnull Object key) {
+        if (loadTimes != null) {
+            loadTimes.invalidate(key);
+        }
+    }
+
+    private void discardLoadTimes() {
+        if (loadTimes != null) {
+            loadTimes.invalidateAll();
+        }
+    }
+}
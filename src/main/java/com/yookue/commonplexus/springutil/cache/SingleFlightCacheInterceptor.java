@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cache;
+
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.cache.Cache;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * {@link org.aopalliance.intercept.MethodInterceptor} that decorates the caches returned by {@link org.springframework.cache.CacheManager#getCache(String)}
+ * with {@link com.yookue.commonplexus.springutil.cache.SingleFlightCache}
+ * <p>
+ * Unlike {@link com.yookue.commonplexus.springutil.cache.SingleFlightCacheManager}, the interceptor is applied by a proxy of the cache manager,
+ * so the cache manager keeps its own type, and can still be injected as {@code RedisCacheManager} or {@code CaffeineCacheManager}
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.processor.SingleFlightCacheProcessor
+ */
+@Getter
+@Setter
+@SuppressWarnings("unused")
+public class SingleFlightCacheInterceptor implements MethodInterceptor {
+    private Duration loadTimeout = SingleFlightCacheManager.DEFAULT_LOAD_TIMEOUT;
+    private Duration timeToLive;
+    private Duration refreshWindow;
+    private Executor refreshExecutor;
+
+    @Getter(value = AccessLevel.NONE)
+    @Setter(value = AccessLevel.NONE)
+    private final Map<Cache, SingleFlightCache> caches = new ConcurrentHashMap<>(16);
+
+    @Nullable
+    @Override
+    public Object invoke(@Nonnull MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        if (!(result instanceof Cache alias) || result instanceof SingleFlightCache) {
+            return result;
+        }
+        SingleFlightCache cache = caches.get(alias);
+        return (cache != null) ? cache : caches.computeIfAbsent(alias, key -> new SingleFlightCache(key, loadTimeout, timeToLive, refreshWindow, getOrCreateExecutor()));
+    }
+
+    @Nonnull
+    private synchronized Executor getOrCreateExecutor() {
+        if (refreshExecutor == null) {
+            refreshExecutor = SingleFlightCacheManager.createRefreshExecutor();
+        }
+        return refreshExecutor;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.commonplexus.springutil.cache;
+
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * Decorator of {@link org.springframework.cache.CacheManager} that decorates the caches with {@link com.yookue.commonplexus.springutil.cache.SingleFlightCache}
+ * <p>
+ * The decorator hides the type of the delegate, please use {@link com.yookue.commonplexus.springutil.processor.SingleFlightCacheProcessor} for the cache manager beans,
+ * which proxies them without changing their types.
+ * If no {@code refreshExecutor} is specified, the background refreshes run on a bounded pool of {@link #DEFAULT_REFRESH_THREADS} threads,
+ * and the refreshes beyond its queue are skipped
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cache.SingleFlightCache
+ */
+@Getter
+@Setter
+@SuppressWarnings("unused")
+public class SingleFlightCacheManager implements CacheManager {
+    public static final Duration DEFAULT_LOAD_TIMEOUT = Duration.ofSeconds(30L);
+    public static final int DEFAULT_REFRESH_THREADS = 4;
+    public static final int DEFAULT_REFRESH_QUEUE = 256;
+
+    private final CacheManager delegate;
+    private Duration loadTimeout = DEFAULT_LOAD_TIMEOUT;
+    private Duration timeToLive;
+    private Duration refreshWindow;
+    private Executor refreshExecutor;
+
+    @Getter(value = AccessLevel.NONE)
+    @Setter(value = AccessLevel.NONE)
+    private final Map<String, SingleFlightCache> caches = new ConcurrentHashMap<>(16);
+
+    public SingleFlightCacheManager(@Nonnull CacheManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Nullable
+    @Override
+    public Cache getCache(@Nonnull String name) {
+        SingleFlightCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        return (target == null) ? null : caches.computeIfAbsent(name, key -> new SingleFlightCache(target, loadTimeout, timeToLive, refreshWindow, getOrCreateExecutor()));
+    }
+
+    @Nonnull
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    /**
+     * Returns a bounded executor for the background refreshes, which rejects the refreshes beyond its queue
+     *
+     * @return a bounded executor for the background refreshes
+     */
+    @Nonnull
+    public static Executor createRefreshExecutor() {
+        CustomizableThreadFactory factory = new CustomizableThreadFactory("single-flight-refresh-");    // $NON-NLS-1$
+        factory.setDaemon(true);
+        ThreadPoolExecutor result = new ThreadPoolExecutor(DEFAULT_REFRESH_THREADS, DEFAULT_REFRESH_THREADS, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(DEFAULT_REFRESH_QUEUE), factory);
+        result.allowCoreThreadTimeOut(true);
+        return result;
+    }
+
+    @Nonnull
+    private synchronized Executor getOrCreateExecutor() {
+        if (refreshExecutor == null) {
+            refreshExecutor = createRefreshExecutor();
+        }
+        return refreshExecutor;
+    }
+}
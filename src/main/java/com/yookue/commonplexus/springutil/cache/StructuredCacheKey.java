@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cache;
+
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.ArrayUtils;
+import lombok.Getter;
+
+
+/**
+ * Immutable cache key that holds the key format and the params
+ * <p>
+ * The hash code is computed only once, and the key is rendered to a {@link java.lang.String} lazily by {@link #toString()},
+ * which is used by remote caches such as Redis.
+ * Two keys are equal if they have the same head and tail of the key format, and the same params, the same as their rendered strings would be
+ * <p>
+ * The key is {@link java.io.Serializable} if the params are, it is rendered before being serialized, and a deserialized key has no plan and method.
+ * Until the key is rendered, it references the generator and the target instance (usually both are singleton beans), and releases them after rendering
+ *
+ * @param <P> the type of the key format plan
+ *
+ * @author David Hsing
+ * @see org.springframework.cache.interceptor.SimpleKey
+ * @see com.yookue.commonplexus.springutil.cache.AbstractKeyGenerator
+ */
+@SuppressWarnings("unused")
+public final class StructuredCacheKey<P extends KeyFormatPlan> implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private transient AbstractKeyGenerator<P> generator;
+    private transient Object target;
+
+    @Getter
+    private final transient P plan;
+
+    @Getter
+    private final transient Method method;
+
+    private final String head;
+    private final String tail;
+    private final Object[] params;
+    private final int hash;
+    private volatile String rendered;
+
+    public StructuredCacheKey(@Nonnull AbstractKeyGenerator<P> generator, @Nonnull P plan, @Nonnull Object target, @Nonnull Method method, @Nullable Object... params) {
+        this.generator = generator;
+        this.plan = plan;
+        this.target = target;
+        this.method = method;
+        this.head = plan.getHead();
+        this.tail = plan.getTail();
+        this.params = ArrayUtils.isEmpty(params) ? ArrayUtils.EMPTY_OBJECT_ARRAY : params.clone();
+        this.hash = 31 * (31 * head.hashCode() + tail.hashCode()) + Arrays.deepHashCode(this.params);
+    }
+
+    @Nonnull
+    public Object[] getParams() {
+        return params.clone();
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof StructuredCacheKey<?> alias) || hash != alias.hash || params.length != alias.params.length) {
+            return false;
+        }
+        return head.equals(alias.head) && tail.equals(alias.tail) && Arrays.deepEquals(params, alias.params);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Nonnull
+    @Override
+    public String toString() {
+        String result = rendered;
+        if (result != null) {
+            return result;
+        }
+        synchronized (this) {
+            if (rendered == null) {
+                rendered = generator.renderKey(plan, target, method, params);
+                generator = null;
+                target = null;
+            }
+            return rendered;
+        }
+    }
+
+    @Serial
+    private void writeObject(@Nonnull ObjectOutputStream output) throws IOException {
+        toString();
+        output.defaultWriteObject();
+    }
+}
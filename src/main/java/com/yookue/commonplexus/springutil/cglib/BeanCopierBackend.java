@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cglib;
+
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import com.yookue.commonplexus.springutil.enumeration.BeanCopierBackendType;
+
+
+/**
+ * Annotation that specifies the backend of {@link com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier}
+ *
+ * <p>
+ * The annotation on the target class takes precedence over the one on the source class,
+ * and both of them take precedence over the system property {@link com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier#BACKEND_PROPERTY}
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier
+ */
+@Target(value = ElementType.TYPE)
+@Retention(value = RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+@SuppressWarnings("unused")
+public @interface BeanCopierBackend {
+    /**
+     * Returns the backend of the bean copiers
+     *
+     * @return the backend of the bean copiers
+     */
+    BeanCopierBackendType value() default BeanCopierBackendType.CGLIB;
+}
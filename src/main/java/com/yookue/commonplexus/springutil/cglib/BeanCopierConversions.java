@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cglib;
+
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.EnumUtils;
+import org.apache.commons.lang3.StringUtils;
+
+
+/**
+ * Conversions that are called by the generated {@link com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier}, without converter
+ * <p>
+ * All the conversions are null safe, an unknown enum name is converted to null, and the date times are converted at the system default time zone
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier
+ */
+@SuppressWarnings("unused")
+public abstract class BeanCopierConversions {
+    @Nullable
+    public static String enumToString(@Nullable Enum<?> value) {
+        return (value == null) ? null : value.name();
+    }
+
+    @Nullable
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Enum<?> stringToEnum(@Nonnull Class<?> type, @Nullable String value) {
+        return StringUtils.isBlank(value) ? null : EnumUtils.getEnum((Class<? extends Enum>) type, value);
+    }
+
+    @Nullable
+    public static Date localDateTimeToDate(@Nullable LocalDateTime value) {
+        return (value == null) ? null : Date.from(value.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    @Nullable
+    public static LocalDateTime dateToLocalDateTime(@Nullable Date value) {
+        // java.sql.Date does not support 'toInstant'
+        return (value == null) ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(value.getTime()), ZoneId.systemDefault());
+    }
+}
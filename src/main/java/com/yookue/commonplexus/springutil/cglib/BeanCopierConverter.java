@@ -42,4 +42,127 @@ public interface BeanCopierConverter {
      * @return the converted value that will be assigned to the target field
      */
     Object convert(@Nullable Object sourceValue, @Nonnull Class<?> targetType, @Nonnull Object targetSetter, @Nonnull String targetName, @Nullable Object targetValue);
+
+    /**
+     * Returns whether the converter reads the original target field value or not
+     * <p>
+     * If returns false, the copier will not call the getter of the target field, and passes null (or zero for primitives) as the target value
+     *
+     * @return whether the converter reads the original target field value or not
+     */
+    default boolean isTargetValueRequired() {
+        return true;
+    }
+
+    /**
+     * Returns the converted value that will be assigned to the target field, when both the source field and the target field are {@code boolean}
+     *
+     * @param sourceValue the source field value
+     * @param targetSetter the setter method name of target field, represents as string
+     * @param targetName the target field name
+     * @param targetValue the original target field value
+     *
+     * @return the converted value that will be assigned to the target field
+     */
+    default boolean convertBoolean(boolean sourceValue, @Nonnull Object targetSetter, @Nonnull String targetName, boolean targetValue) {
+        return (convert(sourceValue, boolean.class, targetSetter, targetName, targetValue) instanceof Boolean alias) ? alias : false;
+    }
+
+    /**
+     * Returns the converted value that will be assigned to the target field, when both the source field and the target field are {@code byte}
+     *
+     * @param sourceValue the source field value
+     * @param targetSetter the setter method name of target field, represents as string
+     * @param targetName the target field name
+     * @param targetValue the original target field value
+     *
+     * @return the converted value that will be assigned to the target field
+     */
+    default byte convertByte(byte sourceValue, @Nonnull Object targetSetter, @Nonnull String targetName, byte targetValue) {
+        return (convert(sourceValue, byte.class, targetSetter, targetName, targetValue) instanceof Byte alias) ? alias : (byte) 0;
+    }
+
+    /**
+     * Returns the converted value that will be assigned to the target field, when both the source field and the target field are {@code char}
+     *
+     * @param sourceValue the source field value
+     * @param targetSetter the setter method name of target field, represents as string
+     * @param targetName the target field name
+     * @param targetValue the original target field value
+     *
+     * @return the converted value that will be assigned to the target field
+     */
+    default char convertChar(char sourceValue, @Nonnull Object targetSetter, @Nonnull String targetName, char targetValue) {
+        return (convert(sourceValue, char.class, targetSetter, targetName, targetValue) instanceof Character alias) ? alias : '\u0000';
+    }
+
+    /**
+     * Returns the converted value that will be assigned to the target field, when both the source field and the target field are {@code short}
+     *
+     * @param sourceValue the source field value
+     * @param targetSetter the setter method name of target field, represents as string
+     * @param targetName the target field name
+     * @param targetValue the original target field value
+     *
+     * @return the converted value that will be assigned to the target field
+     */
+    default short convertShort(short sourceValue, @Nonnull Object targetSetter, @Nonnull String targetName, short targetValue) {
+        return (convert(sourceValue, short.class, targetSetter, targetName, targetValue) instanceof Short alias) ? alias : (short) 0;
+    }
+
+    /**
+     * Returns the converted value that will be assigned to the target field, when both the source field and the target field are {@code int}
+     *
+     * @param sourceValue the source field value
+     * @param targetSetter the setter method name of target field, represents as string
+     * @param targetName the target field name
+     * @param targetValue the original target field value
+     *
+     * @return the converted value that will be assigned to the target field
+     */
+    default int convertInt(int sourceValue, @Nonnull Object targetSetter, @Nonnull String targetName, int targetValue) {
+        return (convert(sourceValue, int.class, targetSetter, targetName, targetValue) instanceof Integer alias) ? alias : 0;
+    }
+
+    /**
+     * Returns the converted value that will be assigned to the target field, when both the source field and the target field are {@code long}
+     *
+     * @param sourceValue the source field value
+     * @param targetSetter the setter method name of target field, represents as string
+     * @param targetName the target field name
+     * @param targetValue the original target field value
+     *
+     * @return the converted value that will be assigned to the target field
+     */
+    default long convertLong(long sourceValue, @Nonnull Object targetSetter, @Nonnull String targetName, long targetValue) {
+        return (convert(sourceValue, long.class, targetSetter, targetName, targetValue) instanceof Long alias) ? alias : 0L;
+    }
+
+    /**
+     * Returns the converted value that will be assigned to the target field, when both the source field and the target field are {@code float}
+     *
+     * @param sourceValue the source field value
+     * @param targetSetter the setter method name of target field, represents as string
+     * @param targetName the target field name
+     * @param targetValue the original target field value
+     *
+     * @return the converted value that will be assigned to the target field
+     */
+    default float convertFloat(float sourceValue, @Nonnull Object targetSetter, @Nonnull String targetName, float targetValue) {
+        return (convert(sourceValue, float.class, targetSetter, targetName, targetValue) instanceof Float alias) ? alias : 0.0F;
+    }
+
+    /**
+     * Returns the converted value that will be assigned to the target field, when both the source field and the target field are {@code double}
+     *
+     * @param sourceValue the source field value
+     * @param targetSetter the setter method name of target field, represents as string
+     * @param targetName the target field name
+     * @param targetValue the original target field value
+     *
+     * @return the converted value that will be assigned to the target field
+     */
+    default double convertDouble(double sourceValue, @Nonnull Object targetSetter, @Nonnull String targetName, double targetValue) {
+        return (convert(sourceValue, double.class, targetSetter, targetName, targetValue) instanceof Double alias) ? alias : 0.0D;
+    }
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cglib;
+
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Annotation that declares a pair of source class and target class for {@link com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier}
+ *
+ * <p>
+ * The copiers of the declared pairs on the bean classes are generated ahead of time, and registered at startup
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.processor.BeanCopierAotProcessor
+ */
+@Target(value = ElementType.TYPE)
+@Retention(value = RetentionPolicy.RUNTIME)
+@Repeatable(value = BeanCopierPairs.class)
+@Documented
+@SuppressWarnings("unused")
+public @interface BeanCopierPair {
+    /**
+     * Returns the source class to read properties from
+     *
+     * @return the source class to read properties from
+     */
+    Class<?> source();
+
+    /**
+     * Returns the target class to write properties to
+     *
+     * @return the target class to write properties to
+     */
+    Class<?> target();
+
+    /**
+     * Returns whether the copier uses converter or not
+     *
+     * @return whether the copier uses converter or not
+     */
+    boolean useConverter() default true;
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cglib;
+
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.cglib.beans.BeanMap;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ObjectUtils;
+import lombok.Getter;
+
+
+/**
+ * Compiled specification that reads the chosen properties of a bean class as a {@link java.util.Map}
+ * <p>
+ * The generated {@link org.springframework.cglib.beans.BeanMap} of the class and the filtered property names are resolved once,
+ * and the values are read through the generated getters of the {@link org.springframework.cglib.beans.BeanMap}.
+ * Use {@link #toMap(Object)} for a detached snapshot, or {@link #asMap(Object)} for a read-only live view without intermediate maps.
+ * The specs of {@link #of} are cached by the same keys as {@link com.yookue.commonplexus.springutil.cglib.CopySpec}, without copying the field sets on cache hits
+ *
+ * @author David Hsing
+ * @see org.springframework.cglib.beans.BeanMap
+ * @see com.yookue.commonplexus.springutil.util.BeanUtilsWraps#beanToMap(Object, boolean, Collection)
+ */
+@SuppressWarnings("unused")
+public final class BeanMapSpec {
+    private static final int FLAG_EXCLUDE = 1;
+    private static final Map<PropertySpecKey, BeanMapSpec> CACHE_SPEC = new ConcurrentReferenceHashMap<>(256);
+
+    @Getter
+    private final Class<?> beanClass;
+
+    private final BeanMap beanMap;
+    private final String[] keys;
+
+    @Getter
+    private final Set<String> keySet;
+
+    private BeanMapSpec(@Nonnull PropertySpecKey specKey) {
+        this.beanClass = specKey.getSource();
+        boolean exclude = specKey.hasFlag(FLAG_EXCLUDE);
+        BeanMap.Generator generator = new BeanMap.Generator();
+        generator.setBeanClass(beanClass);
+        generator.setContextClass(beanClass);
+        this.beanMap = generator.create();
+        Set<String> names = new LinkedHashSet<>(beanMap.size());
+        for (Object key : beanMap.keySet()) {
+            String name = ObjectUtils.getDisplayString(key);
+            if (exclude != specKey.containsField(name)) {
+                names.add(name);
+            }
+        }
+        this.keys = names.toArray(new String[0]);
+        this.keySet = Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * Returns the cached bean map spec of the class and the fields
+     *
+     * @param beanClass the bean class
+     * @param exclude whether the fields are excluded or included
+     * @param fields the field names to exclude or include
+     *
+     * @return the cached bean map spec of the class and the fields
+     */
+    @Nonnull
+    public static BeanMapSpec of(@Nonnull Class<?> beanClass, boolean exclude, @Nullable Collection<String> fields) {
+        PropertySpecKey probe = PropertySpecKey.probe(beanClass, null, exclude ? FLAG_EXCLUDE : 0, fields);
+        try {
+            BeanMapSpec result = CACHE_SPEC.get(probe);
+            return (result != null) ? result : CACHE_SPEC.computeIfAbsent(probe.toKey(), BeanMapSpec::new);
+        } finally {
+            probe.release();
+        }
+    }
+
+    @Nonnull
+    public String[] getKeys() {
+        return keys.clone();
+    }
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    /**
+     * Returns a detached map that contains the chosen properties of the bean
+     *
+     * @param bean the bean to read properties from
+     *
+     * @return a detached map that contains the chosen properties of the bean
+     */
+    @Nonnull
+    public Map<String, Object> toMap(@Nonnull Object bean) {
+        Map<String, Object> result = new LinkedHashMap<>((int) (keys.length / 0.75f) + 1);
+        for (String key : keys) {
+            result.put(key, beanMap.get(bean, key));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a read-only live map view of the chosen properties of the bean
+     * <p>
+     * Each read goes through the generated getter, so the view reflects the later changes of the bean
+     *
+     * @param bean the bean to read properties from
+     *
+     * @return a read-only live map view of the chosen properties of the bean
+     */
+    @Nonnull
+    public Map<String, Object> asMap(@Nonnull Object bean) {
+        return new BeanMapView(bean);
+    }
+
+
+    private final class BeanMapView extends AbstractMap<String, Object> {
+        private final Object bean;
+        private Set<Map.Entry<String, Object>> entrySet;
+
+        private BeanMapView(@Nonnull Object bean) {
+            this.bean = bean;
+        }
+
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return keys.length == 0;
+        }
+
+        @Override
+        public boolean containsKey(@Nullable Object key) {
+            return keySet.contains(key);
+        }
+
+        @Nullable
+        @Override
+        public Object get(@Nullable Object key) {
+            return keySet.contains(key) ? beanMap.get(bean, key) : null;
+        }
+
+        @Nonnull
+        @Override
+        public Set<String> keySet() {
+            return keySet;
+        }
+
+        @Nonnull
+        @Override
+        public Set<Map.Entry<String, Object>> entrySet() {
+            if (entrySet == null) {
+                entrySet = new AbstractSet<>() {
+                    @Nonnull
+                    @Override
+                    public Iterator<Map.Entry<String, Object>> iterator() {
+                        return new Iterator<>() {
+                            private int index;
+
+                            @Override
+                            public boolean hasNext() {
+                                return index < keys.length;
+                            }
+
+                            @Override
+                            public Map.Entry<String, Object> next() {
+                                if (index >= keys.length) {
+                                    throw new NoSuchElementException();
+                                }
+                                String key = keys[index++];
+                                return new SimpleImmutableEntry<>(key, beanMap.get(bean, key));
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return keys.length;
+                    }
+                };
+            }
+            return entrySet;
+        }
+    }
+}
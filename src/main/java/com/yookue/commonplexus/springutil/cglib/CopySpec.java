@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cglib;
+
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.FatalBeanException;
+import org.springframework.cglib.core.ReflectUtils;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import com.yookue.commonplexus.springutil.enumeration.BeanCopierBackendType;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+
+/**
+ * Compiled specification that copies the chosen properties from a source class to a target class
+ * <p>
+ * The included property names are resolved once into a mask of the {@link com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier} of the class pair,
+ * so that the repeated copies do not resolve the property descriptors again, and all the specs of a class pair share one generated copier.
+ * Keep the instance for the hot paths, or use {@link #of} which caches the specs by the classes and the fields, without copying the field sets on cache hits
+ * <p>
+ * If the generated copier cannot access the source class or the accessors, such as a non-public class or an accessor declared by a non-public class of another package,
+ * the spec falls back to {@link org.springframework.beans.BeanUtils#copyProperties(Object, Object, String...)}, which only copies the assignable properties.
+ * A null wrapper copied into a primitive setter fails with a {@link org.springframework.beans.FatalBeanException}, the same as spring
+ * <p>
+ * The specs of {@link #of} follow the assignability rules of {@link org.springframework.beans.BeanUtils#copyProperties(Object, Object, String...)},
+ * including the generics, while the specs of {@link #ofConverting} also copy the properties that can be converted by the generated copiers,
+ * such as the widening, boxing, enum and date conversions
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier
+ * @see com.yookue.commonplexus.springutil.util.BeanUtilsWraps#copyProperties(Object, Object, boolean, Collection)
+ */
+@Getter
+@SuppressWarnings("unused")
+public final class CopySpec {
+    private static final int FLAG_EXCLUDE = 1;
+    private static final int FLAG_CONVERTING = 2;
+    private static final Map<PropertySpecKey, CopySpec> CACHE_SPEC = new ConcurrentReferenceHashMap<>(256);
+
+    private final Class<?> source;
+    private final Class<?> target;
+    private final boolean converting;
+    private final Set<String> properties;
+
+    // The copier of the class pair, null if no property is chosen, or the classes cannot be accessed by a generated copier
+    private final EnhancedBeanCopier copier;
+
+    @Getter(value = AccessLevel.NONE)
+    private final boolean[] mask;
+
+    // The target properties that are not chosen, for the fallback to spring, null if the copier is generated
+    @Getter(value = AccessLevel.NONE)
+    private final String[] ignores;
+
+    private CopySpec(@Nonnull Class<?> source, @Nonnull Class<?> target, boolean converting, @Nonnull Set<String> properties) {
+        this.source = source;
+        this.target = target;
+        this.converting = converting;
+        this.properties = Collections.unmodifiableSet(properties);
+        String[] names = EnhancedBeanCopier.getMaskNames(target);
+        this.mask = new boolean[names.length];
+        for (int i = 0; i < names.length; i++) {
+            mask[i] = properties.contains(names[i]);
+        }
+        if (properties.isEmpty()) {
+            this.copier = null;
+            this.ignores = null;
+        } else if (isAccessible(source, target)) {
+            this.copier = EnhancedBeanCopier.create(source, target, false);
+            this.ignores = null;
+        } else {
+            this.copier = null;
+            this.ignores = resolveIgnores(target, properties);
+        }
+    }
+
+    /**
+     * Returns the cached copy spec of the classes and the fields, with the assignability rules of spring
+     *
+     * @param source the source class
+     * @param target the target class
+     * @param exclude whether the fields are excluded or included
+     * @param fields the field names to exclude or include
+     *
+     * @return the cached copy spec of the classes and the fields, with the assignability rules of spring
+     */
+    @Nonnull
+    public static CopySpec of(@Nonnull Class<?> source, @Nonnull Class<?> target, boolean exclude, @Nullable Collection<String> fields) {
+        return resolveSpec(source, target, exclude ? FLAG_EXCLUDE : 0, fields);
+    }
+
+    /**
+     * Returns the cached copy spec of the classes and the fields, with the conversions of the generated copiers
+     *
+     * @param source the source class
+     * @param target the target class
+     * @param exclude whether the fields are excluded or included
+     * @param fields the field names to exclude or include
+     *
+     * @return the cached copy spec of the classes and the fields, with the conversions of the generated copiers
+     */
+    @Nonnull
+    public static CopySpec ofConverting(@Nonnull Class<?> source, @Nonnull Class<?> target, boolean exclude, @Nullable Collection<String> fields) {
+        return resolveSpec(source, target, (exclude ? FLAG_EXCLUDE : 0) | FLAG_CONVERTING, fields);
+    }
+
+    @Nonnull
+    private static CopySpec resolveSpec(@Nonnull Class<?> source, @Nonnull Class<?> target, int flags, @Nullable Collection<String> fields) {
+        PropertySpecKey probe = PropertySpecKey.probe(source, target, flags, fields);
+        try {
+            CopySpec result = CACHE_SPEC.get(probe);
+            if (result != null) {
+                return result;
+            }
+            return CACHE_SPEC.computeIfAbsent(probe.toKey(), key -> new CopySpec(source, target, key.hasFlag(FLAG_CONVERTING), resolveProperties(key)));
+        } finally {
+            probe.release();
+        }
+    }
+
+    /**
+     * Copy the chosen properties from the {@code from} to the {@code to}
+     *
+     * @param from the source object to read properties from
+     * @param to the target object to write properties to
+     *
+     * @throws BeansException if copying failed
+     */
+    public void copy(@Nonnull Object from, @Nonnull Object to) throws BeansException {
+        if (copier == null) {
+            if (ignores != null) {
+                BeanUtils.copyProperties(from, to, ignores);
+            }
+            return;
+        }
+        try {
+            copier.copyMasked(from, to, mask);
+        } catch (BeansException ex) {
+            throw ex;
+        } catch (RuntimeException ex) {
+            throw new FatalBeanException("Could not copy properties from source to target", ex);
+        }
+    }
+
+    @Nonnull
+    private static Set<String> resolveProperties(@Nonnull PropertySpecKey key) {
+        Class<?> source = key.getSource(), target = key.getTarget();
+        boolean exclude = key.hasFlag(FLAG_EXCLUDE), converting = key.hasFlag(FLAG_CONVERTING);
+        Set<String> result = new LinkedHashSet<>();
+        for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(target)) {
+            Method writeMethod = descriptor.getWriteMethod();
+            if (writeMethod == null || exclude == key.containsField(descriptor.getName())) {
+                continue;
+            }
+            PropertyDescriptor sourceDescriptor = BeanUtils.getPropertyDescriptor(source, descriptor.getName());
+            Method readMethod = (sourceDescriptor == null) ? null : sourceDescriptor.getReadMethod();
+            if (readMethod == null) {
+                continue;
+            }
+            // The converting specs leave the raw type mismatches to the generated copiers, but never ignore the generics
+            boolean rawAssignable = ClassUtils.isAssignable(writeMethod.getParameterTypes()[0], readMethod.getReturnType());
+            if (isAssignable(readMethod, writeMethod) || (converting && !rawAssignable)) {
+                result.add(descriptor.getName());
+            }
+        }
+        return result;
+    }
+
+    @Nonnull
+    private static String[] resolveIgnores(@Nonnull Class<?> target, @Nonnull Set<String> properties) {
+        List<String> result = new ArrayList<>();
+        for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(target)) {
+            if (!properties.contains(descriptor.getName())) {
+                result.add(descriptor.getName());
+            }
+        }
+        return result.toArray(new String[0]);
+    }
+
+    /**
+     * Returns whether the generated copier, which is defined next to the target class, can access the source class and the accessors of both classes
+     */
+    private static boolean isAccessible(@Nonnull Class<?> source, @Nonnull Class<?> target) {
+        if (EnhancedBeanCopier.resolveBackend(source, target) == BeanCopierBackendType.LAMBDA) {
+            return true;
+        }
+        if (!isVisible(source, target)) {
+            return false;
+        }
+        for (PropertyDescriptor descriptor : ReflectUtils.getBeanGetters(source)) {
+            if (!isVisible(descriptor.getReadMethod().getDeclaringClass(), target)) {
+                return false;
+            }
+        }
+        for (PropertyDescriptor descriptor : ReflectUtils.getBeanSetters(target)) {
+            if (!isVisible(descriptor.getWriteMethod().getDeclaringClass(), target)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isVisible(@Nonnull Class<?> type, @Nonnull Class<?> target) {
+        return Modifier.isPublic(type.getModifiers()) || (type.getClassLoader() == target.getClassLoader() && type.getPackageName().equals(target.getPackageName()));
+    }
+
+    /**
+     * Returns whether the value of the read method can be passed to the write method, the same as {@link org.springframework.beans.BeanUtils#copyProperties(Object, Object, String...)}
+     */
+    private static boolean isAssignable(@Nonnull Method readMethod, @Nonnull Method writeMethod) {
+        ResolvableType sourceType = ResolvableType.forMethodReturnType(readMethod);
+        ResolvableType targetType = ResolvableType.forMethodParameter(writeMethod, 0);
+        if (sourceType.hasUnresolvableGenerics() || targetType.hasUnresolvableGenerics()) {
+            return ClassUtils.isAssignable(writeMethod.getParameterTypes()[0], readMethod.getReturnType());
+        }
+        return targetType.isAssignableFrom(sourceType);
+    }
+}
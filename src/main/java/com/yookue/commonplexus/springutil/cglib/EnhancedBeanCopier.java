@@ -18,14 +18,20 @@ package com.yookue.commonplexus.springutil.cglib;
 
 
 import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Modifier;
 import java.security.ProtectionDomain;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.EnumUtils;
 import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.Label;
 import org.springframework.asm.Type;
 import org.springframework.cglib.core.AbstractClassGenerator;
 import org.springframework.cglib.core.ClassEmitter;
@@ -38,7 +44,10 @@ import org.springframework.cglib.core.MethodInfo;
 import org.springframework.cglib.core.ReflectUtils;
 import org.springframework.cglib.core.Signature;
 import org.springframework.cglib.core.TypeUtils;
-import org.springframework.util.StringUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import com.yookue.commonplexus.springutil.enumeration.BeanCopierBackendType;
 import lombok.Setter;
 
 
@@ -54,28 +63,260 @@ import lombok.Setter;
  */
 @SuppressWarnings({"unused", "JavadocDeclaration", "JavadocLinkAsPlainText"})
 public abstract class EnhancedBeanCopier {
+    /**
+     * System property that specifies the default backend, {@code cglib} or {@code lambda}
+     *
+     * @see com.yookue.commonplexus.springutil.enumeration.BeanCopierBackendType
+     */
+    public static final String BACKEND_PROPERTY = "yookue.bean-copier.backend";    // $NON-NLS-1$
+
     private static final BeanCopierKey KEY_FACTORY = (BeanCopierKey) KeyFactory.create(BeanCopierKey.class);
     private static final Type CONVERTER = TypeUtils.parseType(BeanCopierConverter.class.getCanonicalName());
     private static final Type BEAN_COPIER = TypeUtils.parseType(EnhancedBeanCopier.class.getCanonicalName());
     private static final Signature COPY = new Signature("copy", Type.VOID_TYPE, new Type[]{Constants.TYPE_OBJECT, Constants.TYPE_OBJECT, CONVERTER});    // $NON-NLS-1$
+    private static final Signature COPY_MASKED = new Signature("copyMasked", Type.VOID_TYPE, new Type[]{Constants.TYPE_OBJECT, Constants.TYPE_OBJECT, Type.getType(boolean[].class)});    // $NON-NLS-1$
     private static final Signature CONVERT = TypeUtils.parseSignature("Object convert(Object, Class, Object, String, Object)");    // $NON-NLS-1$
-
-    // Added by David Hsing on 2022-07-08
-    private static final Map<String, EnhancedBeanCopier> CACHE_COPIER = new ConcurrentHashMap<>();
+    private static final Type CONVERSIONS = TypeUtils.parseType(BeanCopierConversions.class.getCanonicalName());
+    private static final Signature ENUM_TO_STRING = TypeUtils.parseSignature("String enumToString(Enum)");    // $NON-NLS-1$
+    private static final Signature STRING_TO_ENUM = TypeUtils.parseSignature("Enum stringToEnum(Class, String)");    // $NON-NLS-1$
+    private static final Signature LOCAL_DATE_TIME_TO_DATE = TypeUtils.parseSignature("java.util.Date localDateTimeToDate(java.time.LocalDateTime)");    // $NON-NLS-1$
+    private static final Signature DATE_TO_LOCAL_DATE_TIME = TypeUtils.parseSignature("java.time.LocalDateTime dateToLocalDateTime(java.util.Date)");    // $NON-NLS-1$
+    private static final Signature NEW_TARGET = TypeUtils.parseSignature("Object newTarget()");    // $NON-NLS-1$
+    private static final Signature TARGET_VALUE_REQUIRED = TypeUtils.parseSignature("boolean isTargetValueRequired()");    // $NON-NLS-1$
+    private static final Type REFLECT_UTILS = TypeUtils.parseType(ReflectUtils.class.getCanonicalName());
+    private static final Signature NEW_INSTANCE = TypeUtils.parseSignature("Object newInstance(Class)");    // $NON-NLS-1$
+
+    // Copiers are looked up by the identity of the source class and then the target class, without any allocation,
+    // and the classes are held weakly by the class values, so that a redeployed class loader will not be pinned
+    private static final ClassValue<SourceCopiers> CACHE_COPIER = new ClassValue<>() {
+        @Override
+        protected SourceCopiers computeValue(@Nonnull Class<?> type) {
+            return new SourceCopiers(type);
+        }
+    };
 
     public static EnhancedBeanCopier create(@Nonnull Class<?> source, @Nonnull Class<?> target, boolean useConverter) {
-        // Modified on 2022-07-08
-        String index = StringUtils.arrayToCommaDelimitedString(new Object[]{source.getName(), target.getName(), useConverter});
-        return CACHE_COPIER.computeIfAbsent(index, key -> {
+        return CACHE_COPIER.get(source).getCopiers(target).getCopier(useConverter);
+    }
+
+    /**
+     * Registers a copier that generated ahead of time, in place of generating it at the first call
+     *
+     * @param source the source class
+     * @param target the target class
+     * @param useConverter whether the copier uses converter or not
+     * @param copier the copier
+     *
+     * @see com.yookue.commonplexus.springutil.processor.BeanCopierAotProcessor
+     */
+    public static void register(@Nonnull Class<?> source, @Nonnull Class<?> target, boolean useConverter, @Nonnull EnhancedBeanCopier copier) {
+        CACHE_COPIER.get(source).getCopiers(target).setCopier(useConverter, copier);
+    }
+
+    public abstract void copy(@Nonnull Object from, @Nonnull Object to, @Nullable BeanCopierConverter converter);
+
+    /**
+     * Copies the target properties whose indexes are set in the mask, without converter
+     * <p>
+     * The indexes are the positions of the target properties in {@link #getMaskNames(Class)}, so that one copier serves every subset of a class pair.
+     * Unlike {@link #copy(Object, Object, BeanCopierConverter)}, a null wrapper is passed to a primitive setter, which fails with a {@link NullPointerException},
+     * the same as {@link org.springframework.beans.BeanUtils#copyProperties(Object, Object, String...)}
+     *
+     * @param from the source object to read properties from
+     * @param to the target object to write properties to
+     * @param mask the flags of the target properties to copy
+     *
+     * @throws UnsupportedOperationException if the copier uses converter
+     */
+    public void copyMasked(@Nonnull Object from, @Nonnull Object to, @Nonnull boolean[] mask) {
+        throw new UnsupportedOperationException("Copier that uses converter cannot copy by mask");    // $NON-NLS-1$
+    }
+
+    /**
+     * Returns the names of the target properties, in the order of the indexes of {@link #copyMasked(Object, Object, boolean[])}
+     *
+     * @param target the target class
+     *
+     * @return the names of the target properties, in the order of the indexes of {@link #copyMasked(Object, Object, boolean[])}
+     */
+    @Nonnull
+    public static String[] getMaskNames(@Nonnull Class<?> target) {
+        PropertyDescriptor[] setters = getSortedSetters(target);
+        String[] result = new String[setters.length];
+        for (int i = 0; i < setters.length; i++) {
+            result[i] = setters[i].getName();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the setters of the target class, sorted by the property names, which are the indexes of the mask
+     */
+    @Nonnull
+    static PropertyDescriptor[] getSortedSetters(@Nonnull Class<?> target) {
+        PropertyDescriptor[] result = ReflectUtils.getBeanSetters(target);
+        Arrays.sort(result, Comparator.comparing(PropertyDescriptor::getName));
+        return result;
+    }
+
+    /**
+     * Returns a new instance of the target class
+     * <p>
+     * The copiers created by {@link #create(Class, Class, boolean)} call the constructor directly if the target class is {@link #isConstructible(Class) constructible},
+     * otherwise they fall back to {@link org.springframework.cglib.core.ReflectUtils#newInstance(Class)}
+     *
+     * @return a new instance of the target class
+     *
+     * @throws UnsupportedOperationException if the copier is implemented manually and does not know the target class
+     * @see #isConstructible(Class)
+     */
+    @Nonnull
+    public Object newTarget() {
+        throw new UnsupportedOperationException("Copier does not know the target class");    // $NON-NLS-1$
+    }
+
+    /**
+     * Returns whether the specified class can be instantiated by {@link #newTarget()} or not
+     *
+     * @param type the class to check
+     *
+     * @return whether the specified class can be instantiated by {@link #newTarget()} or not
+     */
+    public static boolean isConstructible(@Nonnull Class<?> type) {
+        int modifiers = type.getModifiers();
+        if (!Modifier.isPublic(modifiers) || Modifier.isAbstract(modifiers) || type.isInterface() || (type.isMemberClass() && !Modifier.isStatic(modifiers))) {
+            return false;
+        }
+        try {
+            return Modifier.isPublic(type.getConstructor().getModifiers());
+        } catch (NoSuchMethodException ignored) {
+            return false;
+        }
+    }
+
+
+    /**
+     * Copiers of a source class, indexed by the target classes
+     * <p>
+     * A copier is defined next to the target class (see {@link Generator#setTarget(Class)}) and refers to the source class,
+     * so it is attached to the target class only when the source class is visible to the class loader of the target class.
+     * Otherwise, it is held weakly in this source side, so that neither class loader pins the other,
+     * and a collected copier is only re-instantiated from the class cache of {@link org.springframework.cglib.core.AbstractClassGenerator}
+     */
+    private static final class SourceCopiers {
+        private static final CopierPair UNSAFE_TARGET = new CopierPair(Object.class, Object.class);
+
+        private final Class<?> source;
+        private final Map<Class<?>, CopierPair> unsafeTargets = new ConcurrentReferenceHashMap<>(16, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+        private final ClassValue<CopierPair> safeTargets = new ClassValue<>() {
+            @Override
+            protected CopierPair computeValue(@Nonnull Class<?> type) {
+                return ClassUtils.isCacheSafe(source, type.getClassLoader()) ? new CopierPair(source, type) : UNSAFE_TARGET;
+            }
+        };
+
+        private SourceCopiers(@Nonnull Class<?> source) {
+            this.source = source;
+        }
+
+        @Nonnull
+        private CopierPair getCopiers(@Nonnull Class<?> target) {
+            CopierPair result = safeTargets.get(target);
+            if (result != UNSAFE_TARGET) {
+                return result;
+            }
+            result = unsafeTargets.get(target);
+            return (result != null) ? result : unsafeTargets.computeIfAbsent(target, type -> new CopierPair(source, type));
+        }
+    }
+
+
+    /**
+     * Copiers of a source class and a target class, with and without converter, generated lazily
+     */
+    private static final class CopierPair {
+        private final Class<?> source;
+        private final Class<?> target;
+        private volatile EnhancedBeanCopier plainCopier;
+        private volatile EnhancedBeanCopier converterCopier;
+
+        private CopierPair(@Nonnull Class<?> source, @Nonnull Class<?> target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        @Nonnull
+        private EnhancedBeanCopier getCopier(boolean useConverter) {
+            EnhancedBeanCopier result = useConverter ? converterCopier : plainCopier;
+            if (result != null) {
+                return result;
+            }
+            synchronized (this) {
+                result = useConverter ? converterCopier : plainCopier;
+                if (result == null) {
+                    result = generate(useConverter);
+                    if (useConverter) {
+                        converterCopier = result;
+                    } else {
+                        plainCopier = result;
+                    }
+                }
+            }
+            return result;
+        }
+
+        private synchronized void setCopier(boolean useConverter, @Nonnull EnhancedBeanCopier copier) {
+            if (useConverter) {
+                converterCopier = copier;
+            } else {
+                plainCopier = copier;
+            }
+        }
+
+        @Nonnull
+        private EnhancedBeanCopier generate(boolean useConverter) {
             Generator gen = new Generator();
             gen.setSource(source);
             gen.setTarget(target);
             gen.setUseConverter(useConverter);
             return gen.create();
-        });
+        }
     }
 
-    public abstract void copy(@Nonnull Object from, @Nonnull Object to, @Nullable BeanCopierConverter converter);
+
+    /**
+     * Returns the backend of the source class and the target class
+     *
+     * @param source the source class
+     * @param target the target class
+     *
+     * @return the backend of the source class and the target class
+     */
+    @Nonnull
+    public static BeanCopierBackendType resolveBackend(@Nonnull Class<?> source, @Nonnull Class<?> target) {
+        BeanCopierBackend annotation = AnnotationUtils.findAnnotation(target, BeanCopierBackend.class);
+        if (annotation == null) {
+            annotation = AnnotationUtils.findAnnotation(source, BeanCopierBackend.class);
+        }
+        if (annotation != null) {
+            return annotation.value();
+        }
+        BeanCopierBackendType result = EnumUtils.getEnumIgnoreCase(BeanCopierBackendType.class, System.getProperty(BACKEND_PROPERTY));
+        return (result == null) ? BeanCopierBackendType.CGLIB : result;
+    }
+
+
+    /**
+     * Conversions that are compiled into the copier without converter
+     */
+    enum Conversion {
+        ASSIGN,
+        NUMERIC,
+        ENUM_TO_STRING,
+        STRING_TO_ENUM,
+        LOCAL_DATE_TIME_TO_DATE,
+        DATE_TO_LOCAL_DATE_TIME
+    }
 
 
     interface BeanCopierKey {
@@ -95,9 +336,150 @@ public abstract class EnhancedBeanCopier {
             super(SOURCE);
         }
 
-        private static boolean compatible(@Nonnull PropertyDescriptor getter, @Nonnull PropertyDescriptor setter) {
-            // TODO: allow automatic widening conversions?
-            return setter.getPropertyType().isAssignableFrom(getter.getPropertyType());
+        /**
+         * Returns the conversion from the getter type to the setter type, or null if they are incompatible
+         */
+        @Nullable
+        static Conversion resolveConversion(@Nonnull Class<?> getterType, @Nonnull Class<?> setterType) {
+            if (setterType.isAssignableFrom(getterType)) {
+                return Conversion.ASSIGN;
+            }
+            Class<?> getterPrimitive = unwrap(getterType), setterPrimitive = unwrap(setterType);
+            if (getterPrimitive.isPrimitive() && setterPrimitive.isPrimitive() && widening(getterPrimitive, setterPrimitive)) {
+                return Conversion.NUMERIC;
+            }
+            if (getterType.isPrimitive() && setterType.isAssignableFrom(MethodType.methodType(getterType).wrap().returnType())) {
+                return Conversion.NUMERIC;
+            }
+            if (getterType.isEnum() && setterType.isAssignableFrom(String.class)) {
+                return Conversion.ENUM_TO_STRING;
+            }
+            if (getterType == String.class && setterType.isEnum()) {
+                return Conversion.STRING_TO_ENUM;
+            }
+            if (getterType == LocalDateTime.class && setterType.isAssignableFrom(Date.class)) {
+                return Conversion.LOCAL_DATE_TIME_TO_DATE;
+            }
+            if (Date.class.isAssignableFrom(getterType) && setterType == LocalDateTime.class) {
+                return Conversion.DATE_TO_LOCAL_DATE_TIME;
+            }
+            return null;
+        }
+
+        @Nonnull
+        static Class<?> unwrap(@Nonnull Class<?> type) {
+            return type.isPrimitive() ? type : MethodType.methodType(type).unwrap().returnType();
+        }
+
+        /**
+         * Returns whether the primitive type can be widened to another one without losing precision
+         */
+        private static boolean widening(@Nonnull Class<?> from, @Nonnull Class<?> to) {
+            if (from == to) {
+                return true;
+            }
+            if (from == byte.class) {
+                return to == short.class || to == int.class || to == long.class || to == float.class || to == double.class;
+            }
+            if (from == short.class || from == char.class) {
+                return to == int.class || to == long.class || to == float.class || to == double.class;
+            }
+            if (from == int.class) {
+                return to == long.class || to == double.class;
+            }
+            return from == float.class && to == double.class;
+        }
+
+        /**
+         * Emits the copy of a property without converter, compiling the widening, boxing, enum and date conversions, the other mismatched properties are skipped
+         * <p>
+         * The stack is expected as {@code [target, source]}, and will be kept.
+         * If the index is not negative, the property is copied only if the mask flag at the index is set, and a null wrapper is passed to a primitive setter
+         */
+        private static void emitPlainProperty(@Nonnull CodeEmitter emitter, @Nonnull PropertyDescriptor sourceGetter, @Nonnull PropertyDescriptor targetSetter, int index) {
+            Conversion conversion = resolveConversion(sourceGetter.getPropertyType(), targetSetter.getPropertyType());
+            if (conversion == null) {
+                return;
+            }
+            Label skip = emitter.make_label();
+            if (index >= 0) {
+                emitter.load_arg(2);
+                emitter.push(index);
+                emitter.array_load(Type.BOOLEAN_TYPE);
+                emitter.if_jump(CodeEmitter.EQ, skip);
+            }
+            emitter.dup2();
+            emitter.invoke(ReflectUtils.getMethodInfo(sourceGetter.getReadMethod()));
+            emitConversion(emitter, conversion, ReflectUtils.getMethodInfo(targetSetter.getWriteMethod()), sourceGetter.getPropertyType(), targetSetter.getPropertyType(), index >= 0);
+            emitter.mark(skip);
+        }
+
+        /**
+         * Emits the conversion of the getter value on the stack, and then invokes the setter
+         * <p>
+         * The stack is expected as {@code [target, getterValue]}, and will be consumed entirely
+         */
+        private static void emitConversion(@Nonnull CodeEmitter emitter, @Nonnull Conversion conversion, @Nonnull MethodInfo targetWrite, @Nonnull Class<?> getterType, @Nonnull Class<?> setterType, boolean strict) {
+            switch (conversion) {
+                case NUMERIC -> emitNumeric(emitter, targetWrite, getterType, setterType, strict);
+                case ENUM_TO_STRING -> emitter.invoke_static(CONVERSIONS, ENUM_TO_STRING);
+                case STRING_TO_ENUM -> {
+                    EmitUtils.load_class(emitter, Type.getType(setterType));
+                    emitter.swap();
+                    emitter.invoke_static(CONVERSIONS, STRING_TO_ENUM);
+                    emitter.checkcast(Type.getType(setterType));
+                }
+                case LOCAL_DATE_TIME_TO_DATE -> emitter.invoke_static(CONVERSIONS, LOCAL_DATE_TIME_TO_DATE);
+                case DATE_TO_LOCAL_DATE_TIME -> emitter.invoke_static(CONVERSIONS, DATE_TO_LOCAL_DATE_TIME);
+                default -> {
+                }
+            }
+            if (conversion != Conversion.NUMERIC) {
+                emitter.invoke(targetWrite);
+            }
+        }
+
+        /**
+         * Emits the widening, boxing and unboxing conversions, a null wrapper leaves the primitive setter untouched, or fails it if strict
+         */
+        private static void emitNumeric(@Nonnull CodeEmitter emitter, @Nonnull MethodInfo targetWrite, @Nonnull Class<?> getterType, @Nonnull Class<?> setterType, boolean strict) {
+            Type getterPrimitive = Type.getType(unwrap(getterType));
+            Type setterPrimitive = unwrap(setterType).isPrimitive() ? Type.getType(unwrap(setterType)) : getterPrimitive;
+            boolean setterBoxed = !setterType.isPrimitive();
+            if (getterType.isPrimitive() || (strict && !setterBoxed)) {
+                if (!getterType.isPrimitive()) {
+                    emitter.unbox(getterPrimitive);
+                }
+                emitWidening(emitter, getterPrimitive, setterPrimitive, setterBoxed);
+                emitter.invoke(targetWrite);
+                return;
+            }
+            Label absent = emitter.make_label();
+            Label end = emitter.make_label();
+            emitter.dup();
+            emitter.ifnull(absent);
+            emitter.unbox(getterPrimitive);
+            emitWidening(emitter, getterPrimitive, setterPrimitive, setterBoxed);
+            emitter.invoke(targetWrite);
+            emitter.goTo(end);
+            emitter.mark(absent);
+            emitter.pop();
+            if (setterBoxed) {
+                emitter.aconst_null();
+                emitter.invoke(targetWrite);
+            } else {
+                emitter.pop();
+            }
+            emitter.mark(end);
+        }
+
+        private static void emitWidening(@Nonnull CodeEmitter emitter, @Nonnull Type from, @Nonnull Type to, boolean boxed) {
+            if (!from.equals(to)) {
+                emitter.cast_numeric(from, to);
+            }
+            if (boxed) {
+                emitter.box(to);
+            }
         }
 
         public void setSource(@Nonnull Class<?> source) {
@@ -108,10 +490,9 @@ public abstract class EnhancedBeanCopier {
         }
 
         public void setTarget(@Nonnull Class<?> target) {
-            if (!Modifier.isPublic(target.getModifiers())) {
-                setNamePrefix(target.getName());
-            }
             this.target = target;
+            // Always name the copier after the target class, so that it could be defined by the lookup of the context class
+            setNamePrefix(target.getName());
             // SPRING PATCH BEGIN
             super.setContextClass(target);
             // SPRING PATCH END
@@ -125,7 +506,15 @@ public abstract class EnhancedBeanCopier {
             return ReflectUtils.getProtectionDomain(source);
         }
 
+        /**
+         * Returns a copier of the backend that resolved by the source class and the target class
+         *
+         * @return a copier of the backend that resolved by the source class and the target class
+         */
         public EnhancedBeanCopier create() {
+            if (resolveBackend(source, target) == BeanCopierBackendType.LAMBDA) {
+                return new LambdaBeanCopier(source, target, useConverter);
+            }
             Object key = KEY_FACTORY.newInstance(source.getName(), target.getName(), useConverter);
             return (EnhancedBeanCopier) super.create(key);
         }
@@ -144,7 +533,7 @@ public abstract class EnhancedBeanCopier {
             EmitUtils.null_constructor(classEmitter);
             CodeEmitter codeEmitter = classEmitter.begin_method(Constants.ACC_PUBLIC, COPY, null);
             PropertyDescriptor[] sourceGetters = ReflectUtils.getBeanGetters(source);
-            PropertyDescriptor[] targetSetters = ReflectUtils.getBeanSetters(target);
+            PropertyDescriptor[] targetSetters = getSortedSetters(target);
 
             // Modified by David Hsing on 2022-07-08
             Map<String, PropertyDescriptor> sourceGetterNames = new HashMap<>(sourceGetters.length);
@@ -161,6 +550,7 @@ public abstract class EnhancedBeanCopier {
 
             Local sourceLocal = codeEmitter.make_local();
             Local targetLocal = codeEmitter.make_local();
+            Local requiredLocal = codeEmitter.make_local(Type.BOOLEAN_TYPE);
             if (useConverter) {
                 codeEmitter.load_arg(0);
                 codeEmitter.checkcast(sourceType);
@@ -168,11 +558,16 @@ public abstract class EnhancedBeanCopier {
                 codeEmitter.load_arg(1);
                 codeEmitter.checkcast(targetType);
                 codeEmitter.store_local(targetLocal);
+                // Ask the converter only once per copy, whether to read the original target values
+                codeEmitter.load_arg(2);
+                codeEmitter.invoke_interface(CONVERTER, TARGET_VALUE_REQUIRED);
+                codeEmitter.store_local(requiredLocal);
             } else {
-                codeEmitter.load_arg(0);
-                codeEmitter.checkcast(sourceType);
+                // Keep the stack as [target, source], so that 'dup2' and reading the source leaves [target, value] for the setter
                 codeEmitter.load_arg(1);
                 codeEmitter.checkcast(targetType);
+                codeEmitter.load_arg(0);
+                codeEmitter.checkcast(sourceType);
             }
             for (PropertyDescriptor targetSetter : targetSetters) {
                 PropertyDescriptor sourceGetter = sourceGetterNames.get(targetSetter.getName());
@@ -185,41 +580,113 @@ public abstract class EnhancedBeanCopier {
                     MethodInfo targetWrite = ReflectUtils.getMethodInfo(targetSetter.getWriteMethod());
 
                     // Added by David Hsing on 2022-07-08
-                    MethodInfo targetRead = ReflectUtils.getMethodInfo(targetGetter.getReadMethod());
+                    MethodInfo targetRead = (targetGetter == null) ? null : ReflectUtils.getMethodInfo(targetGetter.getReadMethod());
 
                     if (useConverter) {
+                        Type getterType = sourceRead.getSignature().getReturnType();
                         Type setterType = targetWrite.getSignature().getArgumentTypes()[0];
+                        Signature primitiveConvert = getPrimitiveConvert(getterType, setterType);
                         codeEmitter.load_local(targetLocal);
                         codeEmitter.load_arg(2);
                         codeEmitter.load_local(sourceLocal);
                         codeEmitter.invoke(sourceRead);
-                        codeEmitter.box(sourceRead.getSignature().getReturnType());
-                        EmitUtils.load_class(codeEmitter, setterType);
+                        if (primitiveConvert == null) {
+                            codeEmitter.box(getterType);
+                            EmitUtils.load_class(codeEmitter, setterType);
+                        }
                         codeEmitter.push(targetWrite.getSignature().getName());
 
                         // Added by David Hsing on 2022-07-08
                         // Parameter - targetFiledName
                         codeEmitter.push(targetSetter.getName());
                         // Parameter - targetFiledValue
-                        codeEmitter.load_local(targetLocal);
-                        codeEmitter.invoke(targetRead);
-                        codeEmitter.box(targetRead.getSignature().getReturnType());
-
-                        codeEmitter.invoke_interface(CONVERTER, CONVERT);
-                        codeEmitter.unbox_or_zero(setterType);
-                        codeEmitter.invoke(targetWrite);
-                    } else if (compatible(sourceGetter, targetSetter)) {
-                        codeEmitter.dup2();
-                        codeEmitter.invoke(sourceRead);
+                        boolean readable = targetRead != null && (primitiveConvert == null || setterType.equals(targetRead.getSignature().getReturnType()));
+                        loadTargetValue(codeEmitter, targetLocal, requiredLocal, readable ? targetRead : null, setterType, primitiveConvert == null);
+
+                        if (primitiveConvert == null) {
+                            codeEmitter.invoke_interface(CONVERTER, CONVERT);
+                            codeEmitter.unbox_or_zero(setterType);
+                        } else {
+                            codeEmitter.invoke_interface(CONVERTER, primitiveConvert);
+                        }
                         codeEmitter.invoke(targetWrite);
+                    } else {
+                        emitPlainProperty(codeEmitter, sourceGetter, targetSetter, -1);
                     }
                 }
             }
             codeEmitter.return_value();
             codeEmitter.end_method();
+
+            // Masked copy without converter, so that all the subsets of the target properties share this copier
+            if (!useConverter) {
+                CodeEmitter maskedEmitter = classEmitter.begin_method(Constants.ACC_PUBLIC, COPY_MASKED, null);
+                maskedEmitter.load_arg(1);
+                maskedEmitter.checkcast(targetType);
+                maskedEmitter.load_arg(0);
+                maskedEmitter.checkcast(sourceType);
+                for (int i = 0; i < targetSetters.length; i++) {
+                    PropertyDescriptor sourceGetter = sourceGetterNames.get(targetSetters[i].getName());
+                    if (sourceGetter != null) {
+                        emitPlainProperty(maskedEmitter, sourceGetter, targetSetters[i], i);
+                    }
+                }
+                maskedEmitter.return_value();
+                maskedEmitter.end_method();
+            }
+
+            // Target factory, falls back to reflection if the target class is not constructible
+            CodeEmitter factoryEmitter = classEmitter.begin_method(Constants.ACC_PUBLIC, NEW_TARGET, null);
+            if (isConstructible(target)) {
+                factoryEmitter.new_instance(targetType);
+                factoryEmitter.dup();
+                factoryEmitter.invoke_constructor(targetType);
+            } else {
+                EmitUtils.load_class(factoryEmitter, targetType);
+                factoryEmitter.invoke_static(REFLECT_UTILS, NEW_INSTANCE);
+            }
+            factoryEmitter.return_value();
+            factoryEmitter.end_method();
             classEmitter.end_class();
         }
 
+        /**
+         * Returns the primitive specialized signature of {@link com.yookue.commonplexus.springutil.cglib.BeanCopierConverter}, if both the getter and the setter are the same primitive type
+         */
+        @Nullable
+        private static Signature getPrimitiveConvert(@Nonnull Type getterType, @Nonnull Type setterType) {
+            if (!TypeUtils.isPrimitive(setterType) || !setterType.equals(getterType)) {
+                return null;
+            }
+            String name = setterType.getClassName();
+            String method = "convert" + Character.toUpperCase(name.charAt(0)) + name.substring(1);    // $NON-NLS-1$
+            return new Signature(method, setterType, new Type[]{setterType, Constants.TYPE_OBJECT, Constants.TYPE_STRING, setterType});
+        }
+
+        /**
+         * Pushes the original target value, or null (or zero for primitives) if the target has no getter or the converter does not require it
+         */
+        private static void loadTargetValue(@Nonnull CodeEmitter emitter, @Nonnull Local targetLocal, @Nonnull Local requiredLocal, @Nullable MethodInfo targetRead, @Nonnull Type setterType, boolean boxed) {
+            Type valueType = boxed ? Constants.TYPE_OBJECT : setterType;
+            if (targetRead == null) {
+                emitter.zero_or_null(valueType);
+                return;
+            }
+            Label absent = emitter.make_label();
+            Label end = emitter.make_label();
+            emitter.load_local(requiredLocal);
+            emitter.if_jump(CodeEmitter.EQ, absent);
+            emitter.load_local(targetLocal);
+            emitter.invoke(targetRead);
+            if (boxed) {
+                emitter.box(targetRead.getSignature().getReturnType());
+            }
+            emitter.goTo(end);
+            emitter.mark(absent);
+            emitter.zero_or_null(valueType);
+            emitter.mark(end);
+        }
+
         protected Object firstInstance(@Nonnull Class type) {
             return ReflectUtils.newInstance(type);
         }
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cglib;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.collections4.CollectionUtils;
+import org.springframework.cglib.core.ReflectUtils;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * Bulk copier of {@link com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier}, which resolves the copier and the converter only once for all the elements
+ * <p>
+ * The copier of the most recent source class and target class is remembered, so that a homogeneous collection never looks up the copier again.
+ * Collections larger than {@link #getParallelThreshold()} could be copied in chunks by the common {@link java.util.concurrent.ForkJoinPool}
+ *
+ * @param <T> the type of the target elements
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier
+ */
+@Getter
+@SuppressWarnings({"unused", "unchecked"})
+public class EnhancedBulkCopier<T> {
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    private final Class<T> targetType;
+    private final Supplier<? extends T> targetFactory;
+    private final BeanCopierConverter converter;
+
+    @Setter
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    @Setter
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    @Getter(value = AccessLevel.NONE)
+    private volatile ResolvedCopier resolved;
+
+    /**
+     * Constructs a bulk copier that creates the targets by the generated constructor call of the target class
+     *
+     * @param targetType the target class, falls back to reflection if it has no public no-arg constructor
+     * @param converter the converter, or null to copy without converter
+     */
+    public EnhancedBulkCopier(@Nonnull Class<T> targetType, @Nullable BeanCopierConverter converter) {
+        this.targetType = targetType;
+        this.targetFactory = EnhancedBeanCopier.isConstructible(targetType) ? null : () -> (T) ReflectUtils.newInstance(targetType);
+        this.converter = converter;
+    }
+
+    /**
+     * Constructs a bulk copier that creates the targets by the specified factory
+     *
+     * @param targetFactory the factory to create the targets, usually a constructor reference
+     * @param converter the converter, or null to copy without converter
+     */
+    public EnhancedBulkCopier(@Nonnull Supplier<? extends T> targetFactory, @Nullable BeanCopierConverter converter) {
+        this.targetType = null;
+        this.targetFactory = targetFactory;
+        this.converter = converter;
+    }
+
+    /**
+     * Returns a new target that copied from the source
+     *
+     * @param source the source object to read properties from
+     *
+     * @return a new target that copied from the source
+     */
+    @Nullable
+    public T copy(@Nullable Object source) {
+        if (source == null) {
+            return null;
+        }
+        if (targetFactory == null) {
+            EnhancedBeanCopier copier = resolveCopier(source.getClass(), targetType);
+            T target = (T) copier.newTarget();
+            copier.copy(source, target, converter);
+            return target;
+        }
+        T target = targetFactory.get();
+        resolveCopier(source.getClass(), target.getClass()).copy(source, target, converter);
+        return target;
+    }
+
+    /**
+     * Returns a list of new targets that copied from the sources, null elements are kept as null
+     *
+     * @param sources the source objects to read properties from
+     *
+     * @return a list of new targets that copied from the sources
+     */
+    @Nonnull
+    public List<T> copyAll(@Nullable Collection<?> sources) {
+        return copyAll(sources, false);
+    }
+
+    /**
+     * Returns a list of new targets that copied from the sources, null elements are kept as null
+     *
+     * @param sources the source objects to read properties from
+     * @param parallel whether to copy in chunks by the common fork join pool, when the size reaches the parallel threshold
+     *
+     * @return a list of new targets that copied from the sources
+     */
+    @Nonnull
+    public List<T> copyAll(@Nullable Collection<?> sources, boolean parallel) {
+        if (CollectionUtils.isEmpty(sources)) {
+            return new ArrayList<>();
+        }
+        if (!parallel || sources.size() < parallelThreshold) {
+            List<T> result = new ArrayList<>(sources.size());
+            for (Object source : sources) {
+                result.add(copy(source));
+            }
+            return result;
+        }
+        Object[] elements = sources.toArray();
+        ForkJoinPool.commonPool().invoke(new ChunkCopyTask(elements, 0, elements.length));
+        return new ArrayList<>((List<T>) Arrays.asList(elements));
+    }
+
+    /**
+     * Returns a stream of new targets that copied from the sources, null elements are kept as null
+     *
+     * @param sources the source objects to read properties from
+     *
+     * @return a stream of new targets that copied from the sources
+     */
+    @Nonnull
+    public Stream<T> copyAll(@Nullable Stream<?> sources) {
+        return (sources == null) ? Stream.empty() : sources.map(this::copy);
+    }
+
+    @Nonnull
+    private EnhancedBeanCopier resolveCopier(@Nonnull Class<?> sourceClass, @Nonnull Class<?> targetClass) {
+        ResolvedCopier cached = resolved;
+        if (cached != null && cached.sourceClass == sourceClass && cached.targetClass == targetClass) {
+            return cached.copier;
+        }
+        EnhancedBeanCopier copier = EnhancedBeanCopier.create(sourceClass, targetClass, converter != null);
+        resolved = new ResolvedCopier(sourceClass, targetClass, copier);
+        return copier;
+    }
+
+
+    private static final class ResolvedCopier {
+        private final Class<?> sourceClass;
+        private final Class<?> targetClass;
+        private final EnhancedBeanCopier copier;
+
+        private ResolvedCopier(@Nonnull Class<?> sourceClass, @Nonnull Class<?> targetClass, @Nonnull EnhancedBeanCopier copier) {
+            this.sourceClass = sourceClass;
+            this.targetClass = targetClass;
+            this.copier = copier;
+        }
+    }
+
+
+    /**
+     * Task that replaces the source elements with the copied targets in place
+     */
+    private final class ChunkCopyTask extends RecursiveAction {
+        private final Object[] elements;
+        private final int from;
+        private final int to;
+
+        private ChunkCopyTask(@Nonnull Object[] elements, int from, int to) {
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= Math.max(chunkSize, 1)) {
+                for (int i = from; i < to; i++) {
+                    elements[i] = copy(elements[i]);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkCopyTask(elements, from, middle), new ChunkCopyTask(elements, middle, to));
+        }
+    }
+}
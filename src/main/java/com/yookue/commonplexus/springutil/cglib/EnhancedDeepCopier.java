@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cglib;
+
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.cglib.core.ReflectUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.CollectionUtils;
+
+
+/**
+ * Deep copier of {@link com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier}, which copies the nested beans, collections, maps and arrays recursively
+ * <p>
+ * Each nested bean type is copied by its own generated copier, and this instance serves as the converter of them.
+ * The copies are remembered by the identities of the sources during one operation,
+ * so that the shared references and the cycles in the source graph are kept in the copied graph, instead of overflowing the stack.
+ * Simple value types are immutable and shared, and the other types are shared only if they are specified by {@code sharedTypes}.
+ * A bean, collection or map that cannot be instantiated by its own class, such as {@code List.of()} or a bean without no-arg constructor,
+ * is not copied into another type silently, but fails the copy with a {@link org.springframework.beans.BeanInstantiationException}
+ * <p>
+ * An instance is stateful and not thread safe, use the static methods or create one instance per operation
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier
+ * @see org.springframework.beans.BeanUtils#isSimpleValueType
+ */
+@SuppressWarnings({"unused", "unchecked"})
+public class EnhancedDeepCopier extends PrimitivePassingConverter {
+    private final Map<Object, Object> copies = new IdentityHashMap<>();
+    private final Class<?>[] sharedTypes;
+
+    public EnhancedDeepCopier() {
+        this(null);
+    }
+
+    /**
+     * Constructs a deep copier with the types that are immutable and shared by reference
+     *
+     * @param sharedTypes the types that are immutable and shared by reference, including their subtypes
+     */
+    public EnhancedDeepCopier(@Nullable Collection<Class<?>> sharedTypes) {
+        this.sharedTypes = CollectionUtils.isEmpty(sharedTypes) ? new Class<?>[0] : sharedTypes.toArray(new Class<?>[0]);
+    }
+
+    /**
+     * Returns a deep copy of the source object, with the same class
+     *
+     * @param source the source object
+     *
+     * @return a deep copy of the source object, with the same class
+     */
+    @Nullable
+    public static <T> T deepCopy(@Nullable T source) {
+        return (source == null) ? null : (T) new EnhancedDeepCopier().copyValue(source, source.getClass());
+    }
+
+    /**
+     * Returns a deep copy of the source object, as an instance of the target class
+     *
+     * @param source the source object
+     * @param targetType the target class, must have a no-arg constructor if it is not assignable from the source class
+     *
+     * @return a deep copy of the source object, as an instance of the target class
+     */
+    @Nullable
+    public static <T> T deepCopy(@Nullable Object source, @Nonnull Class<T> targetType) {
+        return deepCopy(source, targetType, null);
+    }
+
+    /**
+     * Returns a deep copy of the source object, as an instance of the target class
+     *
+     * @param source the source object
+     * @param targetType the target class, must have a no-arg constructor if it is not assignable from the source class
+     * @param sharedTypes the types that are immutable and shared by reference, including their subtypes
+     *
+     * @return a deep copy of the source object, as an instance of the target class
+     */
+    @Nullable
+    public static <T> T deepCopy(@Nullable Object source, @Nonnull Class<T> targetType, @Nullable Collection<Class<?>> sharedTypes) {
+        Object result = (source == null) ? null : new EnhancedDeepCopier(sharedTypes).copyValue(source, targetType);
+        return targetType.isInstance(result) ? (T) result : null;
+    }
+
+    @Override
+    public boolean isTargetValueRequired() {
+        return false;
+    }
+
+    @Override
+    public Object convert(@Nullable Object sourceValue, @Nonnull Class<?> targetType, @Nonnull Object targetSetter, @Nonnull String targetName, @Nullable Object targetValue) {
+        Object result = copyValue(sourceValue, targetType);
+        // Leaves null to the setter, if the nested types are incompatible
+        return ClassUtils.isAssignableValue(targetType, result) ? result : null;
+    }
+
+    /**
+     * Returns a deep copy of the value, or the value itself if it is a simple value type or a shared type
+     *
+     * @param value the value to copy
+     * @param expectedType the expected type of the copy
+     *
+     * @return a deep copy of the value, or the value itself if it is a simple value type or a shared type
+     *
+     * @throws org.springframework.beans.BeanInstantiationException if the value is not a shared type, and cannot be instantiated
+     */
+    @Nullable
+    public Object copyValue(@Nullable Object value, @Nonnull Class<?> expectedType) {
+        if (value == null || (BeanUtils.isSimpleValueType(value.getClass()) && !(value instanceof Date)) || isSharedType(value.getClass())) {
+            return value;
+        }
+        Object existing = copies.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        if (value instanceof Date alias) {
+            return remember(value, alias.clone());
+        }
+        if (value.getClass().isArray()) {
+            return copyArray(value);
+        }
+        if (value instanceof Collection<?> alias) {
+            return copyCollection(alias);
+        }
+        if (value instanceof Map<?, ?> alias) {
+            return copyMap(alias);
+        }
+        return copyBean(value, expectedType);
+    }
+
+    @Nonnull
+    private Object copyArray(@Nonnull Object array) {
+        Class<?> componentType = array.getClass().getComponentType();
+        int length = Array.getLength(array);
+        if (componentType.isPrimitive()) {
+            Object result = Array.newInstance(componentType, length);
+            System.arraycopy(array, 0, result, 0, length);
+            return remember(array, result);
+        }
+        Object[] source = (Object[]) array, result = (Object[]) Array.newInstance(componentType, length);
+        remember(array, result);
+        for (int i = 0; i < length; i++) {
+            result[i] = copyValue(source[i], componentType);
+        }
+        return result;
+    }
+
+    @Nonnull
+    private Collection<Object> copyCollection(@Nonnull Collection<?> collection) {
+        Comparator<?> comparator = (collection instanceof SortedSet<?> alias) ? alias.comparator() : null;
+        Collection<Object> result = (Collection<Object>) instantiate(collection.getClass(), comparator);
+        remember(collection, result);
+        for (Object element : collection) {
+            result.add(copyValue(element, Object.class));
+        }
+        return result;
+    }
+
+    @Nonnull
+    private Map<Object, Object> copyMap(@Nonnull Map<?, ?> map) {
+        Comparator<?> comparator = (map instanceof SortedMap<?, ?> alias) ? alias.comparator() : null;
+        Map<Object, Object> result = (Map<Object, Object>) instantiate(map.getClass(), comparator);
+        remember(map, result);
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            result.put(copyValue(entry.getKey(), Object.class), copyValue(entry.getValue(), Object.class));
+        }
+        return result;
+    }
+
+    @Nonnull
+    private Object copyBean(@Nonnull Object bean, @Nonnull Class<?> expectedType) {
+        Class<?> targetType = expectedType.isInstance(bean) ? bean.getClass() : expectedType;
+        Object result = instantiate(targetType, null);
+        remember(bean, result);
+        EnhancedBeanCopier.create(bean.getClass(), targetType, true).copy(bean, result, this);
+        return result;
+    }
+
+    @Nonnull
+    private Object remember(@Nonnull Object source, @Nonnull Object copy) {
+        copies.put(source, copy);
+        return copy;
+    }
+
+    private boolean isSharedType(@Nonnull Class<?> type) {
+        for (Class<?> sharedType : sharedTypes) {
+            if (sharedType.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nonnull
+    private static Object instantiate(@Nonnull Class<?> type, @Nullable Comparator<?> comparator) {
+        if (type.isInterface() || type.isPrimitive() || type.isArray() || Modifier.isAbstract(type.getModifiers())) {
+            throw new BeanInstantiationException(type, "Cannot deep copy to an interface, abstract or primitive type");    // $NON-NLS-1$
+        }
+        if (comparator == null) {
+            try {
+                return ReflectUtils.newInstance(type);
+            } catch (RuntimeException ex) {
+                throw new BeanInstantiationException(type, "Cannot deep copy a type without usable no-arg constructor, please specify it as a shared type if it is immutable", ex);    // $NON-NLS-1$
+            }
+        }
+        // The sorted collections must keep their comparators
+        Constructor<?> constructor = ClassUtils.getConstructorIfAvailable(type, Comparator.class);
+        if (constructor == null) {
+            throw new BeanInstantiationException(type, "Cannot deep copy a sorted type without usable comparator constructor, please specify it as a shared type if it is immutable");    // $NON-NLS-1$
+        }
+        return BeanUtils.instantiateClass(constructor, comparator);
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cglib;
+
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.cglib.core.ReflectUtils;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Bean copier that is built from the accessors generated by {@link java.lang.invoke.LambdaMetafactory}, without CGLIB
+ * <p>
+ * The accessors are defined by the JDK as hidden classes next to the lookup classes, which are the declaring classes of the accessor methods,
+ * so that they are unloaded together with the beans, and no named class is defined into the class loaders of the beans.
+ * If an accessor cannot be spun, the copier falls back to invoking the method handle exactly, and logs the fallback once.
+ * It has the same contract as the CGLIB copiers, including the conversions without converter, the masked copy of target properties,
+ * and the failure on a null converter if it is created to use converter
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier
+ * @see com.yookue.commonplexus.springutil.cglib.BeanCopierBackend
+ */
+@Slf4j
+@SuppressWarnings({"unused", "unchecked"})
+public final class LambdaBeanCopier extends EnhancedBeanCopier {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final AtomicBoolean FALLBACK_LOGGED = new AtomicBoolean();
+
+    private final PropertyAccessor[] accessors;
+    private final Supplier<Object> targetFactory;
+    private final boolean useConverter;
+
+    public LambdaBeanCopier(@Nonnull Class<?> source, @Nonnull Class<?> target, boolean useConverter) {
+        Map<String, PropertyDescriptor> sourceGetters = new HashMap<>();
+        for (PropertyDescriptor descriptor : ReflectUtils.getBeanGetters(source)) {
+            sourceGetters.put(descriptor.getName(), descriptor);
+        }
+        Map<String, PropertyDescriptor> targetGetters = new HashMap<>();
+        for (PropertyDescriptor descriptor : ReflectUtils.getBeanGetters(target)) {
+            targetGetters.put(descriptor.getName(), descriptor);
+        }
+        List<PropertyAccessor> result = new ArrayList<>();
+        PropertyDescriptor[] targetSetters = EnhancedBeanCopier.getSortedSetters(target);
+        for (int i = 0; i < targetSetters.length; i++) {
+            PropertyDescriptor targetSetter = targetSetters[i], sourceGetter = sourceGetters.get(targetSetter.getName());
+            if (sourceGetter == null) {
+                continue;
+            }
+            Class<?> getterType = sourceGetter.getPropertyType(), setterType = targetSetter.getPropertyType();
+            if (useConverter) {
+                PropertyDescriptor targetGetter = targetGetters.get(targetSetter.getName());
+                Function<Object, Object> targetRead = (targetGetter == null) ? null : createGetter(targetGetter.getReadMethod());
+                result.add(new PropertyAccessor(i, targetSetter, createGetter(sourceGetter.getReadMethod()), createSetter(targetSetter.getWriteMethod()), targetRead, null, getterType == setterType && setterType.isPrimitive()));
+                continue;
+            }
+            Conversion conversion = Generator.resolveConversion(getterType, setterType);
+            if (conversion != null) {
+                result.add(new PropertyAccessor(i, targetSetter, createGetter(sourceGetter.getReadMethod()), createSetter(targetSetter.getWriteMethod()), null, createConversion(conversion, getterType, setterType), false));
+            }
+        }
+        this.accessors = result.toArray(new PropertyAccessor[0]);
+        this.useConverter = useConverter;
+        this.targetFactory = EnhancedBeanCopier.isConstructible(target) ? createFactory(target) : () -> ReflectUtils.newInstance(target);
+    }
+
+    @Override
+    public void copy(@Nonnull Object from, @Nonnull Object to, @Nullable BeanCopierConverter converter) {
+        if (!useConverter) {
+            for (PropertyAccessor accessor : accessors) {
+                accessor.copy(from, to, false);
+            }
+            return;
+        }
+        // Fails the same as the CGLIB copiers, which ask the converter before any property
+        Objects.requireNonNull(converter, "Converter must not be null for a copier that uses converter");    // $NON-NLS-1$
+        boolean required = converter.isTargetValueRequired();
+        for (PropertyAccessor accessor : accessors) {
+            accessor.convert(from, to, converter, required);
+        }
+    }
+
+    @Override
+    public void copyMasked(@Nonnull Object from, @Nonnull Object to, @Nonnull boolean[] mask) {
+        if (useConverter) {
+            super.copyMasked(from, to, mask);
+            return;
+        }
+        for (PropertyAccessor accessor : accessors) {
+            if (mask[accessor.index]) {
+                accessor.copy(from, to, true);
+            }
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Object newTarget() {
+        return targetFactory.get();
+    }
+
+    @Nullable
+    private static Function<Object, Object> createConversion(@Nonnull Conversion conversion, @Nonnull Class<?> getterType, @Nonnull Class<?> setterType) {
+        return switch (conversion) {
+            case NUMERIC -> {
+                Class<?> setterPrimitive = Generator.unwrap(setterType).isPrimitive() ? Generator.unwrap(setterType) : Generator.unwrap(getterType);
+                yield value -> widen(value, setterPrimitive);
+            }
+            case ENUM_TO_STRING -> value -> BeanCopierConversions.enumToString((Enum<?>) value);
+            case STRING_TO_ENUM -> value -> BeanCopierConversions.stringToEnum(setterType, (String) value);
+            case LOCAL_DATE_TIME_TO_DATE -> value -> BeanCopierConversions.localDateTimeToDate((LocalDateTime) value);
+            case DATE_TO_LOCAL_DATE_TIME -> value -> BeanCopierConversions.dateToLocalDateTime((Date) value);
+            default -> null;
+        };
+    }
+
+    @Nullable
+    private static Object widen(@Nullable Object value, @Nonnull Class<?> type) {
+        if (value == null || type == boolean.class || type == char.class) {
+            return value;
+        }
+        Number number = (value instanceof Character alias) ? Integer.valueOf(alias) : (Number) value;
+        if (type == byte.class) {
+            return number.byteValue();
+        } else if (type == short.class) {
+            return number.shortValue();
+        } else if (type == int.class) {
+            return number.intValue();
+        } else if (type == long.class) {
+            return number.longValue();
+        } else if (type == float.class) {
+            return number.floatValue();
+        }
+        return number.doubleValue();
+    }
+
+    @Nonnull
+    private static Function<Object, Object> createGetter(@Nonnull Method method) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(method);
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class), GETTER_TYPE, handle, handle.type().wrap());    // $NON-NLS-1$
+                return (Function<Object, Object>) invokeFactory(site);
+            } catch (LambdaConversionException ex) {
+                logFallback(method, ex);
+                MethodHandle generic = handle.asType(GETTER_TYPE);
+                return instance -> invokeGetter(generic, instance);
+            }
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Cannot access the getter " + method, ex);
+        }
+    }
+
+    @Nonnull
+    static BiConsumer<Object, Object> createSetter(@Nonnull Method method) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(method);
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class), SETTER_TYPE, handle, handle.type().wrap().changeReturnType(void.class));    // $NON-NLS-1$
+                return (BiConsumer<Object, Object>) invokeFactory(site);
+            } catch (LambdaConversionException ex) {
+                logFallback(method, ex);
+                MethodHandle generic = handle.asType(SETTER_TYPE);
+                return (instance, value) -> invokeSetter(generic, instance, value);
+            }
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Cannot access the setter " + method, ex);
+        }
+    }
+
+    @Nullable
+    static Supplier<Object> createFactory(@Nonnull Class<?> type) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            MethodHandle handle = lookup.findConstructor(type, MethodType.methodType(void.class));
+            CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class), MethodType.methodType(Object.class), handle, handle.type());    // $NON-NLS-1$
+            return (Supplier<Object>) invokeFactory(site);
+        } catch (LambdaConversionException | ReflectiveOperationException ignored) {
+            return null;
+        }
+    }
+
+    private static void logFallback(@Nonnull Method method, @Nonnull LambdaConversionException cause) {
+        if (FALLBACK_LOGGED.compareAndSet(false, true)) {
+            log.warn("Cannot spin lambda accessor for '{}', falls back to method handles", method, cause);    // $NON-NLS-1$
+        }
+    }
+
+    @Nonnull
+    private static Object invokeFactory(@Nonnull CallSite site) {
+        try {
+            return site.getTarget().invoke();
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Object invokeGetter(@Nonnull MethodHandle handle, @Nonnull Object instance) {
+        try {
+            return (Object) handle.invokeExact(instance);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static void invokeSetter(@Nonnull MethodHandle handle, @Nonnull Object instance, @Nullable Object value) {
+        try {
+            handle.invokeExact(instance, value);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+
+    /**
+     * Accessors of a pair of source property and target property
+     */
+    private static final class PropertyAccessor {
+        private final int index;
+        private final String name;
+        private final String setterName;
+        private final Class<?> setterType;
+        private final Function<Object, Object> sourceRead;
+        private final BiConsumer<Object, Object> targetWrite;
+        private final Function<Object, Object> targetRead;
+        private final Function<Object, Object> conversion;
+        private final boolean primitivePair;
+        private final Object zeroValue;
+
+        private PropertyAccessor(int index, @Nonnull PropertyDescriptor targetSetter, @Nonnull Function<Object, Object> sourceRead, @Nonnull BiConsumer<Object, Object> targetWrite, @Nullable Function<Object, Object> targetRead, @Nullable Function<Object, Object> conversion, boolean primitivePair) {
+            this.index = index;
+            this.name = targetSetter.getName();
+            this.setterName = targetSetter.getWriteMethod().getName();
+            this.setterType = targetSetter.getPropertyType();
+            this.sourceRead = sourceRead;
+            this.targetWrite = targetWrite;
+            this.targetRead = targetRead;
+            this.conversion = conversion;
+            this.primitivePair = primitivePair;
+            this.zeroValue = setterType.isPrimitive() ? Array.get(Array.newInstance(setterType, 1), 0) : null;
+        }
+
+        private void copy(@Nonnull Object from, @Nonnull Object to, boolean strict) {
+            Object value = sourceRead.apply(from);
+            if (conversion != null) {
+                value = conversion.apply(value);
+            }
+            // A null wrapper leaves the primitive setter untouched, or fails it if strict
+            if (value != null || zeroValue == null || strict) {
+                targetWrite.accept(to, value);
+            }
+        }
+
+        private void convert(@Nonnull Object from, @Nonnull Object to, @Nonnull BeanCopierConverter converter, boolean required) {
+            Object sourceValue = sourceRead.apply(from);
+            Object targetValue = (required && targetRead != null) ? targetRead.apply(to) : zeroValue;
+            Object result = primitivePair ? convertPrimitive(converter, sourceValue, (targetValue == null) ? zeroValue : targetValue) : converter.convert(sourceValue, setterType, setterName, name, targetValue);
+            targetWrite.accept(to, (result == null) ? zeroValue : result);
+        }
+
+        @Nonnull
+        private Object convertPrimitive(@Nonnull BeanCopierConverter converter, @Nonnull Object sourceValue, @Nonnull Object targetValue) {
+            if (setterType == boolean.class) {
+                return converter.convertBoolean((Boolean) sourceValue, setterName, name, (Boolean) targetValue);
+            } else if (setterType == byte.class) {
+                return converter.convertByte((Byte) sourceValue, setterName, name, (Byte) targetValue);
+            } else if (setterType == char.class) {
+                return converter.convertChar((Character) sourceValue, setterName, name, (Character) targetValue);
+            } else if (setterType == short.class) {
+                return converter.convertShort((Short) sourceValue, setterName, name, (Short) targetValue);
+            } else if (setterType == int.class) {
+                return converter.convertInt((Integer) sourceValue, setterName, name, (Integer) targetValue);
+            } else if (setterType == long.class) {
+                return converter.convertLong((Long) sourceValue, setterName, name, (Long) targetValue);
+            } else if (setterType == float.class) {
+                return converter.convertFloat((Float) sourceValue, setterName, name, (Float) targetValue);
+            }
+            return converter.convertDouble((Double) sourceValue, setterName, name, (Double) targetValue);
+        }
+    }
+}
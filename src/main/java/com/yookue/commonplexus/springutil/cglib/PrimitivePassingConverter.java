@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cglib;
+
+
+import jakarta.annotation.Nonnull;
+
+
+/**
+ * Abstract converter for {@link com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier}, which assigns the primitive source values to the target fields directly
+ * <p>
+ * Primitive source values are never null, so the subclasses only need to decide the reference values by {@link #convert}
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cglib.BeanCopierConverter
+ */
+@SuppressWarnings("unused")
+public abstract class PrimitivePassingConverter implements BeanCopierConverter {
+    @Override
+    public boolean convertBoolean(boolean sourceValue, @Nonnull Object targetSetter, @Nonnull String targetName, boolean targetValue) {
+        return sourceValue;
+    }
+
+    @Override
+    public byte convertByte(byte sourceValue, @Nonnull Object targetSetter, @Nonnull String targetName, byte targetValue) {
+        return sourceValue;
+    }
+
+    @Override
+    public char convertChar(char sourceValue, @Nonnull Object targetSetter, @Nonnull String targetName, char targetValue) {
+        return sourceValue;
+    }
+
+    @Override
+    public short convertShort(short sourceValue, @Nonnull Object targetSetter, @Nonnull String targetName, short targetValue) {
+        return sourceValue;
+    }
+
+    @Override
+    public int convertInt(int sourceValue, @Nonnull Object targetSetter, @Nonnull String targetName, int targetValue) {
+        return sourceValue;
+    }
+
+    @Override
+    public long convertLong(long sourceValue, @Nonnull Object targetSetter, @Nonnull String targetName, long targetValue) {
+        return sourceValue;
+    }
+
+    @Override
+    public float convertFloat(float sourceValue, @Nonnull Object targetSetter, @Nonnull String targetName, float targetValue) {
+        return sourceValue;
+    }
+
+    @Override
+    public double convertDouble(double sourceValue, @Nonnull Object targetSetter, @Nonnull String targetName, double targetValue) {
+        return sourceValue;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cglib;
+
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+
+
+/**
+ * Cache key of the compiled property specs, which is made of the classes, the mode flags and the set of field names
+ * <p>
+ * The lookups go through a thread-local probe, which refers to a set of the caller without copying it,
+ * while the other collections are sorted and deduplicated once into an array, which is also held by the key if the lookup missed.
+ * Only a missed lookup stores a key, which holds the field names as a sorted and distinct array.
+ * The field names are compared as a set, so that the order, the duplicates and the nulls of the collections are not significant
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cglib.CopySpec
+ * @see com.yookue.commonplexus.springutil.cglib.BeanMapSpec
+ */
+final class PropertySpecKey {
+    private static final String[] EMPTY_FIELDS = new String[0];
+    private static final ThreadLocal<PropertySpecKey> PROBES = ThreadLocal.withInitial(PropertySpecKey::new);
+
+    private Class<?> source;
+    private Class<?> target;
+    private int flags;
+    private String[] fields;
+    private Collection<String> probeFields;
+    private int fieldCount;
+    private int hash;
+
+    private PropertySpecKey() {
+    }
+
+    /**
+     * Returns the probe of the current thread, which must be released after the lookup
+     *
+     * @param source the source class
+     * @param target the target class, may be null for the specs of one class
+     * @param flags the mode flags
+     * @param fields the field names, which will not be copied
+     *
+     * @return the probe of the current thread
+     */
+    @Nonnull
+    static PropertySpecKey probe(@Nonnull Class<?> source, @Nullable Class<?> target, int flags, @Nullable Collection<String> fields) {
+        PropertySpecKey result = PROBES.get();
+        result.source = source;
+        result.target = target;
+        result.flags = flags;
+        result.fields = null;
+        result.probeFields = fields;
+        result.hashFields();
+        return result;
+    }
+
+    /**
+     * Returns a key to store in the cache, which holds a sorted and distinct copy of the field names
+     *
+     * @return a key to store in the cache
+     */
+    @Nonnull
+    PropertySpecKey toKey() {
+        PropertySpecKey result = new PropertySpecKey();
+        result.source = source;
+        result.target = target;
+        result.flags = flags;
+        result.fields = (fields != null) ? fields : sortFields(probeFields);
+        result.fieldCount = fieldCount;
+        result.hash = hash;
+        return result;
+    }
+
+    /**
+     * Clears the references of the probe to the classes and the collection of the caller
+     */
+    void release() {
+        source = null;
+        target = null;
+        fields = null;
+        probeFields = null;
+    }
+
+    @Nonnull
+    Class<?> getSource() {
+        return source;
+    }
+
+    @Nullable
+    Class<?> getTarget() {
+        return target;
+    }
+
+    boolean hasFlag(int flag) {
+        return (flags & flag) != 0;
+    }
+
+    boolean containsField(@Nullable String field) {
+        if (field == null) {
+            return false;
+        }
+        if (fields != null) {
+            return Arrays.binarySearch(fields, field) >= 0;
+        }
+        return probeFields != null && probeFields.contains(field);
+    }
+
+    private void hashFields() {
+        int count = 0, sum = 0;
+        if (probeFields instanceof Set<String> alias) {
+            for (String field : alias) {
+                if (field != null) {
+                    count++;
+                    sum += field.hashCode();
+                }
+            }
+        } else if (probeFields != null && !probeFields.isEmpty()) {
+            // Lists and the other collections have no cheap way to skip the duplicates
+            fields = sortFields(probeFields);
+            for (String field : fields) {
+                count++;
+                sum += field.hashCode();
+            }
+        }
+        fieldCount = count;
+        hash = 31 * (31 * (31 * System.identityHashCode(source) + System.identityHashCode(target)) + flags) + sum;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof PropertySpecKey alias) || source != alias.source || target != alias.target || flags != alias.flags || fieldCount != alias.fieldCount || hash != alias.hash) {
+            return false;
+        }
+        // Both have the same number of distinct names, so one containing the other means equal
+        PropertySpecKey stored = (fields != null) ? this : alias, probe = (stored == this) ? alias : this;
+        if (stored.fields == null) {
+            return false;
+        }
+        for (String field : stored.fields) {
+            if (!probe.containsField(field)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Nonnull
+    private static String[] sortFields(@Nullable Collection<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return EMPTY_FIELDS;
+        }
+        Set<String> result = new TreeSet<>();
+        for (String field : fields) {
+            if (field != null) {
+                result.add(field);
+            }
+        }
+        return result.toArray(EMPTY_FIELDS);
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cglib;
+
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.FatalBeanException;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.NumberUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
+import lombok.Getter;
+
+
+/**
+ * Compiled table of the property writers of a bean class
+ * <p>
+ * The setters are resolved lazily into the accessors generated by {@link java.lang.invoke.LambdaMetafactory}, and the numeric coercion of each property is decided once,
+ * so that writing a property is a single hash lookup plus a direct invocation.
+ * A setter that cannot be accessed by a private lookup, such as the setters of the JDK classes, falls back to reflection,
+ * and only fails the writes of its own property with a {@link org.springframework.beans.BeansException}
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cglib.LambdaBeanCopier
+ * @see com.yookue.commonplexus.springutil.util.BeanUtilsWraps#setProperty(Object, String, Object)
+ * @see com.yookue.commonplexus.springutil.util.BeanUtilsWraps#mapToBean(Map, Object)
+ */
+@SuppressWarnings("unused")
+public final class PropertyWriterTable {
+    private static final Map<Class<?>, PropertyWriterTable> CACHE_TABLE = new ConcurrentReferenceHashMap<>(256);
+
+    @Getter
+    private final Class<?> beanClass;
+
+    private final Map<String, PropertyWriter> writers;
+    private volatile Supplier<Object> factory;
+
+    private PropertyWriterTable(@Nonnull Class<?> beanClass) {
+        this.beanClass = beanClass;
+        PropertyDescriptor[] descriptors = BeanUtils.getPropertyDescriptors(beanClass);
+        Map<String, PropertyWriter> result = new HashMap<>((int) (descriptors.length / 0.75f) + 1);
+        for (PropertyDescriptor descriptor : descriptors) {
+            if (descriptor.getWriteMethod() != null) {
+                result.put(descriptor.getName(), new PropertyWriter(descriptor));
+            }
+        }
+        this.writers = result;
+    }
+
+    /**
+     * Returns the cached property writer table of the class
+     *
+     * @param beanClass the bean class
+     *
+     * @return the cached property writer table of the class
+     */
+    @Nonnull
+    public static PropertyWriterTable of(@Nonnull Class<?> beanClass) {
+        PropertyWriterTable result = CACHE_TABLE.get(beanClass);
+        return (result != null) ? result : CACHE_TABLE.computeIfAbsent(beanClass, PropertyWriterTable::new);
+    }
+
+    @Nonnull
+    public Set<String> getPropertyNames() {
+        return Collections.unmodifiableSet(writers.keySet());
+    }
+
+    public boolean isWritable(@Nullable String property) {
+        return property != null && writers.containsKey(property);
+    }
+
+    /**
+     * Write the value to the property of the bean
+     *
+     * @param bean the bean to write property to
+     * @param property the property name
+     * @param value the property value
+     *
+     * @return whether the property is writable
+     *
+     * @throws BeansException if writing failed
+     */
+    public boolean write(@Nonnull Object bean, @Nonnull String property, @Nullable Object value) throws BeansException {
+        PropertyWriter writer = writers.get(property);
+        if (writer == null) {
+            return false;
+        }
+        writer.write(bean, value);
+        return true;
+    }
+
+    /**
+     * Write the entries of the map to the properties of the bean, the entries that are not writable will be ignored
+     *
+     * @param map the map that contains property names and values
+     * @param bean the bean to write properties to
+     *
+     * @throws BeansException if writing failed
+     */
+    public void writeAll(@Nonnull Map<?, ?> map, @Nonnull Object bean) throws BeansException {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            Object key = entry.getKey();
+            PropertyWriter writer = writers.get((key instanceof String alias) ? alias : ObjectUtils.getDisplayString(key));
+            if (writer != null) {
+                writer.write(bean, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Returns a list of new beans that are populated from the rows
+     *
+     * @param rows the maps that contain property names and values
+     *
+     * @return a list of new beans that are populated from the rows
+     *
+     * @throws BeansException if instantiating or writing failed
+     */
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    public <T> List<T> createAll(@Nonnull Collection<? extends Map<?, ?>> rows) throws BeansException {
+        Supplier<Object> supplier = resolveFactory();
+        List<T> result = new ArrayList<>(rows.size());
+        for (Map<?, ?> row : rows) {
+            Object bean = supplier.get();
+            if (row != null && !row.isEmpty()) {
+                writeAll(row, bean);
+            }
+            result.add((T) bean);
+        }
+        return result;
+    }
+
+    @Nonnull
+    private Supplier<Object> resolveFactory() throws BeansException {
+        Supplier<Object> result = factory;
+        if (result == null) {
+            result = EnhancedBeanCopier.isConstructible(beanClass) ? LambdaBeanCopier.createFactory(beanClass) : null;
+            if (result == null) {
+                result = () -> BeanUtils.instantiateClass(beanClass);
+            }
+            factory = result;
+        }
+        return result;
+    }
+
+
+    /**
+     * Writer of a property, with the numeric coercion resolved, and the setter created at the first write
+     */
+    private static final class PropertyWriter {
+        private final String name;
+        private final Method writeMethod;
+        private final Class<?> valueType;
+        private final boolean numeric;
+        private volatile BiConsumer<Object, Object> setter;
+
+        private PropertyWriter(@Nonnull PropertyDescriptor descriptor) {
+            this.name = descriptor.getName();
+            this.writeMethod = descriptor.getWriteMethod();
+            this.valueType = ClassUtils.resolvePrimitiveIfNecessary(descriptor.getPropertyType());
+            this.numeric = Number.class.isAssignableFrom(valueType);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void write(@Nonnull Object bean, @Nullable Object value) throws BeansException {
+            try {
+                BiConsumer<Object, Object> setter = resolveSetter();
+                if (numeric && value instanceof Number alias && !valueType.isInstance(value)) {
+                    setter.accept(bean, NumberUtils.convertNumberToTargetClass(alias, (Class<? extends Number>) valueType));
+                } else {
+                    setter.accept(bean, value);
+                }
+            } catch (RuntimeException ex) {
+                throw new FatalBeanException("Could not copy property '" + name + "' from source to target", ex);
+            }
+        }
+
+        @Nonnull
+        private BiConsumer<Object, Object> resolveSetter() {
+            BiConsumer<Object, Object> result = setter;
+            if (result == null) {
+                try {
+                    result = LambdaBeanCopier.createSetter(writeMethod);
+                } catch (RuntimeException ignored) {
+                    // The declaring class is not open to this module, invoke the setter by reflection
+                    ReflectionUtils.makeAccessible(writeMethod);
+                    result = (bean, value) -> ReflectionUtils.invokeMethod(writeMethod, bean, value);
+                }
+                setter = result;
+            }
+            return result;
+        }
+    }
+}
@@ -54,4 +54,44 @@ public abstract class MybatisPageConst {
      * Boolean value
      */
     public static final String REASONABLE = "reasonable";    // $NON-NLS-1$
+
+    /**
+     * String value, the column name of the keyset pagination
+     */
+    public static final String SEEK_KEY = "seekKey";    // $NON-NLS-1$
+
+    /**
+     * String value, the field name of the rows that holds the value of the seek key, defaults to the seek key
+     */
+    public static final String SEEK_FIELD = "seekField";    // $NON-NLS-1$
+
+    /**
+     * String value, {@code asc} or {@code desc}
+     */
+    public static final String SEEK_DIR = "seekDir";    // $NON-NLS-1$
+
+    /**
+     * String value, the continuation token of the previous page
+     */
+    public static final String SEEK_TOKEN = "seekToken";    // $NON-NLS-1$
+
+    /**
+     * String value, the column name to be used by {@code ${_seek_column_}} in statements
+     */
+    public static final String SEEK_COLUMN_PARAM = "_seek_column_";    // $NON-NLS-1$
+
+    /**
+     * String value, {@code >} or {@code <} to be used by {@code ${_seek_operator_}} in statements
+     */
+    public static final String SEEK_OPERATOR_PARAM = "_seek_operator_";    // $NON-NLS-1$
+
+    /**
+     * Object value, the last seen value to be used by {@code #{_seek_value_}} in statements, absent for the first page
+     */
+    public static final String SEEK_VALUE_PARAM = "_seek_value_";    // $NON-NLS-1$
+
+    /**
+     * String value, the order clause to be used by {@code ORDER BY ${_seek_order_}} in statements
+     */
+    public static final String SEEK_ORDER_PARAM = "_seek_order_";    // $NON-NLS-1$
 }
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.enumeration;
+
+
+import org.springframework.http.MediaType;
+import com.yookue.commonplexus.javaseutil.support.KeyValueEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/**
+ * Enumerations of table export formats
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.support.TableExportResultHandler
+ */
+@AllArgsConstructor
+@Getter
+@SuppressWarnings("unused")
+public enum TableExportFormat implements KeyValueEnum<String, MediaType> {
+    JSON("json", MediaType.APPLICATION_JSON),    // $NON-NLS-1$
+    CSV("csv", new MediaType("text", "csv")),    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+    NDJSON("ndjson", MediaType.APPLICATION_NDJSON);    // $NON-NLS-1$
+
+    private final String key;
+    private final MediaType value;
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.processor;
+
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.lang.model.element.Modifier;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.springframework.aot.generate.GeneratedMethod;
+import org.springframework.aot.generate.GenerationContext;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationCode;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cglib.core.ReflectUtils;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.util.ClassUtils;
+import com.yookue.commonplexus.springutil.cglib.BeanCopierPair;
+import com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier;
+import com.yookue.commonplexus.springutil.enumeration.BeanCopierBackendType;
+import lombok.AllArgsConstructor;
+
+
+/**
+ * {@link org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor} that generates the copiers of {@link com.yookue.commonplexus.springutil.cglib.BeanCopierPair} ahead of time
+ * <p>
+ * The copiers are generated during AOT processing, where Spring writes the CGLIB classes as class files,
+ * and then the generated initializer registers them into the copier cache at startup, so the first copy runs without bytecode generation
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cglib.BeanCopierPair
+ * @see com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier
+ */
+@SuppressWarnings("unused")
+public class BeanCopierAotProcessor implements BeanFactoryInitializationAotProcessor {
+    @Nullable
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(@Nonnull ConfigurableListableBeanFactory beanFactory) {
+        Map<String, CopierEntry> entries = new LinkedHashMap<>();
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            Class<?> beanType = beanFactory.getType(beanName, false);
+            if (beanType == null) {
+                continue;
+            }
+            MergedAnnotations.from(ClassUtils.getUserClass(beanType), MergedAnnotations.SearchStrategy.TYPE_HIERARCHY).stream(BeanCopierPair.class).forEach(annotation -> {
+                Class<?> source = annotation.getClass("source"), target = annotation.getClass("target");    // $NON-NLS-1$ // $NON-NLS-2$
+                boolean useConverter = annotation.getBoolean("useConverter");    // $NON-NLS-1$
+                if (EnhancedBeanCopier.resolveBackend(source, target) == BeanCopierBackendType.CGLIB) {
+                    // Generating the copier here lets Spring capture the class file of it
+                    String copierClass = EnhancedBeanCopier.create(source, target, useConverter).getClass().getName();
+                    entries.putIfAbsent(copierClass, new CopierEntry(source.getName(), target.getName(), useConverter, copierClass));
+                }
+            });
+        }
+        return entries.isEmpty() ? null : (context, code) -> contribute(context, code, entries);
+    }
+
+    private void contribute(@Nonnull GenerationContext context, @Nonnull BeanFactoryInitializationCode code, @Nonnull Map<String, CopierEntry> entries) {
+        entries.keySet().forEach(copierClass -> context.getRuntimeHints().reflection().registerType(TypeReference.of(copierClass), MemberCategory.INVOKE_DECLARED_CONSTRUCTORS));
+        GeneratedMethod method = code.getMethods().add("registerBeanCopiers", builder -> {    // $NON-NLS-1$
+            builder.addJavadoc("Register the bean copiers that generated ahead of time");    // $NON-NLS-1$
+            builder.addModifiers(Modifier.PUBLIC);
+            builder.addParameter(DefaultListableBeanFactory.class, BeanFactoryInitializationCode.BEAN_FACTORY_VARIABLE);
+            for (CopierEntry entry : entries.values()) {
+                builder.addStatement("$T.registerCopier($L.getBeanClassLoader(), $S, $S, $L, $S)", BeanCopierAotProcessor.class, BeanFactoryInitializationCode.BEAN_FACTORY_VARIABLE, entry.source, entry.target, entry.useConverter, entry.copierClass);    // $NON-NLS-1$
+            }
+        });
+        code.addInitializer(method.toMethodReference());
+    }
+
+    /**
+     * Registers the copier that generated ahead of time, called by the generated initializer
+     *
+     * @param classLoader the class loader to load the classes
+     * @param source the source class name
+     * @param target the target class name
+     * @param useConverter whether the copier uses converter or not
+     * @param copierClass the generated copier class name
+     */
+    public static void registerCopier(@Nullable ClassLoader classLoader, @Nonnull String source, @Nonnull String target, boolean useConverter, @Nonnull String copierClass) {
+        Class<?> sourceType = ClassUtils.resolveClassName(source, classLoader), targetType = ClassUtils.resolveClassName(target, classLoader);
+        // The copier is defined next to the target class
+        Class<?> copierType = ClassUtils.resolveClassName(copierClass, targetType.getClassLoader());
+        EnhancedBeanCopier.register(sourceType, targetType, useConverter, (EnhancedBeanCopier) ReflectUtils.newInstance(copierType));
+    }
+
+
+    @AllArgsConstructor
+    private static final class CopierEntry {
+        private final String source;
+        private final String target;
+        private final boolean useConverter;
+        private final String copierClass;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.processor;
+
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.ArrayUtils;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcut;
+import org.springframework.cache.CacheManager;
+import com.yookue.commonplexus.springutil.cache.SingleFlightCacheInterceptor;
+import com.yookue.commonplexus.springutil.cache.SingleFlightCacheManager;
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * {@link org.springframework.beans.factory.config.BeanPostProcessor} that decorates the {@link org.springframework.cache.CacheManager}s with single-flight loading
+ * <p>
+ * The cache managers are proxied by CGLIB, so they keep their own types and can still be injected by their concrete types,
+ * and if a cache manager has been proxied by other processors, the advisor is just appended to the existing proxy.
+ * If {@code cacheManagerNames} or {@code cacheManagerTypes} is not empty, only the matching beans will be decorated
+ * <p>
+ * Please note that only the misses of {@code @Cacheable(sync = true)} are coalesced, the misses of a plain {@code @Cacheable} are not
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cache.SingleFlightCacheInterceptor
+ * @see com.yookue.commonplexus.springutil.cache.SingleFlightCache
+ */
+@Getter
+@Setter
+@SuppressWarnings("unused")
+public class SingleFlightCacheProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+    private final SingleFlightCacheInterceptor interceptor = new SingleFlightCacheInterceptor();
+    private String[] cacheManagerNames;
+    private Class<?>[] cacheManagerTypes;
+
+    public SingleFlightCacheProcessor() {
+        NameMatchMethodPointcut pointcut = new NameMatchMethodPointcut();
+        pointcut.setMappedName("getCache");    // $NON-NLS-1$
+        pointcut.setClassFilter(this::isCacheManagerType);
+        super.advisor = new DefaultPointcutAdvisor(pointcut, interceptor);
+        super.setProxyTargetClass(true);
+    }
+
+    @Override
+    protected boolean isEligible(@Nonnull Object bean, @Nonnull String beanName) {
+        if (ArrayUtils.isNotEmpty(cacheManagerNames) && !ArrayUtils.contains(cacheManagerNames, beanName)) {
+            return false;
+        }
+        return super.isEligible(bean, beanName);
+    }
+
+    private boolean isCacheManagerType(@Nonnull Class<?> clazz) {
+        if (!CacheManager.class.isAssignableFrom(clazz) || SingleFlightCacheManager.class.isAssignableFrom(clazz)) {
+            return false;
+        }
+        return ArrayUtils.isEmpty(cacheManagerTypes) || Arrays.stream(cacheManagerTypes).anyMatch(type -> type.isAssignableFrom(clazz));
+    }
+
+    public Duration getLoadTimeout() {
+        return interceptor.getLoadTimeout();
+    }
+
+    public void setLoadTimeout(@Nonnull Duration loadTimeout) {
+        interceptor.setLoadTimeout(loadTimeout);
+    }
+
+    public Duration getTimeToLive() {
+        return interceptor.getTimeToLive();
+    }
+
+    public void setTimeToLive(@Nullable Duration timeToLive) {
+        interceptor.setTimeToLive(timeToLive);
+    }
+
+    public Duration getRefreshWindow() {
+        return interceptor.getRefreshWindow();
+    }
+
+    public void setRefreshWindow(@Nullable Duration refreshWindow) {
+        interceptor.setRefreshWindow(refreshWindow);
+    }
+
+    public Executor getRefreshExecutor() {
+        return interceptor.getRefreshExecutor();
+    }
+
+    public void setRefreshExecutor(@Nullable Executor refreshExecutor) {
+        interceptor.setRefreshExecutor(refreshExecutor);
+    }
+}
@@ -56,6 +56,7 @@ public class HashCodeKeyGeneratorRegistrar implements ImportAware {
         result.setShortClazzName(attributes.getBoolean("shortClazzName"));    // $NON-NLS-1$
         result.setMethodHash(attributes.getBoolean("methodHash"));    // $NON-NLS-1$
         result.setParamParentheses(attributes.getBoolean("paramParentheses"));    // $NON-NLS-1$
+        result.setStructuredKey(attributes.getBoolean("structuredKey"));    // $NON-NLS-1$
         return result;
     }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.yookue.commonplexus.springutil.registrar;
+
+
+import java.lang.annotation.Annotation;
+import java.time.Duration;
+import jakarta.annotation.Nonnull;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ImportAware;
+import org.springframework.core.annotation.AnnotationAttributes;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import com.yookue.commonplexus.springutil.annotation.EnableNearCache;
+import com.yookue.commonplexus.springutil.cache.NearCacheManager;
+import com.yookue.commonplexus.springutil.cache.RedisNearCacheBroadcaster;
+import com.yookue.commonplexus.springutil.cache.SingleFlightCacheManager;
+
+
+/**
+ * Registrar of a two-level near cache manager for spring cache
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.cache.NearCacheManager
+ */
+public class NearCacheRegistrar implements ImportAware {
+    public static final String CACHE_MANAGER = "nearCacheManager";    // $NON-NLS-1$
+    public static final String BROADCASTER = "nearCacheBroadcaster";    // $NON-NLS-1$
+    public static final String LISTENER_CONTAINER = "nearCacheListenerContainer";    // $NON-NLS-1$
+    private final Class<? extends Annotation> annotation = EnableNearCache.class;
+    private AnnotationAttributes attributes;
+
+    @Override
+    public void setImportMetadata(@Nonnull AnnotationMetadata metadata) {
+        attributes = AnnotationAttributes.fromMap(metadata.getAnnotationAttributes(annotation.getName()));
+        if (attributes == null) {
+            throw new IllegalArgumentException(String.format("@%s is not present on importing class: %s", annotation.getSimpleName(), metadata.getClassName()));    // $NON-NLS-1$
+        }
+    }
+
+    @Bean(name = BROADCASTER)
+    @ConditionalOnMissingBean(name = BROADCASTER)
+    public RedisNearCacheBroadcaster nearCacheBroadcaster(@Nonnull RedisConnectionFactory factory) {
+        return new RedisNearCacheBroadcaster(new StringRedisTemplate(factory), attributes.getString("channel"));    // $NON-NLS-1$
+    }
+
+    @Bean(name = CACHE_MANAGER)
+    @ConditionalOnMissingBean(name = CACHE_MANAGER)
+    public NearCacheManager nearCacheManager(@Nonnull RedisConnectionFactory factory, @Nonnull RedisNearCacheBroadcaster broadcaster) {
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig();
+        long remoteExpireSeconds = attributes.getNumber("remoteExpireSeconds");    // $NON-NLS-1$
+        if (remoteExpireSeconds > 0L) {
+            configuration = configuration.entryTtl(Duration.ofSeconds(remoteExpireSeconds));
+        }
+        if (!attributes.getBoolean("allowNullValues")) {    // $NON-NLS-1$
+            configuration = configuration.disableCachingNullValues();
+        }
+        RedisCacheManager remoteManager = RedisCacheManager.builder(factory).cacheDefaults(configuration).build();
+        remoteManager.afterPropertiesSet();
+        long localMaximumSize = attributes.getNumber("localMaximumSize");    // $NON-NLS-1$
+        long localExpireSeconds = attributes.getNumber("localExpireSeconds");    // $NON-NLS-1$
+        return new NearCacheManager(remoteManager, broadcaster, localMaximumSize, Duration.ofSeconds(localExpireSeconds));
+    }
+
+    @Bean(name = LISTENER_CONTAINER)
+    @ConditionalOnMissingBean(name = LISTENER_CONTAINER)
+    public RedisMessageListenerContainer nearCacheListenerContainer(@Nonnull RedisConnectionFactory factory, @Nonnull RedisNearCacheBroadcaster broadcaster, @Nonnull @Qualifier(value = CACHE_MANAGER) CacheManager manager) {
+        // The cache manager may be proxied by SingleFlightCacheProcessor, or wrapped by SingleFlightCacheManager manually
+        CacheManager target = (manager instanceof SingleFlightCacheManager alias) ? alias.getDelegate() : manager;
+        if (!(target instanceof NearCacheManager alias)) {
+            throw new IllegalStateException(String.format("Bean '%s' is not a near cache manager: %s", CACHE_MANAGER, target.getClass().getName()));    // $NON-NLS-1$
+        }
+        RedisMessageListenerContainer result = new RedisMessageListenerContainer();
+        result.setConnectionFactory(factory);
+        result.addMessageListener(broadcaster.createListener(alias), new ChannelTopic(broadcaster.getChannel()));
+        return result;
+    }
+}
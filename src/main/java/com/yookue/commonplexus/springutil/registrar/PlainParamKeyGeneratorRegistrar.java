@@ -19,12 +19,15 @@ package com.yookue.commonplexus.springutil.registrar;
 
 import java.lang.annotation.Annotation;
 import jakarta.annotation.Nonnull;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ImportAware;
 import org.springframework.core.annotation.AnnotationAttributes;
 import org.springframework.core.type.AnnotationMetadata;
 import com.yookue.commonplexus.springutil.annotation.EnablePlainParamKeyGenerator;
+import com.yookue.commonplexus.springutil.cache.ParamKeyFormatter;
+import com.yookue.commonplexus.springutil.cache.ParamKeyFormatterRegistry;
 import com.yookue.commonplexus.springutil.cache.PlainParamKeyGenerator;
 
 
@@ -48,7 +51,7 @@ public class PlainParamKeyGeneratorRegistrar implements ImportAware {
 
     @Bean(name = KEY_GENERATOR)
     @ConditionalOnMissingBean(name = KEY_GENERATOR)
-    public PlainParamKeyGenerator plainParamKeyGenerator() {
+    public PlainParamKeyGenerator plainParamKeyGenerator(@Nonnull ObjectProvider<ParamKeyFormatter> formatters) {
         PlainParamKeyGenerator result = new PlainParamKeyGenerator();
         result.setPrefix(attributes.getString("prefix"));    // $NON-NLS-1$
         result.setSuffix(attributes.getString("suffix"));    // $NON-NLS-1$
@@ -58,6 +61,8 @@ public class PlainParamKeyGeneratorRegistrar implements ImportAware {
         result.setMaxKeyLength(attributes.getNumber("maxKeyLength"));    // $NON-NLS-1$
         result.setParamParentheses(attributes.getBoolean("paramParentheses"));    // $NON-NLS-1$
         result.setParamHash(attributes.getBoolean("paramHash"));    // $NON-NLS-1$
+        result.setStructuredKey(attributes.getBoolean("structuredKey"));    // $NON-NLS-1$
+        result.setFormatterRegistry(new ParamKeyFormatterRegistry(formatters.orderedStream().toList()));
         return result;
     }
 }
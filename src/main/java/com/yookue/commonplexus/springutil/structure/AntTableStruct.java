@@ -19,7 +19,7 @@ package com.yookue.commonplexus.springutil.structure;
 
 import java.io.Serializable;
 import java.util.List;
-import java.util.Map;
+import jakarta.annotation.Nullable;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -29,6 +29,8 @@ import lombok.experimental.Accessors;
 /**
  * Structure for Table of Ant Design
  *
+ * @param <T> the type of the records, {@link java.util.Map} or a typed row object
+ *
  * @author David Hsing
  * @reference "https://ant.design/components/table"
  * @reference "https://procomponents.ant.design/components/table#request"
@@ -38,7 +40,13 @@ import lombok.experimental.Accessors;
 @AllArgsConstructor
 @Data
 @SuppressWarnings({"unused", "UnusedReturnValue", "JavadocDeclaration", "JavadocLinkAsPlainText"})
-public class AntTableStruct implements Serializable {
-    private List<Map<String, Object>> recordsDetails;
+public class AntTableStruct<T> implements Serializable {
+    private List<T> recordsDetails;
     private Long recordsTotal = 0L;
+    private String continuationToken;
+
+    public AntTableStruct(@Nullable List<T> recordsDetails, @Nullable Long recordsTotal) {
+        this.recordsDetails = recordsDetails;
+        this.recordsTotal = recordsTotal;
+    }
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.structure;
+
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+
+/**
+ * Structure for the result of a chunked batch write
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.util.MybatisBatchWraps#executeBatch
+ */
+@Accessors(chain = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@SuppressWarnings({"unused", "UnusedReturnValue"})
+public class BatchWriteStruct implements Serializable {
+    private List<Integer> chunkCounts = new ArrayList<>();
+    private long updateCount;
+    private int retriedChunks;
+    private List<Integer> failedIndexes = new ArrayList<>();
+}
@@ -19,7 +19,6 @@ package com.yookue.commonplexus.springutil.structure;
 
 import java.io.Serializable;
 import java.util.List;
-import java.util.Map;
 import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.math.NumberUtils;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -32,6 +31,8 @@ import lombok.experimental.Accessors;
 /**
  * Structure for DataTables
  *
+ * @param <T> the type of the records, {@link java.util.Map} or a typed row object
+ *
  * @author David Hsing
  * @reference "https://www.datatables.net"
  * @reference "http://datatables.club"
@@ -41,21 +42,30 @@ import lombok.experimental.Accessors;
 @AllArgsConstructor
 @Data
 @SuppressWarnings({"unused", "UnusedReturnValue", "JavadocDeclaration", "JavadocLinkAsPlainText"})
-public class DataTableStruct implements Serializable {
+public class DataTableStruct<T> implements Serializable {
     @JsonProperty(value = "draw")
     private Integer drawTimes = 0;
 
-    private List<Map<String, Object>> recordsDetails;
+    private List<T> recordsDetails;
     private Long recordsTotal = 0L;
     private Long recordsFiltered = 0L;
     private Integer recordsDisplay = 0;
+    private String continuationToken;
+
+    public DataTableStruct(@Nullable Integer drawTimes, @Nullable List<T> recordsDetails, @Nullable Long recordsTotal, @Nullable Long recordsFiltered, @Nullable Integer recordsDisplay) {
+        this.drawTimes = drawTimes;
+        this.recordsDetails = recordsDetails;
+        this.recordsTotal = recordsTotal;
+        this.recordsFiltered = recordsFiltered;
+        this.recordsDisplay = recordsDisplay;
+    }
 
-    public DataTableStruct setDrawTimes(@Nullable Integer drawTimes) {
+    public DataTableStruct<T> setDrawTimes(@Nullable Integer drawTimes) {
         this.drawTimes = drawTimes;
         return this;
     }
 
-    public DataTableStruct setDrawTimes(@Nullable String drawTimes) {
+    public DataTableStruct<T> setDrawTimes(@Nullable String drawTimes) {
         this.drawTimes = NumberUtils.toInt(drawTimes);
         return this;
     }
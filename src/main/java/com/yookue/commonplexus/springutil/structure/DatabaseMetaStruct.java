@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.structure;
+
+
+import java.io.Serializable;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+
+/**
+ * Structure for a snapshot of the database meta-data
+ *
+ * @author David Hsing
+ * @see java.sql.DatabaseMetaData
+ * @see com.yookue.commonplexus.springutil.util.JdbcUtilsWraps#getDatabaseMetaStruct
+ */
+@Accessors(chain = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@SuppressWarnings({"unused", "UnusedReturnValue"})
+public class DatabaseMetaStruct implements Serializable {
+    private String productName;
+    private String productVersion;
+    private int majorVersion;
+    private int minorVersion;
+    private DatabaseDriver databaseDriver;
+    private String driverName;
+    private String driverVersion;
+    private String url;
+    private String userName;
+    private String identifierQuote;
+    private String catalogSeparator;
+    private boolean upperCaseIdentifiers;
+    private boolean lowerCaseIdentifiers;
+    private boolean batchUpdates;
+    private boolean generatedKeys;
+    private boolean savepoints;
+    private boolean transactions;
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.support;
+
+
+import java.util.concurrent.Executor;
+import org.apache.ibatis.session.SqlSessionFactory;
+import com.yookue.commonplexus.springutil.cache.PageCountCache;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+
+/**
+ * Strategy of counting the totals of paged queries
+ * <p>
+ * The {@code countCache} serves the totals of the same filters within a short time.
+ * The {@code sessionFactory} and the {@code executor} run the count query on a separate session concurrently with the data query,
+ * please note that the separate session does not see the uncommitted changes of the current transaction.
+ * The {@code approximateTable} reads the total from the statistics of the table, ignoring the filters,
+ * which should only be used when an exact total is not needed
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.util.MybatisPageWraps#selectPageList
+ */
+@Accessors(chain = true)
+@NoArgsConstructor
+@Data
+@SuppressWarnings({"unused", "UnusedReturnValue"})
+public class PageCountStrategy {
+    private PageCountCache countCache;
+    private SqlSessionFactory sessionFactory;
+    private Executor executor;
+    private String approximateTable;
+
+    public boolean isConcurrent() {
+        return sessionFactory != null && executor != null;
+    }
+}
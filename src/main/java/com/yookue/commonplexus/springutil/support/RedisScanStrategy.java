@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.support;
+
+
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+
+/**
+ * Strategy of iterating the keys of patterns by redis {@code SCAN}
+ * <p>
+ * The {@code scanCount} is the {@code COUNT} hint of each {@code SCAN} call, and the {@code batchSize} is the count of keys per {@code UNLINK} command.
+ * The {@code progressListener} receives the count of the scanned keys after each batch,
+ * and the {@code cancelSignal} is checked before fetching each key, the iteration stops as soon as it returns {@code true}
+ *
+ * @author David Hsing
+ * @see com.yookue.commonplexus.springutil.util.RedisTemplateWraps#scanPattern
+ * @see com.yookue.commonplexus.springutil.util.RedisTemplateWraps#unlinkPattern(org.springframework.data.redis.core.RedisTemplate, java.util.Collection, RedisScanStrategy)
+ */
+@Accessors(chain = true)
+@NoArgsConstructor
+@Data
+@SuppressWarnings({"unused", "UnusedReturnValue"})
+public class RedisScanStrategy {
+    public static final long DEFAULT_SCAN_COUNT = 1000L;
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private long scanCount = DEFAULT_SCAN_COUNT;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private LongConsumer progressListener;
+    private BooleanSupplier cancelSignal;
+
+    public boolean isCancelled() {
+        return cancelSignal != null && cancelSignal.getAsBoolean();
+    }
+
+    public void notifyProgress(long scannedCount) {
+        if (progressListener != null) {
+            progressListener.accept(scannedCount);
+        }
+    }
+}
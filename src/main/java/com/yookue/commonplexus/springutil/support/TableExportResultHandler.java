@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.support;
+
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ObjectUtils;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yookue.commonplexus.springutil.cglib.BeanMapSpec;
+import com.yookue.commonplexus.springutil.enumeration.TableExportFormat;
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * Result handler that writes the rows of mybatis to an output stream as soon as they are fetched
+ * <p>
+ * The rows are never collected into a {@link java.util.List}, the memory is bounded by the buffers of the writer,
+ * and the output is flushed every {@code flushInterval} rows.
+ * The {@code JSON} format has the same properties as {@link com.yookue.commonplexus.springutil.structure.DataTableStruct},
+ * the {@code CSV} format takes the given columns as the header (or the keys of the first row, if no columns are given),
+ * and the {@code NDJSON} format writes a row per line
+ *
+ * @author David Hsing
+ * @see org.apache.ibatis.session.ResultHandler
+ * @see com.yookue.commonplexus.springutil.util.DataTableWraps#exportDataTable
+ */
+@SuppressWarnings("unused")
+public class TableExportResultHandler implements ResultHandler<Object>, Closeable {
+    public static final int DEFAULT_FLUSH_INTERVAL = 1000;
+
+    private final TableExportFormat format;
+    private final OutputStream output;
+    private final ObjectMapper mapper;
+    private final Integer drawTimes;
+
+    @Setter
+    private int flushInterval = DEFAULT_FLUSH_INTERVAL;
+
+    @Getter
+    private long rowCount;
+
+    private JsonGenerator generator;
+    private Writer writer;
+    private String[] columns;
+    private boolean started;
+
+    public TableExportResultHandler(@Nonnull TableExportFormat format, @Nonnull OutputStream output, @Nonnull ObjectMapper mapper) {
+        this(format, output, mapper, null);
+    }
+
+    public TableExportResultHandler(@Nonnull TableExportFormat format, @Nonnull OutputStream output, @Nonnull ObjectMapper mapper, @Nullable Integer drawTimes) {
+        this.format = format;
+        this.output = output;
+        this.mapper = mapper;
+        this.drawTimes = drawTimes;
+    }
+
+    /**
+     * Set the columns of the {@code CSV} format, before handling any rows
+     * <p>
+     * The columns are written as the header even if there are no rows, and the cells of each row are picked by them,
+     * so that the columns with {@code null} values are never dropped, and the order is stable
+     *
+     * @param columns the column names, or the property names of the row beans
+     */
+    public void setColumns(@Nullable String[] columns) {
+        if (started) {
+            throw new IllegalStateException("Columns must be set before the handler is started");    // $NON-NLS-1$
+        }
+        this.columns = (columns == null || columns.length == 0) ? null : columns.clone();
+    }
+
+    /**
+     * Write the head of the output, before handling any rows
+     *
+     * @throws IOException if writing failed
+     */
+    public void start() throws IOException {
+        if (started) {
+            return;
+        }
+        started = true;
+        if (format == TableExportFormat.CSV) {
+            writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            if (columns != null) {
+                writeCsvLine(columns);
+            }
+            return;
+        }
+        generator = mapper.getFactory().createGenerator(output, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // A failed export must not be completed into a valid document on closing
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        if (format == TableExportFormat.JSON) {
+            generator.writeStartObject();
+            generator.writeNumberField("draw", (drawTimes == null) ? 0 : drawTimes);    // $NON-NLS-1$
+            generator.writeArrayFieldStart("recordsDetails");    // $NON-NLS-1$
+        } else {
+            generator.setRootValueSeparator(null);
+        }
+    }
+
+    @Override
+    public void handleResult(@Nonnull ResultContext<?> context) {
+        try {
+            writeRow(context.getResultObject());
+        } catch (IOException ex) {
+            context.stop();
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Write the tail of the output and flush it, after all the rows are handled
+     *
+     * @throws IOException if writing failed
+     */
+    public void finish() throws IOException {
+        start();
+        if (format == TableExportFormat.CSV) {
+            writer.flush();
+            return;
+        }
+        if (format == TableExportFormat.JSON) {
+            generator.writeEndArray();
+            generator.writeNumberField("recordsTotal", rowCount);    // $NON-NLS-1$
+            generator.writeNumberField("recordsFiltered", rowCount);    // $NON-NLS-1$
+            generator.writeNumberField("recordsDisplay", rowCount);    // $NON-NLS-1$
+            generator.writeEndObject();
+        }
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (generator != null) {
+            generator.close();
+        }
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    private void writeRow(@Nullable Object row) throws IOException {
+        start();
+        if (format == TableExportFormat.CSV) {
+            writeCsvRow(row);
+        } else {
+            generator.writeObject(row);
+            if (format == TableExportFormat.NDJSON) {
+                generator.writeRaw('\n');
+            }
+        }
+        if (++rowCount % Math.max(1, flushInterval) == 0) {
+            if (writer != null) {
+                writer.flush();
+            } else {
+                generator.flush();
+            }
+        }
+    }
+
+    private void writeCsvRow(@Nullable Object row) throws IOException {
+        if (row == null) {
+            writer.write("\r\n");    // $NON-NLS-1$
+            return;
+        }
+        if (BeanUtils.isSimpleValueType(row.getClass())) {
+            if (columns == null) {
+                columns = new String[] {StringUtils.EMPTY};
+            }
+            writeCsvLine(new Object[] {row});
+            return;
+        }
+        Map<?, ?> values = (row instanceof Map<?, ?> alias) ? alias : BeanMapSpec.of(row.getClass(), true, null).asMap(row);
+        if (columns == null) {
+            columns = values.keySet().stream().map(ObjectUtils::getDisplayString).toArray(String[]::new);
+            writeCsvLine(columns);
+        }
+        Object[] cells = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            cells[i] = values.get(columns[i]);
+        }
+        writeCsvLine(cells);
+    }
+
+    private void writeCsvLine(@Nonnull Object[] cells) throws IOException {
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String text = (cells[i] == null) ? StringUtils.EMPTY : cells[i].toString();
+            if (StringUtils.containsAny(text, ',', '"', '\r', '\n')) {
+                writer.write('"');
+                writer.write(StringUtils.replace(text, "\"", "\"\""));    // $NON-NLS-1$ // $NON-NLS-2$
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        writer.write("\r\n");    // $NON-NLS-1$
+    }
+}
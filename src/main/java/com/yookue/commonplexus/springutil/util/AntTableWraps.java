@@ -30,6 +30,8 @@ import com.github.pagehelper.PageRowBounds;
 import com.yookue.commonplexus.javaseutil.util.CollectionPlainWraps;
 import com.yookue.commonplexus.javaseutil.util.MapPlainWraps;
 import com.yookue.commonplexus.springutil.structure.AntTableStruct;
+import com.yookue.commonplexus.springutil.structure.KeysetPageStruct;
+import com.yookue.commonplexus.springutil.support.PageCountStrategy;
 
 
 /**
@@ -44,74 +46,171 @@ import com.yookue.commonplexus.springutil.structure.AntTableStruct;
 public abstract class AntTableWraps {
     private static final String CURRENT_PAGE_PARAM = "current";    // $NON-NLS-1$
     private static final String PAGE_SIZE_PARAM = "pageSize";    // $NON-NLS-1$
+    private static final int DEFAULT_PAGE_SIZE = 10;
 
     @Nullable
-    public static AntTableStruct queryForAntTable(@Nonnull SqlSession sqlSession, @Nonnull String statementId) {
+    public static AntTableStruct<Map<String, Object>> queryForAntTable(@Nonnull SqlSession sqlSession, @Nonnull String statementId) {
         return queryForAntTable(sqlSession, statementId, null, null);
     }
 
     @Nullable
-    public static AntTableStruct queryForAntTable(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params) {
+    public static AntTableStruct<Map<String, Object>> queryForAntTable(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params) {
         return queryForAntTable(sqlSession, statementId, params, null);
     }
 
     @Nullable
-    public static AntTableStruct queryForAntTable(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable PageRowBounds bounds) {
+    public static AntTableStruct<Map<String, Object>> queryForAntTable(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable PageRowBounds bounds) {
+        return queryForAntTableWithStrategy(sqlSession, statementId, params, bounds, null);
+    }
+
+    @Nullable
+    public static AntTableStruct<Map<String, Object>> queryForAntTableWithStrategy(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable PageRowBounds bounds, @Nullable PageCountStrategy strategy) {
         if (StringUtils.isBlank(statementId)) {
             return null;
         }
-        if (bounds == null && MapPlainWraps.containsAllKeys(params, CURRENT_PAGE_PARAM, PAGE_SIZE_PARAM)) {
-            int currentPage = Math.max(1, MapPlainWraps.getInteger(params, CURRENT_PAGE_PARAM, 1));
-            int pageSize = Math.max(0, MapPlainWraps.getInteger(params, CURRENT_PAGE_PARAM, 0));
-            bounds = MybatisPageWraps.newPageRowBounds((currentPage - 1) * pageSize, pageSize, true);
+        return doQueryForAntTable(sqlSession, statementId, params, bounds, strategy);
+    }
+
+    @Nullable
+    public static <T> AntTableStruct<T> queryForAntTableTyped(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Class<T> rowType) {
+        return queryForAntTableTyped(sqlSession, statementId, null, null, rowType);
+    }
+
+    @Nullable
+    public static <T> AntTableStruct<T> queryForAntTableTyped(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable Class<T> rowType) {
+        return queryForAntTableTyped(sqlSession, statementId, params, null, rowType);
+    }
+
+    /**
+     * Returns an ant table structure, whose records are mapped straight into the objects of the row type
+     *
+     * @param sqlSession the sql session
+     * @param statementId the id of the select statement
+     * @param params the parameters map
+     * @param bounds the page row bounds
+     * @param rowType the type of the records, such as a dto class or a record class
+     *
+     * @return an ant table structure, whose records are mapped straight into the objects of the row type
+     *
+     * @see com.yookue.commonplexus.springutil.util.MybatisStatementWraps#getTypedStatementId(SqlSession, String, Class)
+     */
+    @Nullable
+    public static <T> AntTableStruct<T> queryForAntTableTyped(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable PageRowBounds bounds, @Nullable Class<T> rowType) {
+        return queryForAntTableTypedWithStrategy(sqlSession, statementId, params, bounds, rowType, null);
+    }
+
+    /**
+     * Returns an ant table structure, whose records are mapped into the row type, and whose total is counted by the strategy
+     *
+     * @param sqlSession the sql session
+     * @param statementId the id of the select statement
+     * @param params the parameters map
+     * @param bounds the page row bounds
+     * @param rowType the type of the records, {@code null} for maps
+     * @param strategy the strategy of counting the total, such as caching or concurrent counting
+     *
+     * @return an ant table structure, whose records are mapped into the row type, and whose total is counted by the strategy
+     *
+     * @see com.yookue.commonplexus.springutil.util.MybatisPageWraps#selectPageList
+     */
+    @Nullable
+    public static <T> AntTableStruct<T> queryForAntTableTypedWithStrategy(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable PageRowBounds bounds, @Nullable Class<T> rowType, @Nullable PageCountStrategy strategy) {
+        if (StringUtils.isBlank(statementId)) {
+            return null;
         }
-        AntTableStruct struct = new AntTableStruct();
-        if (bounds == null) {
-            Map<String, Object> cloneParams = new LinkedHashMap<>(params);
-            MybatisPageWraps.putPageSizeZero(cloneParams);
-            List<Map<String, Object>> resultSets = sqlSession.selectList(statementId, cloneParams);
-            struct.setRecordsDetails(resultSets);
-            struct.setRecordsTotal((long) CollectionPlainWraps.size(resultSets));
-        } else {
-            List<Map<String, Object>> resultSets = sqlSession.selectList(statementId, params, bounds);
-            struct.setRecordsDetails(resultSets);
-            struct.setRecordsTotal(bounds.getTotal());
+        return doQueryForAntTable(sqlSession, MybatisStatementWraps.getTypedStatementId(sqlSession, statementId, rowType), params, bounds, strategy);
+    }
+
+    @Nullable
+    public static AntTableStruct<Map<String, Object>> queryForAntTableByKeyset(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params) {
+        return queryForAntTableByKeyset(sqlSession, statementId, params, null);
+    }
+
+    /**
+     * Returns an ant table structure by keyset pagination, falls back to offset pagination if the seek key is absent
+     * <p>
+     * The page size is read from the {@code pageSize} param, and the continuation token of the next page is set into the structure
+     *
+     * @param sqlSession the sql session
+     * @param statementId the id of the select statement
+     * @param params the parameters map
+     * @param rowType the type of the records, {@code null} for maps
+     *
+     * @return an ant table structure by keyset pagination
+     *
+     * @see com.yookue.commonplexus.springutil.util.MybatisPageWraps#selectKeysetPage
+     */
+    @Nullable
+    public static <T> AntTableStruct<T> queryForAntTableByKeyset(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable Class<T> rowType) {
+        if (StringUtils.isBlank(statementId)) {
+            return null;
+        }
+        int pageSize = MapPlainWraps.getInteger(params, PAGE_SIZE_PARAM, DEFAULT_PAGE_SIZE);
+        KeysetPageStruct<T> page = MybatisPageWraps.selectKeysetPage(sqlSession, statementId, params, pageSize, true, rowType);
+        if (page == null) {
+            return queryForAntTableTyped(sqlSession, statementId, params, null, rowType);
         }
+        AntTableStruct<T> struct = new AntTableStruct<>();
+        struct.setRecordsDetails(page.getRecordsDetails());
+        struct.setRecordsTotal(page.getRecordsTotal());
+        struct.setContinuationToken(page.getContinuationToken());
         return struct;
     }
 
     @Nullable
-    public static AntTableStruct queryForAnyTableWithContextParameterized(@Nonnull SqlSession sqlSession, @Nonnull String statementId) {
+    public static AntTableStruct<Map<String, Object>> queryForAnyTableWithContextParameterized(@Nonnull SqlSession sqlSession, @Nonnull String statementId) {
         return queryForAnyTableWithContextParameterized(sqlSession, statementId, false, null);
     }
 
     @Nullable
-    public static AntTableStruct queryForAnyTableWithContextParameterized(@Nonnull SqlSession sqlSession, @Nonnull String statementId, boolean payloadParam) {
+    public static AntTableStruct<Map<String, Object>> queryForAnyTableWithContextParameterized(@Nonnull SqlSession sqlSession, @Nonnull String statementId, boolean payloadParam) {
         return queryForAnyTableWithContextParameterized(sqlSession, statementId, payloadParam, null);
     }
 
     @Nullable
-    public static AntTableStruct queryForAnyTableWithContextParameterized(@Nonnull SqlSession sqlSession, @Nonnull String statementId, boolean payloadParam, @Nullable UnaryOperator<Map<String, Object>> paramsAction) {
+    public static AntTableStruct<Map<String, Object>> queryForAnyTableWithContextParameterized(@Nonnull SqlSession sqlSession, @Nonnull String statementId, boolean payloadParam, @Nullable UnaryOperator<Map<String, Object>> paramsAction) {
         HttpServletRequest request = WebUtilsWraps.getContextServletRequest();
         return (request == null) ? null : queryForAntTableWithRequestParameterized(request, sqlSession, statementId, payloadParam, paramsAction);
     }
 
     @Nullable
-    public static AntTableStruct queryForAntTableWithRequestParameterized(@Nonnull HttpServletRequest request, @Nonnull SqlSession sqlSession, @Nonnull String statementId) {
+    public static AntTableStruct<Map<String, Object>> queryForAntTableWithRequestParameterized(@Nonnull HttpServletRequest request, @Nonnull SqlSession sqlSession, @Nonnull String statementId) {
         return queryForAntTableWithRequestParameterized(request, sqlSession, statementId, false, null);
     }
 
     @Nullable
-    public static AntTableStruct queryForAntTableWithRequestParameterized(@Nonnull HttpServletRequest request, @Nonnull SqlSession sqlSession, @Nonnull String statementId, boolean payloadParam) {
+    public static AntTableStruct<Map<String, Object>> queryForAntTableWithRequestParameterized(@Nonnull HttpServletRequest request, @Nonnull SqlSession sqlSession, @Nonnull String statementId, boolean payloadParam) {
         return queryForAntTableWithRequestParameterized(request, sqlSession, statementId, payloadParam, null);
     }
 
     @Nullable
-    public static AntTableStruct queryForAntTableWithRequestParameterized(@Nonnull HttpServletRequest request, @Nonnull SqlSession sqlSession, @Nonnull String statementId, boolean payloadParam, @Nullable UnaryOperator<Map<String, Object>> paramsAction) {
+    public static AntTableStruct<Map<String, Object>> queryForAntTableWithRequestParameterized(@Nonnull HttpServletRequest request, @Nonnull SqlSession sqlSession, @Nonnull String statementId, boolean payloadParam, @Nullable UnaryOperator<Map<String, Object>> paramsAction) {
         Map<String, Object> params = RequestParamWraps.getParameterObjectMap(request, true, payloadParam);
         if (paramsAction != null) {
             params = paramsAction.apply(params);
         }
         return queryForAntTable(sqlSession, statementId, params, null);
     }
+
+    @Nonnull
+    private static <T> AntTableStruct<T> doQueryForAntTable(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable PageRowBounds bounds, @Nullable PageCountStrategy strategy) {
+        if (bounds == null && MapPlainWraps.containsAllKeys(params, CURRENT_PAGE_PARAM, PAGE_SIZE_PARAM)) {
+            int currentPage = Math.max(1, MapPlainWraps.getInteger(params, CURRENT_PAGE_PARAM, 1));
+            int pageSize = Math.max(0, MapPlainWraps.getInteger(params, PAGE_SIZE_PARAM, 0));
+            bounds = MybatisPageWraps.newPageRowBounds((currentPage - 1) * pageSize, pageSize, true);
+        }
+        AntTableStruct<T> struct = new AntTableStruct<>();
+        if (bounds == null) {
+            Map<String, Object> cloneParams = new LinkedHashMap<>(params);
+            MybatisPageWraps.putPageSizeZero(cloneParams);
+            List<T> resultSets = sqlSession.selectList(statementId, cloneParams);
+            struct.setRecordsDetails(resultSets);
+            struct.setRecordsTotal((long) CollectionPlainWraps.size(resultSets));
+        } else {
+            List<T> resultSets = MybatisPageWraps.selectPageList(sqlSession, statementId, params, bounds, strategy);
+            struct.setRecordsDetails(resultSets);
+            struct.setRecordsTotal(bounds.getTotal());
+        }
+        return struct;
+    }
 }
@@ -17,10 +17,19 @@
 package com.yookue.commonplexus.springutil.util;
 
 
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
+import com.yookue.commonplexus.springutil.cglib.BeanCopierConverter;
 import com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier;
+import com.yookue.commonplexus.springutil.cglib.EnhancedBulkCopier;
+import com.yookue.commonplexus.springutil.cglib.EnhancedDeepCopier;
+import com.yookue.commonplexus.springutil.cglib.PrimitivePassingConverter;
 
 
 /**
@@ -31,6 +40,20 @@ import com.yookue.commonplexus.springutil.cglib.EnhancedBeanCopier;
  */
 @SuppressWarnings({"unused", "BooleanMethodIsAlwaysInverted", "UnusedReturnValue"})
 public abstract class BeanCopierWraps {
+    private static final BeanCopierConverter NOT_NULL_CONVERTER = new PrimitivePassingConverter() {
+        @Override
+        public Object convert(@Nullable Object sourceValue, @Nonnull Class<?> targetType, @Nonnull Object targetSetter, @Nonnull String targetName, @Nullable Object targetValue) {
+            return sourceValue != null ? sourceValue : targetValue;
+        }
+    };
+
+    private static final BeanCopierConverter NOT_EMPTY_CONVERTER = new PrimitivePassingConverter() {
+        @Override
+        public Object convert(@Nullable Object sourceValue, @Nonnull Class<?> targetType, @Nonnull Object targetSetter, @Nonnull String targetName, @Nullable Object targetValue) {
+            return ObjectUtils.isEmpty(sourceValue) ? targetValue : sourceValue;
+        }
+    };
+
     /**
      * Copy properties from the {@code source} to the {@code target}, ignored the source properties which is null
      *
@@ -42,7 +65,7 @@ public abstract class BeanCopierWraps {
             return;
         }
         EnhancedBeanCopier copier = EnhancedBeanCopier.create(source.getClass(), target.getClass(), true);
-        copier.copy(source, target, (sourceValue, targetType, targetSetter, targetName, targetValue) -> sourceValue != null ? sourceValue : targetValue);
+        copier.copy(source, target, NOT_NULL_CONVERTER);
     }
 
     /**
@@ -56,7 +79,7 @@ public abstract class BeanCopierWraps {
             return;
         }
         EnhancedBeanCopier copier = EnhancedBeanCopier.create(source.getClass(), target.getClass(), true);
-        copier.copy(source, target, (sourceValue, targetType, targetSetter, targetName, targetValue) -> ObjectUtils.isEmpty(sourceValue) ? targetValue : sourceValue);
+        copier.copy(source, target, NOT_EMPTY_CONVERTER);
     }
 
     /**
@@ -72,4 +95,99 @@ public abstract class BeanCopierWraps {
         EnhancedBeanCopier copier = EnhancedBeanCopier.create(source.getClass(), target.getClass(), true);
         copier.copy(source, target, (sourceValue, targetType, targetSetter, targetName, targetValue) -> (sourceValue instanceof String alias && StringUtils.hasText(alias)) ? sourceValue : targetValue);
     }
+
+    /**
+     * Returns a list of new targets that copied from the sources, with the copier resolved only once
+     *
+     * @param sources the source objects to read properties from
+     * @param targetFactory the factory to create the targets, usually a constructor reference
+     *
+     * @return a list of new targets that copied from the sources
+     */
+    @Nonnull
+    public static <T> List<T> copyAll(@Nullable Collection<?> sources, @Nonnull Supplier<? extends T> targetFactory) {
+        return new EnhancedBulkCopier<T>(targetFactory, null).copyAll(sources);
+    }
+
+    /**
+     * Returns a list of new targets that copied from the sources, with the copier resolved only once
+     *
+     * @param sources the source objects to read properties from
+     * @param targetType the target class, which is instantiated by the generated constructor call
+     *
+     * @return a list of new targets that copied from the sources
+     */
+    @Nonnull
+    public static <T> List<T> copyAll(@Nullable Collection<?> sources, @Nonnull Class<T> targetType) {
+        return copyAll(sources, targetType, false);
+    }
+
+    /**
+     * Returns a list of new targets that copied from the sources, with the copier resolved only once
+     *
+     * @param sources the source objects to read properties from
+     * @param targetType the target class, which is instantiated by the generated constructor call
+     * @param parallel whether to copy in chunks by the common fork join pool, when the size reaches {@link com.yookue.commonplexus.springutil.cglib.EnhancedBulkCopier#DEFAULT_PARALLEL_THRESHOLD}
+     *
+     * @return a list of new targets that copied from the sources
+     */
+    @Nonnull
+    public static <T> List<T> copyAll(@Nullable Collection<?> sources, @Nonnull Class<T> targetType, boolean parallel) {
+        return new EnhancedBulkCopier<>(targetType, null).copyAll(sources, parallel);
+    }
+
+    /**
+     * Returns a stream of new targets that copied from the sources, with the copier resolved only once
+     *
+     * @param sources the source objects to read properties from
+     * @param targetType the target class, which is instantiated by the generated constructor call
+     *
+     * @return a stream of new targets that copied from the sources
+     */
+    @Nonnull
+    public static <T> Stream<T> copyAll(@Nullable Stream<?> sources, @Nonnull Class<T> targetType) {
+        return new EnhancedBulkCopier<>(targetType, null).copyAll(sources);
+    }
+
+    /**
+     * Returns a deep copy of the source object, with the same class
+     * <p>
+     * The nested beans, collections, maps and arrays are copied recursively by the generated copiers, and the cycles are kept.
+     * A nested value that cannot be instantiated by its own class fails the copy, instead of being shared or converted silently
+     *
+     * @param source the source object
+     *
+     * @return a deep copy of the source object, with the same class
+     */
+    @Nullable
+    public static <T> T deepCopy(@Nullable T source) {
+        return EnhancedDeepCopier.deepCopy(source);
+    }
+
+    /**
+     * Returns a deep copy of the source object, as an instance of the target class
+     *
+     * @param source the source object
+     * @param targetType the target class
+     *
+     * @return a deep copy of the source object, as an instance of the target class
+     */
+    @Nullable
+    public static <T> T deepCopy(@Nullable Object source, @Nonnull Class<T> targetType) {
+        return EnhancedDeepCopier.deepCopy(source, targetType);
+    }
+
+    /**
+     * Returns a deep copy of the source object, as an instance of the target class
+     *
+     * @param source the source object
+     * @param targetType the target class
+     * @param sharedTypes the types that are immutable and shared by reference, including their subtypes
+     *
+     * @return a deep copy of the source object, as an instance of the target class
+     */
+    @Nullable
+    public static <T> T deepCopy(@Nullable Object source, @Nonnull Class<T> targetType, @Nullable Collection<Class<?>> sharedTypes) {
+        return EnhancedDeepCopier.deepCopy(source, targetType, sharedTypes);
+    }
 }
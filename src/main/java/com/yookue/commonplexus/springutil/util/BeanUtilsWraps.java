@@ -17,29 +17,24 @@
 package com.yookue.commonplexus.springutil.util;
 
 
-import java.beans.PropertyDescriptor;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.Set;
 import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
-import org.springframework.beans.FatalBeanException;
-import org.springframework.cglib.beans.BeanMap;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 import com.yookue.commonplexus.javaseutil.util.ArrayUtilsWraps;
-import com.yookue.commonplexus.javaseutil.util.CollectionPlainWraps;
-import com.yookue.commonplexus.javaseutil.util.MapPlainWraps;
 import com.yookue.commonplexus.javaseutil.util.PropertyPlainWraps;
+import com.yookue.commonplexus.springutil.cglib.BeanMapSpec;
+import com.yookue.commonplexus.springutil.cglib.CopySpec;
+import com.yookue.commonplexus.springutil.cglib.PropertyWriterTable;
 
 
 /**
@@ -65,17 +60,33 @@ public abstract class BeanUtilsWraps {
         if (source == null || target == null || (!exclude && CollectionUtils.isEmpty(fields))) {
             return;
         }
-        String[] ignored;
-        if (exclude) {
-            ignored = (fields == null) ? null : fields.toArray(ArrayUtils.EMPTY_STRING_ARRAY);
-        } else {
-            Set<String> nested = ReflectionUtilsWraps.getNestedFieldNamesToSet(target.getClass());
-            if (CollectionUtils.isEmpty(nested)) {
-                return;
-            }
-            ignored = nested.stream().filter(element -> !CollectionPlainWraps.containsString(fields, element)).toArray(String[]::new);
+        CopySpec.of(source.getClass(), target.getClass(), exclude, fields).copy(source, target);
+    }
+
+    public static void copyPropertiesConverting(@Nullable Object source, @Nullable Object target, boolean exclude, @Nullable String... fields) throws BeansException {
+        copyPropertiesConverting(source, target, exclude, ArrayUtilsWraps.asList(fields));
+    }
+
+    /**
+     * Copy the properties from the source to the target, including the properties that need widening, boxing, enum or date conversions
+     * <p>
+     * Unlike {@link #copyProperties(Object, Object, boolean, Collection)}, the property types do not have to be assignable,
+     * the conversions are compiled into the generated copier, and the other mismatched properties are skipped
+     *
+     * @param source the source object
+     * @param target the target object
+     * @param exclude whether the fields are excluded or included
+     * @param fields the field names to exclude or include
+     *
+     * @throws BeansException if copying failed
+     * @see com.yookue.commonplexus.springutil.cglib.CopySpec#ofConverting(Class, Class, boolean, Collection)
+     */
+    @SuppressWarnings({"DataFlowIssue", "RedundantSuppression"})
+    public static void copyPropertiesConverting(@Nullable Object source, @Nullable Object target, boolean exclude, @Nullable Collection<String> fields) throws BeansException {
+        if (source == null || target == null || (!exclude && CollectionUtils.isEmpty(fields))) {
+            return;
         }
-        BeanUtils.copyProperties(source, target, ignored);
+        CopySpec.ofConverting(source.getClass(), target.getClass(), exclude, fields).copy(source, target);
     }
 
     @SuppressWarnings({"DataFlowIssue", "RedundantSuppression"})
@@ -114,57 +125,117 @@ public abstract class BeanUtilsWraps {
         return beanToMap(bean, true, excludes);
     }
 
+    /**
+     * Returns a map that copied from the properties of the bean, honoring the mode of the fields
+     * <p>
+     * This overload used to ignore {@code exclude} and always exclude the fields, it now includes them if {@code exclude} is false
+     *
+     * @param bean the bean to read properties from
+     * @param exclude whether the fields are excluded or included
+     * @param fields the field names to exclude or include
+     *
+     * @return a map that copied from the properties of the bean
+     */
     @Nullable
     public static Map<String, ?> beanToMap(@Nullable Object bean, boolean exclude, @Nullable String... fields) {
-        return beanToMap(bean, true, ArrayUtilsWraps.asList(fields));
+        return beanToMap(bean, exclude, ArrayUtilsWraps.asList(fields));
     }
 
     @Nullable
     public static Map<String, ?> beanToMap(@Nullable Object bean, boolean exclude, @Nullable Collection<String> fields) {
-        if (bean == null || (!exclude && CollectionUtils.isEmpty(fields))) {
-            return null;
-        }
-        BeanMap map = BeanMap.create(bean);
-        if (map == null || map.isEmpty()) {
-            return null;
-        }
-        Map<String, Object> result = new LinkedHashMap<>(MapPlainWraps.size(map));
-        for (Object key : map.keySet()) {
-            String name = ObjectUtils.getDisplayString(key);
-            if ((exclude && !CollectionPlainWraps.containsString(fields, name)) || (!exclude && CollectionPlainWraps.containsString(fields, name))) {
-                result.put(name, map.get(key));
-            }
-        }
-        return CollectionUtils.isEmpty(result) ? null : result;
+        BeanMapSpec spec = resolveBeanMapSpec(bean, exclude, fields);
+        return (spec == null) ? null : spec.toMap(bean);
     }
 
+    /**
+     * Returns a read-only live map view of the bean, which reads through the generated getters without intermediate maps
+     *
+     * @param bean the bean to read properties from
+     *
+     * @return a read-only live map view of the bean
+     */
+    @Nullable
+    public static Map<String, ?> beanToMapView(@Nullable Object bean) {
+        return beanToMapView(bean, true, Collections.emptyList());
+    }
+
+    @Nullable
+    public static Map<String, ?> beanToMapView(@Nullable Object bean, @Nullable Collection<String> excludes) {
+        return beanToMapView(bean, true, excludes);
+    }
+
+    @Nullable
+    public static Map<String, ?> beanToMapView(@Nullable Object bean, boolean exclude, @Nullable String... fields) {
+        return beanToMapView(bean, exclude, ArrayUtilsWraps.asList(fields));
+    }
+
+    @Nullable
+    public static Map<String, ?> beanToMapView(@Nullable Object bean, boolean exclude, @Nullable Collection<String> fields) {
+        BeanMapSpec spec = resolveBeanMapSpec(bean, exclude, fields);
+        return (spec == null) ? null : spec.asMap(bean);
+    }
+
+    /**
+     * Returns the properties that read from the live map view of the bean, without an intermediate map
+     * <p>
+     * The properties used to be copied from {@link #beanToMap(Object)}, and are now filled directly from {@link #beanToMapView(Object)}.
+     * The values are read from the bean at the time of the call, so the returned properties are still a snapshot and do not follow later changes of the bean,
+     * but a getter that fails now fails while filling the properties, rather than while building the intermediate map
+     *
+     * @param bean the bean to read properties from
+     *
+     * @return the properties that read from the live map view of the bean
+     */
     @Nullable
     public static Properties beanToProperties(@Nullable Object bean) {
-        return PropertyPlainWraps.fromMap(beanToMap(bean));
+        return PropertyPlainWraps.fromMap(beanToMapView(bean));
     }
 
     @Nullable
     public static Properties beanToProperties(@Nullable Object bean, @Nullable Collection<String> excludes) {
-        return PropertyPlainWraps.fromMap(beanToMap(bean, excludes));
+        return PropertyPlainWraps.fromMap(beanToMapView(bean, excludes));
     }
 
     @Nullable
     public static Properties beanToProperties(@Nullable Object bean, boolean exclude, @Nullable String... fields) {
-        return PropertyPlainWraps.fromMap(beanToMap(bean, exclude, fields));
+        return PropertyPlainWraps.fromMap(beanToMapView(bean, exclude, fields));
     }
 
     @Nullable
     public static Properties beanToProperties(@Nullable Object bean, boolean exclude, @Nullable Collection<String> fields) {
-        return PropertyPlainWraps.fromMap(beanToMap(bean, exclude, fields));
+        return PropertyPlainWraps.fromMap(beanToMapView(bean, exclude, fields));
+    }
+
+    @Nullable
+    private static BeanMapSpec resolveBeanMapSpec(@Nullable Object bean, boolean exclude, @Nullable Collection<String> fields) {
+        if (bean == null || (!exclude && CollectionUtils.isEmpty(fields))) {
+            return null;
+        }
+        BeanMapSpec spec = BeanMapSpec.of(bean.getClass(), exclude, fields);
+        return spec.isEmpty() ? null : spec;
     }
 
     public static void mapToBean(@Nullable Map<?, ?> map, @Nullable Object bean) throws BeansException {
         if (map == null || bean == null || map.isEmpty()) {
             return;
         }
-        for (Map.Entry<?, ?> entry : map.entrySet()) {
-            setProperty(bean, ObjectUtils.getDisplayString(entry.getKey()), entry.getValue());
+        PropertyWriterTable.of(bean.getClass()).writeAll(map, bean);
+    }
+
+    /**
+     * Returns a list of new beans that are populated from the rows, the property writers of the class are resolved only once
+     *
+     * @param rows the maps that contain property names and values
+     * @param clazz the bean class
+     *
+     * @return a list of new beans that are populated from the rows
+     */
+    @Nullable
+    public static <T> List<T> mapsToBeans(@Nullable Collection<? extends Map<?, ?>> rows, @Nullable Class<T> clazz) throws BeansException {
+        if (CollectionUtils.isEmpty(rows) || clazz == null) {
+            return null;
         }
+        return PropertyWriterTable.of(clazz).createAll(rows);
     }
 
     public static void mapToBeanQuietly(@Nullable Map<String, ?> map, @Nullable Object bean) {
@@ -218,23 +289,7 @@ public abstract class BeanUtilsWraps {
         if (bean == null || !StringUtils.hasText(property)) {
             return false;
         }
-        PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(bean.getClass(), property);
-        if (descriptor == null) {
-            return false;
-        }
-        Method writeMethod = descriptor.getWriteMethod();
-        if (writeMethod == null) {
-            return false;
-        }
-        try {
-            if (!Modifier.isPublic(writeMethod.getDeclaringClass().getModifiers())) {
-                writeMethod.setAccessible(true);
-            }
-            writeMethod.invoke(bean, value);
-            return true;
-        } catch (Exception ex) {
-            throw new FatalBeanException("Could not copy property '" + property + "' from source to target", ex);
-        }
+        return PropertyWriterTable.of(bean.getClass()).write(bean, property, value);
     }
 
     public static boolean setPropertyQuietly(@Nullable Object bean, @Nullable String property, @Nullable Object value) {
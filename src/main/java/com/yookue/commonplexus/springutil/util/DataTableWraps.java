@@ -17,6 +17,10 @@
 package com.yookue.commonplexus.springutil.util;
 
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,16 +30,27 @@ import java.util.regex.Pattern;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.session.SqlSession;
+import org.springframework.beans.BeanUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.util.CollectionUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.pagehelper.PageRowBounds;
 import com.yookue.commonplexus.javaseutil.constant.SymbolVariantConst;
 import com.yookue.commonplexus.javaseutil.util.CollectionPlainWraps;
 import com.yookue.commonplexus.javaseutil.util.MapPlainWraps;
 import com.yookue.commonplexus.javaseutil.util.RegexUtilsWraps;
+import com.yookue.commonplexus.springutil.cglib.BeanMapSpec;
+import com.yookue.commonplexus.springutil.enumeration.TableExportFormat;
 import com.yookue.commonplexus.springutil.structure.DataTableStruct;
+import com.yookue.commonplexus.springutil.structure.KeysetPageStruct;
+import com.yookue.commonplexus.springutil.support.PageCountStrategy;
+import com.yookue.commonplexus.springutil.support.TableExportResultHandler;
 
 
 /**
@@ -52,6 +67,7 @@ public abstract class DataTableWraps {
     private static final String START_PARAM = "start";    // $NON-NLS-1$
     private static final String LENGTH_PARAM = "length";    // $NON-NLS-1$
     private static final String SORT_ORDER = "_sort_order_";    // $NON-NLS-1$
+    private static final int DEFAULT_LENGTH = 10;
     private static final String SORT_ASC = "asc";    // $NON-NLS-1$
     private static final String SORT_DESC = "desc";    // $NON-NLS-1$
 
@@ -99,126 +115,312 @@ public abstract class DataTableWraps {
     }
 
     @Nonnull
-    public static DataTableStruct newDataTableWithContext() {
+    public static DataTableStruct<Map<String, Object>> newDataTableWithContext() {
         return newDataTableWithRequest(WebUtilsWraps.getContextServletRequest());
     }
 
     @Nonnull
     @SuppressWarnings("DataFlowIssue")
-    public static DataTableStruct newDataTableWithRequest(@Nullable HttpServletRequest request) {
-        DataTableStruct struct = new DataTableStruct();
+    public static DataTableStruct<Map<String, Object>> newDataTableWithRequest(@Nullable HttpServletRequest request) {
+        DataTableStruct<Map<String, Object>> struct = new DataTableStruct<>();
         struct.setDrawTimes(Math.max(0, RequestParamWraps.getIntegerParameter(request, DRAW_PARAM, 0)));
         return struct;
     }
 
     @Nullable
-    public static DataTableStruct queryForDataTable(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Integer drawTimes) {
+    public static DataTableStruct<Map<String, Object>> queryForDataTable(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Integer drawTimes) {
         return queryForDataTable(sqlSession, statementId, null, null, drawTimes);
     }
 
     @Nullable
-    public static DataTableStruct queryForDataTable(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable Integer drawTimes) {
+    public static DataTableStruct<Map<String, Object>> queryForDataTable(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable Integer drawTimes) {
         return queryForDataTable(sqlSession, statementId, params, null, drawTimes);
     }
 
     @Nullable
-    public static DataTableStruct queryForDataTable(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable PageRowBounds bounds, @Nullable Integer drawTimes) {
+    public static DataTableStruct<Map<String, Object>> queryForDataTable(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable PageRowBounds bounds, @Nullable Integer drawTimes) {
+        return queryForDataTableWithStrategy(sqlSession, statementId, params, bounds, drawTimes, null);
+    }
+
+    @Nullable
+    public static DataTableStruct<Map<String, Object>> queryForDataTableWithStrategy(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable PageRowBounds bounds, @Nullable Integer drawTimes, @Nullable PageCountStrategy strategy) {
         if (StringUtils.isBlank(statementId)) {
             return null;
         }
-        String orderDir = getOrderDirAsString(params);
-        if (params != null && StringUtils.isNotBlank(orderDir)) {
-            params.put(SORT_ORDER, orderDir);
-        }
-        DataTableStruct struct = new DataTableStruct();
-        struct.setDrawTimes(ObjectUtils.defaultIfNull(drawTimes, 0));
-        if (bounds == null && MapPlainWraps.containsAllKeys(params, START_PARAM, LENGTH_PARAM)) {
-            bounds = MybatisPageWraps.getPageRowBounds(params, START_PARAM, LENGTH_PARAM, true);
-        }
-        if (bounds == null) {
-            Map<String, Object> cloneParams = new LinkedHashMap<>(params);
-            MybatisPageWraps.putPageSizeZero(cloneParams);
-            List<Map<String, Object>> resultSets = sqlSession.selectList(statementId, cloneParams);
-            struct.setRecordsDetails(resultSets);
-            int resultSize = CollectionPlainWraps.size(resultSets);
-            struct.setRecordsDisplay(resultSize);
-            struct.setRecordsTotal((long) resultSize);
-            struct.setRecordsFiltered((long) resultSize);
-        } else {
-            List<Map<String, Object>> resultSets = sqlSession.selectList(statementId, params, bounds);
-            struct.setRecordsDetails(resultSets);
-            struct.setRecordsDisplay(CollectionPlainWraps.size(resultSets));
-            struct.setRecordsTotal(bounds.getTotal());
-            struct.setRecordsFiltered(bounds.getTotal());
+        return doQueryForDataTable(sqlSession, statementId, params, bounds, drawTimes, strategy);
+    }
+
+    @Nullable
+    public static <T> DataTableStruct<T> queryForDataTableTyped(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Integer drawTimes, @Nullable Class<T> rowType) {
+        return queryForDataTableTyped(sqlSession, statementId, null, null, drawTimes, rowType);
+    }
+
+    @Nullable
+    public static <T> DataTableStruct<T> queryForDataTableTyped(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable Integer drawTimes, @Nullable Class<T> rowType) {
+        return queryForDataTableTyped(sqlSession, statementId, params, null, drawTimes, rowType);
+    }
+
+    /**
+     * Returns a data table structure, whose records are mapped straight into the objects of the row type
+     *
+     * @param sqlSession the sql session
+     * @param statementId the id of the select statement
+     * @param params the parameters map
+     * @param bounds the page row bounds
+     * @param drawTimes the draw times of the request
+     * @param rowType the type of the records, such as a dto class or a record class
+     *
+     * @return a data table structure, whose records are mapped straight into the objects of the row type
+     *
+     * @see com.yookue.commonplexus.springutil.util.MybatisStatementWraps#getTypedStatementId(SqlSession, String, Class)
+     */
+    @Nullable
+    public static <T> DataTableStruct<T> queryForDataTableTyped(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable PageRowBounds bounds, @Nullable Integer drawTimes, @Nullable Class<T> rowType) {
+        return queryForDataTableTypedWithStrategy(sqlSession, statementId, params, bounds, drawTimes, rowType, null);
+    }
+
+    /**
+     * Returns a data table structure, whose records are mapped into the row type, and whose total is counted by the strategy
+     *
+     * @param sqlSession the sql session
+     * @param statementId the id of the select statement
+     * @param params the parameters map
+     * @param bounds the page row bounds
+     * @param drawTimes the draw times of the request
+     * @param rowType the type of the records, {@code null} for maps
+     * @param strategy the strategy of counting the total, such as caching or concurrent counting
+     *
+     * @return a data table structure, whose records are mapped into the row type, and whose total is counted by the strategy
+     *
+     * @see com.yookue.commonplexus.springutil.util.MybatisPageWraps#selectPageList
+     */
+    @Nullable
+    public static <T> DataTableStruct<T> queryForDataTableTypedWithStrategy(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable PageRowBounds bounds, @Nullable Integer drawTimes, @Nullable Class<T> rowType, @Nullable PageCountStrategy strategy) {
+        if (StringUtils.isBlank(statementId)) {
+            return null;
         }
-        return struct;
+        return doQueryForDataTable(sqlSession, MybatisStatementWraps.getTypedStatementId(sqlSession, statementId, rowType), params, bounds, drawTimes, strategy);
     }
 
     @Nullable
-    public static DataTableStruct queryForDataTableWithContext(@Nonnull SqlSession sqlSession, @Nonnull String statementId) {
+    public static DataTableStruct<Map<String, Object>> queryForDataTableWithContext(@Nonnull SqlSession sqlSession, @Nonnull String statementId) {
         return queryForDataTableWithContext(sqlSession, statementId, null, null);
     }
 
     @Nullable
-    public static DataTableStruct queryForDataTableWithContext(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params) {
+    public static DataTableStruct<Map<String, Object>> queryForDataTableWithContext(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params) {
         return queryForDataTableWithContext(sqlSession, statementId, params, null);
     }
 
     @Nullable
-    public static DataTableStruct queryForDataTableWithContext(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable PageRowBounds bounds) {
+    public static DataTableStruct<Map<String, Object>> queryForDataTableWithContext(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable PageRowBounds bounds) {
         HttpServletRequest request = WebUtilsWraps.getContextServletRequest();
         return (request == null) ? null : queryForDataTableWithRequest(request, sqlSession, statementId, params, bounds);
     }
 
     @Nullable
-    public static DataTableStruct queryForDataTableWithContextParameterized(@Nonnull SqlSession sqlSession, @Nonnull String statementId) {
+    public static DataTableStruct<Map<String, Object>> queryForDataTableWithContextParameterized(@Nonnull SqlSession sqlSession, @Nonnull String statementId) {
         return queryForDataTableWithContextParameterized(sqlSession, statementId, false, null);
     }
 
     @Nullable
-    public static DataTableStruct queryForDataTableWithContextParameterized(@Nonnull SqlSession sqlSession, @Nonnull String statementId, boolean payloadParam) {
+    public static DataTableStruct<Map<String, Object>> queryForDataTableWithContextParameterized(@Nonnull SqlSession sqlSession, @Nonnull String statementId, boolean payloadParam) {
         return queryForDataTableWithContextParameterized(sqlSession, statementId, payloadParam, null);
     }
 
     @Nullable
-    public static DataTableStruct queryForDataTableWithContextParameterized(@Nonnull SqlSession sqlSession, @Nonnull String statementId, boolean payloadParam, @Nullable UnaryOperator<Map<String, Object>> paramsAction) {
+    public static DataTableStruct<Map<String, Object>> queryForDataTableWithContextParameterized(@Nonnull SqlSession sqlSession, @Nonnull String statementId, boolean payloadParam, @Nullable UnaryOperator<Map<String, Object>> paramsAction) {
         HttpServletRequest request = WebUtilsWraps.getContextServletRequest();
         return (request == null) ? null : queryForDataTableWithRequestParameterized(request, sqlSession, statementId, payloadParam, paramsAction);
     }
 
     @Nullable
-    public static DataTableStruct queryForDataTableWithRequest(@Nonnull HttpServletRequest request, @Nonnull SqlSession sqlSession, @Nonnull String statementId) {
+    public static DataTableStruct<Map<String, Object>> queryForDataTableWithRequest(@Nonnull HttpServletRequest request, @Nonnull SqlSession sqlSession, @Nonnull String statementId) {
         return queryForDataTableWithRequest(request, sqlSession, statementId, null, null);
     }
 
     @Nullable
-    public static DataTableStruct queryForDataTableWithRequest(@Nonnull HttpServletRequest request, @Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params) {
+    public static DataTableStruct<Map<String, Object>> queryForDataTableWithRequest(@Nonnull HttpServletRequest request, @Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params) {
         return queryForDataTableWithRequest(request, sqlSession, statementId, params, null);
     }
 
     @Nullable
     @SuppressWarnings("DataFlowIssue")
-    public static DataTableStruct queryForDataTableWithRequest(@Nonnull HttpServletRequest request, @Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable PageRowBounds bounds) {
+    public static DataTableStruct<Map<String, Object>> queryForDataTableWithRequest(@Nonnull HttpServletRequest request, @Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable PageRowBounds bounds) {
         int drawTimes = Math.max(0, RequestParamWraps.getIntegerParameter(request, DRAW_PARAM, 0));
         return queryForDataTable(sqlSession, statementId, params, bounds, drawTimes);
     }
 
     @Nullable
-    public static DataTableStruct queryForDataTableWithRequestParameterized(@Nonnull HttpServletRequest request, @Nonnull SqlSession sqlSession, @Nonnull String statementId) {
+    public static DataTableStruct<Map<String, Object>> queryForDataTableWithRequestParameterized(@Nonnull HttpServletRequest request, @Nonnull SqlSession sqlSession, @Nonnull String statementId) {
         return queryForDataTableWithRequestParameterized(request, sqlSession, statementId, false, null);
     }
 
     @Nullable
-    public static DataTableStruct queryForDataTableWithRequestParameterized(@Nonnull HttpServletRequest request, @Nonnull SqlSession sqlSession, @Nonnull String statementId, boolean payloadParam) {
+    public static DataTableStruct<Map<String, Object>> queryForDataTableWithRequestParameterized(@Nonnull HttpServletRequest request, @Nonnull SqlSession sqlSession, @Nonnull String statementId, boolean payloadParam) {
         return queryForDataTableWithRequestParameterized(request, sqlSession, statementId, false, null);
     }
 
     @Nullable
-    public static DataTableStruct queryForDataTableWithRequestParameterized(@Nonnull HttpServletRequest request, @Nonnull SqlSession sqlSession, @Nonnull String statementId, boolean payloadParam, @Nullable UnaryOperator<Map<String, Object>> paramsAction) {
+    public static DataTableStruct<Map<String, Object>> queryForDataTableWithRequestParameterized(@Nonnull HttpServletRequest request, @Nonnull SqlSession sqlSession, @Nonnull String statementId, boolean payloadParam, @Nullable UnaryOperator<Map<String, Object>> paramsAction) {
         Map<String, Object> params = RequestParamWraps.getParameterObjectMap(request, true, payloadParam);
         if (paramsAction != null) {
             params = paramsAction.apply(params);
         }
         return queryForDataTableWithRequest(request, sqlSession, statementId, params, null);
     }
+
+    @Nullable
+    public static DataTableStruct<Map<String, Object>> queryForDataTableByKeyset(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable Integer drawTimes) {
+        return queryForDataTableByKeyset(sqlSession, statementId, params, drawTimes, null);
+    }
+
+    /**
+     * Returns a data table structure by keyset pagination, falls back to offset pagination if the seek key is absent
+     * <p>
+     * The page size is read from the {@code length} param, and the continuation token of the next page is set into the structure
+     *
+     * @param sqlSession the sql session
+     * @param statementId the id of the select statement
+     * @param params the parameters map
+     * @param drawTimes the draw times of the request
+     * @param rowType the type of the records, {@code null} for maps
+     *
+     * @return a data table structure by keyset pagination
+     *
+     * @see com.yookue.commonplexus.springutil.util.MybatisPageWraps#selectKeysetPage
+     */
+    @Nullable
+    public static <T> DataTableStruct<T> queryForDataTableByKeyset(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable Integer drawTimes, @Nullable Class<T> rowType) {
+        if (StringUtils.isBlank(statementId)) {
+            return null;
+        }
+        int pageSize = MapPlainWraps.getInteger(params, LENGTH_PARAM, DEFAULT_LENGTH);
+        KeysetPageStruct<T> page = MybatisPageWraps.selectKeysetPage(sqlSession, statementId, params, pageSize, true, rowType);
+        if (page == null) {
+            return queryForDataTableTyped(sqlSession, statementId, params, null, drawTimes, rowType);
+        }
+        DataTableStruct<T> struct = new DataTableStruct<>();
+        struct.setDrawTimes(ObjectUtils.defaultIfNull(drawTimes, 0));
+        struct.setRecordsDetails(page.getRecordsDetails());
+        struct.setRecordsDisplay(CollectionPlainWraps.size(page.getRecordsDetails()));
+        struct.setRecordsTotal(page.getRecordsTotal());
+        struct.setRecordsFiltered(page.getRecordsTotal());
+        struct.setContinuationToken(page.getContinuationToken());
+        return struct;
+    }
+
+    public static long exportDataTable(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nonnull TableExportFormat format, @Nonnull ObjectMapper mapper, @Nonnull OutputStream output) throws IOException {
+        return exportDataTable(sqlSession, statementId, params, null, format, mapper, output);
+    }
+
+    /**
+     * Write all the rows of the statement to the output stream, without loading them into memory
+     * <p>
+     * The rows are streamed by a {@link org.apache.ibatis.session.ResultHandler}, no paging or count query is applied.
+     * If the statement has no {@code fetchSize}, a streaming one is applied, since some jdbc drivers fetch the whole result set otherwise.
+     * The header of the {@code CSV} format is the properties of the row type, or the columns described by the jdbc driver for maps
+     *
+     * @param sqlSession the sql session
+     * @param statementId the id of the select statement
+     * @param params the parameters map
+     * @param rowType the type of the rows, {@code null} for maps
+     * @param format the format of the output
+     * @param mapper the object mapper to serialize the rows for json formats
+     * @param output the output stream to write rows to
+     *
+     * @return the count of the rows that have been written
+     *
+     * @throws IOException if writing failed
+     * @see com.yookue.commonplexus.springutil.support.TableExportResultHandler
+     */
+    public static long exportDataTable(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable Class<?> rowType, @Nonnull TableExportFormat format, @Nonnull ObjectMapper mapper, @Nonnull OutputStream output) throws IOException {
+        if (StringUtils.isBlank(statementId)) {
+            return 0L;
+        }
+        Map<String, Object> cloneParams = (params == null) ? new LinkedHashMap<>() : new LinkedHashMap<>(params);
+        String orderDir = getOrderDirAsString(cloneParams);
+        if (StringUtils.isNotBlank(orderDir)) {
+            cloneParams.put(SORT_ORDER, orderDir);
+        }
+        MybatisPageWraps.putPageSizeZero(cloneParams);
+        int drawTimes = Math.max(0, MapPlainWraps.getInteger(cloneParams, DRAW_PARAM, 0));
+        String streamingId = MybatisStatementWraps.getStreamingStatementId(sqlSession, statementId, rowType);
+        try (TableExportResultHandler handler = new TableExportResultHandler(format, output, mapper, drawTimes)) {
+            if (format == TableExportFormat.CSV) {
+                handler.setColumns(resolveExportColumns(sqlSession, streamingId, cloneParams));
+            }
+            handler.start();
+            try {
+                sqlSession.select(streamingId, cloneParams, handler);
+            } catch (RuntimeException ex) {
+                UncheckedIOException cause = ExceptionUtils.throwableOfType(ex, UncheckedIOException.class);
+                if (cause != null) {
+                    throw cause.getCause();
+                }
+                throw ex;
+            }
+            handler.finish();
+            return handler.getRowCount();
+        }
+    }
+
+    public static long exportDataTableWithResponse(@Nonnull HttpServletResponse response, @Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nonnull TableExportFormat format, @Nonnull ObjectMapper mapper, @Nullable String filename) throws IOException {
+        return exportDataTableWithResponse(response, sqlSession, statementId, params, null, format, mapper, filename);
+    }
+
+    /**
+     * Write all the rows of the statement to the servlet response as an attachment, without loading them into memory
+     *
+     * @see #exportDataTable(SqlSession, String, Map, Class, TableExportFormat, ObjectMapper, OutputStream)
+     */
+    public static long exportDataTableWithResponse(@Nonnull HttpServletResponse response, @Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable Class<?> rowType, @Nonnull TableExportFormat format, @Nonnull ObjectMapper mapper, @Nullable String filename) throws IOException {
+        response.setContentType(format.getValue().toString());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        String disposition = WebUtilsWraps.attachDispositionFilename(filename);
+        if (StringUtils.isNotBlank(disposition)) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition);
+        }
+        return exportDataTable(sqlSession, statementId, params, rowType, format, mapper, response.getOutputStream());
+    }
+
+    @Nullable
+    private static String[] resolveExportColumns(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nonnull Map<String, Object> params) {
+        List<ResultMap> resultMaps = sqlSession.getConfiguration().getMappedStatement(statementId).getResultMaps();
+        Class<?> resultType = resultMaps.isEmpty() ? null : resultMaps.get(0).getType();
+        if (resultType != null && !Map.class.isAssignableFrom(resultType) && !BeanUtils.isSimpleValueType(resultType)) {
+            return BeanMapSpec.of(resultType, true, null).getKeys();
+        }
+        return MybatisStatementWraps.getResultColumns(sqlSession, statementId, params);
+    }
+
+    @Nonnull
+    private static <T> DataTableStruct<T> doQueryForDataTable(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nullable PageRowBounds bounds, @Nullable Integer drawTimes, @Nullable PageCountStrategy strategy) {
+        String orderDir = getOrderDirAsString(params);
+        if (params != null && StringUtils.isNotBlank(orderDir)) {
+            params.put(SORT_ORDER, orderDir);
+        }
+        DataTableStruct<T> struct = new DataTableStruct<>();
+        struct.setDrawTimes(ObjectUtils.defaultIfNull(drawTimes, 0));
+        if (bounds == null && MapPlainWraps.containsAllKeys(params, START_PARAM, LENGTH_PARAM)) {
+            bounds = MybatisPageWraps.getPageRowBounds(params, START_PARAM, LENGTH_PARAM, true);
+        }
+        if (bounds == null) {
+            Map<String, Object> cloneParams = new LinkedHashMap<>(params);
+            MybatisPageWraps.putPageSizeZero(cloneParams);
+            List<T> resultSets = sqlSession.selectList(statementId, cloneParams);
+            struct.setRecordsDetails(resultSets);
+            int resultSize = CollectionPlainWraps.size(resultSets);
+            struct.setRecordsDisplay(resultSize);
+            struct.setRecordsTotal((long) resultSize);
+            struct.setRecordsFiltered((long) resultSize);
+        } else {
+            List<T> resultSets = MybatisPageWraps.selectPageList(sqlSession, statementId, params, bounds, strategy);
+            struct.setRecordsDetails(resultSets);
+            struct.setRecordsDisplay(CollectionPlainWraps.size(resultSets));
+            struct.setRecordsTotal(bounds.getTotal());
+            struct.setRecordsFiltered(bounds.getTotal());
+        }
+        return struct;
+    }
 }
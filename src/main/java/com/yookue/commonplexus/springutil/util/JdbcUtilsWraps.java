@@ -20,6 +20,9 @@ package com.yookue.commonplexus.springutil.util;
 import java.lang.reflect.InvocationTargetException;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
 import javax.sql.DataSource;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
@@ -27,8 +30,10 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.boot.jdbc.DatabaseDriver;
 import org.springframework.jdbc.support.JdbcUtils;
 import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import com.yookue.commonplexus.javaseutil.constant.CharVariantConst;
 import com.yookue.commonplexus.javaseutil.constant.SymbolVariantConst;
+import com.yookue.commonplexus.springutil.structure.DatabaseMetaStruct;
 
 
 /**
@@ -44,6 +49,11 @@ import com.yookue.commonplexus.javaseutil.constant.SymbolVariantConst;
  */
 @SuppressWarnings({"unused", "BooleanMethodIsAlwaysInverted", "UnusedReturnValue"})
 public abstract class JdbcUtilsWraps {
+    private static final Map<DataSource, DatabaseMetaStruct> CACHE_META = Collections.synchronizedMap(new WeakHashMap<>(4));
+    private static final Map<String, String> CACHE_HOST_NAME = new ConcurrentReferenceHashMap<>(16);
+    private static final Map<String, String> CACHE_HOST_SCHEMA_NAME = new ConcurrentReferenceHashMap<>(16);
+    private static final Map<String, String> CACHE_SCHEMA_NAME = new ConcurrentReferenceHashMap<>(16);
+
     /**
      * Call the specified method on DatabaseMetaData for the given DataSource, and extract the invocation result.
      *
@@ -86,6 +96,82 @@ public abstract class JdbcUtilsWraps {
         return null;
     }
 
+    /**
+     * Returns the snapshot of the database meta-data, which is captured once per data source
+     * <p>
+     * The snapshots are keyed by the data sources, which are weakly held, so that a closed data source can be garbage collected.
+     * Only the first lookup borrows a connection from the data source
+     *
+     * @param dataSource the data source to extract meta-data for
+     *
+     * @return the snapshot of the database meta-data
+     *
+     * @throws org.springframework.jdbc.support.MetaDataAccessException if this couldn't access the DatabaseMetaData
+     * @see #refreshDatabaseMetaStruct(DataSource)
+     */
+    @Nonnull
+    public static DatabaseMetaStruct getDatabaseMetaStruct(@Nonnull DataSource dataSource) throws MetaDataAccessException {
+        DatabaseMetaStruct result = CACHE_META.get(dataSource);
+        return (result != null) ? result : refreshDatabaseMetaStruct(dataSource);
+    }
+
+    @Nullable
+    public static DatabaseMetaStruct getDatabaseMetaStructQuietly(@Nullable DataSource dataSource) {
+        if (dataSource == null) {
+            return null;
+        }
+        try {
+            return getDatabaseMetaStruct(dataSource);
+        } catch (Exception ignored) {
+        }
+        return null;
+    }
+
+    /**
+     * Captures the snapshot of the database meta-data again, and replaces the cached one
+     *
+     * @param dataSource the data source to extract meta-data for
+     *
+     * @return the snapshot of the database meta-data
+     *
+     * @throws org.springframework.jdbc.support.MetaDataAccessException if this couldn't access the DatabaseMetaData
+     */
+    @Nonnull
+    public static DatabaseMetaStruct refreshDatabaseMetaStruct(@Nonnull DataSource dataSource) throws MetaDataAccessException {
+        DatabaseMetaStruct result = JdbcUtils.extractDatabaseMetaData(dataSource, JdbcUtilsWraps::createDatabaseMetaStruct);
+        CACHE_META.put(dataSource, result);
+        return result;
+    }
+
+    public static void evictDatabaseMetaStruct(@Nullable DataSource dataSource) {
+        if (dataSource != null) {
+            CACHE_META.remove(dataSource);
+        }
+    }
+
+    @Nonnull
+    private static DatabaseMetaStruct createDatabaseMetaStruct(@Nonnull DatabaseMetaData metaData) throws SQLException {
+        DatabaseMetaStruct result = new DatabaseMetaStruct();
+        result.setProductName(metaData.getDatabaseProductName());
+        result.setProductVersion(metaData.getDatabaseProductVersion());
+        result.setMajorVersion(metaData.getDatabaseMajorVersion());
+        result.setMinorVersion(metaData.getDatabaseMinorVersion());
+        result.setDatabaseDriver(DatabaseDriver.fromProductName(result.getProductName()));
+        result.setDriverName(metaData.getDriverName());
+        result.setDriverVersion(metaData.getDriverVersion());
+        result.setUrl(metaData.getURL());
+        result.setUserName(metaData.getUserName());
+        result.setIdentifierQuote(StringUtils.trimToNull(metaData.getIdentifierQuoteString()));
+        result.setCatalogSeparator(metaData.getCatalogSeparator());
+        result.setUpperCaseIdentifiers(metaData.storesUpperCaseIdentifiers());
+        result.setLowerCaseIdentifiers(metaData.storesLowerCaseIdentifiers());
+        result.setBatchUpdates(metaData.supportsBatchUpdates());
+        result.setGeneratedKeys(metaData.supportsGetGeneratedKeys());
+        result.setSavepoints(metaData.supportsSavepoints());
+        result.setTransactions(metaData.supportsTransactions());
+        return result;
+    }
+
     public static String getDatabaseProductName(@Nullable DataSource dataSource) throws MetaDataAccessException, IllegalStateException {
         return getDatabaseProductName(dataSource, false, false);
     }
@@ -104,13 +190,15 @@ public abstract class JdbcUtilsWraps {
      * @return the database product name
      *
      * @see "org.springframework.boot.jdbc.AbstractDataSourceInitializer#getDatabaseName"
+     * @see #getDatabaseMetaStruct(DataSource)
      */
     @Nullable
     public static String getDatabaseProductName(@Nullable DataSource dataSource, boolean commonName, boolean validateDriver) throws MetaDataAccessException, IllegalStateException {
         if (dataSource == null) {
             return null;
         }
-        String productName = getDatabaseMetaData(dataSource, "getDatabaseProductName");    // $NON-NLS-1$
+        DatabaseMetaStruct metaStruct = getDatabaseMetaStruct(dataSource);
+        String productName = metaStruct.getProductName();
         if (StringUtils.isBlank(productName)) {
             return null;
         }
@@ -120,7 +208,7 @@ public abstract class JdbcUtilsWraps {
         if (!validateDriver) {
             return productName;
         }
-        DatabaseDriver databaseDriver = DatabaseDriver.fromProductName(productName);
+        DatabaseDriver databaseDriver = metaStruct.getDatabaseDriver();
         if (databaseDriver == DatabaseDriver.UNKNOWN) {
             throw new IllegalStateException("Unable to detect database type");
         }
@@ -161,6 +249,12 @@ public abstract class JdbcUtilsWraps {
         if (StringUtils.isBlank(jdbcUrl)) {
             return null;
         }
+        String result = CACHE_HOST_NAME.get(jdbcUrl);
+        return (result != null) ? result : CACHE_HOST_NAME.computeIfAbsent(jdbcUrl, JdbcUtilsWraps::parseHostName);
+    }
+
+    @Nullable
+    private static String parseHostName(@Nonnull String jdbcUrl) {
         int begin = StringUtils.indexOf(jdbcUrl, SymbolVariantConst.DOUBLE_SLASHES), end = StringUtils.lastIndexOf(jdbcUrl, CharVariantConst.SLASH);
         if (begin != -1) {
             return (end != -1) ? StringUtils.substring(jdbcUrl, begin + 2, end) : StringUtils.substring(jdbcUrl, begin + 2);
@@ -183,6 +277,12 @@ public abstract class JdbcUtilsWraps {
         if (StringUtils.isBlank(jdbcUrl)) {
             return null;
         }
+        String result = CACHE_HOST_SCHEMA_NAME.get(jdbcUrl);
+        return (result != null) ? result : CACHE_HOST_SCHEMA_NAME.computeIfAbsent(jdbcUrl, JdbcUtilsWraps::parseHostSchemaName);
+    }
+
+    @Nullable
+    private static String parseHostSchemaName(@Nonnull String jdbcUrl) {
         int begin = StringUtils.indexOf(jdbcUrl, SymbolVariantConst.DOUBLE_SLASHES), end = StringUtils.indexOf(jdbcUrl, CharVariantConst.QUESTION);
         if (begin != -1) {
             return (end != -1) ? StringUtils.substring(jdbcUrl, begin + 2, end) : StringUtils.substring(jdbcUrl, begin + 2);
@@ -205,6 +305,12 @@ public abstract class JdbcUtilsWraps {
         if (StringUtils.isBlank(jdbcUrl)) {
             return null;
         }
+        String result = CACHE_SCHEMA_NAME.get(jdbcUrl);
+        return (result != null) ? result : CACHE_SCHEMA_NAME.computeIfAbsent(jdbcUrl, JdbcUtilsWraps::parseSchemaName);
+    }
+
+    @Nullable
+    private static String parseSchemaName(@Nonnull String jdbcUrl) {
         int begin = StringUtils.lastIndexOf(jdbcUrl, CharVariantConst.SLASH), end = StringUtils.indexOf(jdbcUrl, CharVariantConst.QUESTION);
         if (begin != -1) {
             return (end != -1) ? StringUtils.substring(jdbcUrl, begin + 1, end) : StringUtils.substring(jdbcUrl, begin + 1);
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.util;
+
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import javax.sql.DataSource;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.exceptions.ExceptionFactory;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.util.CollectionUtils;
+import com.yookue.commonplexus.springutil.structure.BatchWriteStruct;
+
+
+/**
+ * Utilities for mybatis batch writes
+ * <p>
+ * The rows are written by a session of {@link org.apache.ibatis.session.ExecutorType#BATCH}, which sends the statements of a chunk to the database in a single round trip
+ *
+ * @author David Hsing
+ * @reference "https://mybatis.org/mybatis-3/java-api.html#sqlSessions"
+ * @see org.apache.ibatis.executor.BatchExecutor
+ */
+@SuppressWarnings({"unused", "JavadocDeclaration", "JavadocLinkAsPlainText"})
+public abstract class MybatisBatchWraps {
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    @Nullable
+    public static BatchWriteStruct executeBatch(@Nonnull SqlSessionFactory sessionFactory, @Nonnull String statementId, @Nullable Collection<?> rows) {
+        return executeBatch(sessionFactory, statementId, rows, DEFAULT_CHUNK_SIZE, true, true);
+    }
+
+    @Nullable
+    public static BatchWriteStruct executeBatch(@Nonnull SqlSessionFactory sessionFactory, @Nonnull String statementId, @Nullable Collection<?> rows, int chunkSize) {
+        return executeBatch(sessionFactory, statementId, rows, chunkSize, true, true);
+    }
+
+    /**
+     * Write the rows by the insert, update or delete statement, and flush the statements every chunk
+     * <p>
+     * If {@code commitPerChunk} is {@code true}, each chunk is committed after flushing, and a failing chunk is rolled back.
+     * Then if {@code retryRows} is {@code true}, the rows of the failing chunk are written one by one in auto-commit mode,
+     * and the indexes of the rows that still fail are collected, instead of throwing the exception.
+     * If {@code commitPerChunk} is {@code false}, all the chunks are committed at last, and any failure rolls back all of them
+     * <p>
+     * The auto-commit of the connection is switched off during the chunks and restored afterward, since the transaction factory
+     * may ignore the auto-commit flag of opening sessions (such as the one of mybatis-spring).
+     * If the connection joins an outer transaction, the chunks are neither committed nor rolled back here, and any failure is thrown,
+     * since a failing chunk could not be rolled back alone, and the outer transaction may have been aborted by the database
+     *
+     * @param sessionFactory the sql session factory
+     * @param statementId the id of the insert, update or delete statement
+     * @param rows the parameters of each statement
+     * @param chunkSize the count of statements per flush
+     * @param commitPerChunk whether to commit after each chunk
+     * @param retryRows whether to retry the rows of the failing chunk one by one, takes effect only if committing per chunk without an outer transaction
+     *
+     * @return the update counts of the chunks, and the indexes of the failed rows
+     *
+     * @throws PersistenceException if writing failed and could not be retried
+     */
+    @Nullable
+    public static BatchWriteStruct executeBatch(@Nonnull SqlSessionFactory sessionFactory, @Nonnull String statementId, @Nullable Collection<?> rows, int chunkSize, boolean commitPerChunk, boolean retryRows) throws PersistenceException {
+        if (StringUtils.isBlank(statementId)) {
+            return null;
+        }
+        BatchWriteStruct struct = new BatchWriteStruct();
+        if (CollectionUtils.isEmpty(rows)) {
+            return struct;
+        }
+        int size = Math.max(1, chunkSize);
+        try (SqlSession session = sessionFactory.openSession(ExecutorType.BATCH, false)) {
+            Connection connection = session.getConnection();
+            boolean outerTransaction = isTransactionalConnection(sessionFactory, connection);
+            boolean autoCommit = !outerTransaction && switchAutoCommit(connection, false);
+            boolean chunkCommit = !outerTransaction && commitPerChunk;
+            try {
+                List<Object> chunk = new ArrayList<>(Math.min(size, rows.size()));
+                int offset = 0;
+                for (Object row : rows) {
+                    chunk.add(row);
+                    if (chunk.size() >= size) {
+                        writeChunk(sessionFactory, session, statementId, chunk, offset, outerTransaction, chunkCommit, retryRows, struct);
+                        offset += chunk.size();
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    writeChunk(sessionFactory, session, statementId, chunk, offset, outerTransaction, chunkCommit, retryRows, struct);
+                }
+                if (!chunkCommit) {
+                    commitSession(session, outerTransaction);
+                }
+            } finally {
+                if (autoCommit) {
+                    switchAutoCommit(connection, true);
+                }
+            }
+        }
+        return struct;
+    }
+
+    private static void writeChunk(@Nonnull SqlSessionFactory sessionFactory, @Nonnull SqlSession session, @Nonnull String statementId, @Nonnull List<Object> chunk, int offset, boolean outerTransaction, boolean commitPerChunk, boolean retryRows, @Nonnull BatchWriteStruct struct) throws PersistenceException {
+        int count;
+        try {
+            for (Object row : chunk) {
+                session.update(statementId, row);
+            }
+            count = sumUpdateCounts(session.flushStatements());
+            if (commitPerChunk) {
+                commitSession(session, false);
+            }
+        } catch (PersistenceException ex) {
+            rollbackSession(session, outerTransaction, ex);
+            // The rows of a chunk that joins an outer transaction could not be rolled back alone
+            if (outerTransaction || !commitPerChunk || !retryRows) {
+                throw ex;
+            }
+            struct.setRetriedChunks(struct.getRetriedChunks() + 1);
+            count = retryChunk(sessionFactory, statementId, chunk, offset, struct);
+        }
+        struct.getChunkCounts().add(count);
+        struct.setUpdateCount(struct.getUpdateCount() + count);
+    }
+
+    private static int retryChunk(@Nonnull SqlSessionFactory sessionFactory, @Nonnull String statementId, @Nonnull List<Object> chunk, int offset, @Nonnull BatchWriteStruct struct) {
+        int result = 0;
+        try (SqlSession session = sessionFactory.openSession(ExecutorType.SIMPLE, true)) {
+            // Each row must be committed by itself, whatever the default auto-commit of the connection is
+            Connection connection = session.getConnection();
+            boolean autoCommit = switchAutoCommit(connection, true);
+            try {
+                for (int i = 0; i < chunk.size(); i++) {
+                    try {
+                        result += session.update(statementId, chunk.get(i));
+                    } catch (PersistenceException ignored) {
+                        struct.getFailedIndexes().add(offset + i);
+                    }
+                }
+            } finally {
+                if (!autoCommit) {
+                    switchAutoCommit(connection, false);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Flush the statements of the session, and commit the connection unless it joins an outer transaction
+     * <p>
+     * The connection is committed explicitly, since the transaction of the session may ignore committing,
+     * if the auto-commit of the connection was switched after opening the session
+     */
+    private static void commitSession(@Nonnull SqlSession session, boolean outerTransaction) throws PersistenceException {
+        session.commit(true);
+        if (outerTransaction) {
+            return;
+        }
+        try {
+            session.getConnection().commit();
+        } catch (SQLException ex) {
+            throw ExceptionFactory.wrapException("Error committing chunk", ex);    // $NON-NLS-1$
+        }
+    }
+
+    /**
+     * Discard the statements of the session, and roll back the connection unless it joins an outer transaction
+     */
+    private static void rollbackSession(@Nonnull SqlSession session, boolean outerTransaction, @Nonnull PersistenceException cause) throws PersistenceException {
+        try {
+            session.rollback(true);
+            if (!outerTransaction) {
+                session.getConnection().rollback();
+            }
+        } catch (PersistenceException | SQLException ex) {
+            cause.addSuppressed(ex);
+            throw cause;
+        }
+    }
+
+    private static boolean isTransactionalConnection(@Nonnull SqlSessionFactory sessionFactory, @Nonnull Connection connection) {
+        Environment environment = sessionFactory.getConfiguration().getEnvironment();
+        DataSource dataSource = (environment == null) ? null : environment.getDataSource();
+        return DataSourceUtils.isConnectionTransactional(connection, dataSource);
+    }
+
+    /**
+     * Switch the auto-commit of the connection, and returns the previous auto-commit
+     */
+    private static boolean switchAutoCommit(@Nonnull Connection connection, boolean autoCommit) throws PersistenceException {
+        try {
+            boolean previous = connection.getAutoCommit();
+            if (previous != autoCommit) {
+                connection.setAutoCommit(autoCommit);
+            }
+            return previous;
+        } catch (SQLException ex) {
+            throw ExceptionFactory.wrapException("Error switching auto-commit of the connection", ex);    // $NON-NLS-1$
+        }
+    }
+
+    private static int sumUpdateCounts(@Nullable List<BatchResult> results) {
+        int result = 0;
+        if (CollectionUtils.isEmpty(results)) {
+            return result;
+        }
+        for (BatchResult batchResult : results) {
+            for (int count : batchResult.getUpdateCounts()) {
+                // Some drivers (such as Oracle) report a success without the affected rows
+                if (count > 0) {
+                    result += count;
+                } else if (count == Statement.SUCCESS_NO_INFO) {
+                    result++;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -17,16 +17,43 @@
 package com.yookue.commonplexus.springutil.util;
 
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.sql.DataSource;
 import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.mapping.Environment;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.util.CollectionUtils;
+import com.github.pagehelper.PageHelper;
 import com.github.pagehelper.PageRowBounds;
 import com.yookue.commonplexus.javaseutil.util.MapPlainWraps;
+import com.yookue.commonplexus.javaseutil.util.RegexUtilsWraps;
+import com.yookue.commonplexus.springutil.cache.PageCountCache;
+import com.yookue.commonplexus.springutil.cglib.BeanMapSpec;
 import com.yookue.commonplexus.springutil.constant.MybatisPageConst;
+import com.yookue.commonplexus.springutil.structure.DatabaseMetaStruct;
+import com.yookue.commonplexus.springutil.structure.KeysetPageStruct;
+import com.yookue.commonplexus.springutil.support.PageCountStrategy;
 
 
 /**
@@ -39,6 +66,9 @@ import com.yookue.commonplexus.springutil.constant.MybatisPageConst;
  */
 @SuppressWarnings({"unused", "JavadocDeclaration", "JavadocLinkAsPlainText"})
 public abstract class MybatisPageWraps {
+    private static final String SEEK_ASC = "asc";    // $NON-NLS-1$
+    private static final String SEEK_DESC = "desc";    // $NON-NLS-1$
+
     @Nonnull
     public static RowBounds getRowBounds(@Nullable Map<String, Object> params, @Nullable String offsetParam, @Nullable String limitParam) {
         return getRowBounds(params, offsetParam, limitParam, null, null);
@@ -90,4 +120,291 @@ public abstract class MybatisPageWraps {
         }
         params.put(MybatisPageConst.PAGE_SIZE_ZERO, true);
     }
+
+    /**
+     * Returns the records of the statement within the bounds, and sets the total into the bounds by the count strategy
+     * <p>
+     * If the bounds does not require a count, or the strategy is {@code null}, this is the same as {@link org.apache.ibatis.session.SqlSession#selectList(String, Object, RowBounds)}.
+     * Otherwise, the total is resolved from the count cache first, then from the table statistics, and finally from the count query,
+     * which runs on a separate session concurrently with the data query if possible
+     *
+     * @param sqlSession the sql session
+     * @param statementId the id of the select statement
+     * @param params the parameters map
+     * @param bounds the page row bounds
+     * @param strategy the strategy of counting the total
+     *
+     * @return the records of the statement within the bounds
+     *
+     * @see com.yookue.commonplexus.springutil.support.PageCountStrategy
+     */
+    @Nonnull
+    public static <T> List<T> selectPageList(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nonnull PageRowBounds bounds, @Nullable PageCountStrategy strategy) {
+        if (strategy == null || !BooleanUtils.isTrue(bounds.getCount())) {
+            return sqlSession.selectList(statementId, params, bounds);
+        }
+        PageCountCache countCache = strategy.getCountCache();
+        Long total = (countCache == null) ? null : countCache.get(statementId, params);
+        if (total == null && StringUtils.isNotBlank(strategy.getApproximateTable())) {
+            Environment environment = sqlSession.getConfiguration().getEnvironment();
+            total = (environment == null || environment.getDataSource() == null) ? null : countApproximately(environment.getDataSource(), strategy.getApproximateTable());
+        }
+        List<T> result;
+        if (total != null) {
+            result = selectWithoutCount(sqlSession, statementId, params, bounds);
+        } else if (strategy.isConcurrent()) {
+            Map<String, Object> countParams = (params == null) ? null : new LinkedHashMap<>(params);
+            SqlSessionFactory sessionFactory = strategy.getSessionFactory();
+            CompletableFuture<Long> future = CompletableFuture.supplyAsync(() -> countIndependently(sessionFactory, statementId, countParams), strategy.getExecutor());
+            try {
+                result = selectWithoutCount(sqlSession, statementId, params, bounds);
+            } catch (RuntimeException ex) {
+                future.cancel(false);
+                throw ex;
+            }
+            try {
+                total = future.join();
+            } catch (CompletionException ex) {
+                throw (ex.getCause() instanceof RuntimeException cause) ? cause : ex;
+            }
+        } else {
+            result = sqlSession.selectList(statementId, params, bounds);
+            total = bounds.getTotal();
+        }
+        if (countCache != null && total != null) {
+            countCache.put(statementId, params, total);
+        }
+        bounds.setTotal(total);
+        return result;
+    }
+
+    /**
+     * Returns the approximate count of the rows of the table from the statistics of the database, or {@code null} if not supported
+     *
+     * @param sessionFactory the sql session factory, whose environment provides the data source
+     * @param table the table name
+     *
+     * @return the approximate count of the rows of the table from the statistics of the database, or {@code null} if not supported
+     *
+     * @see #countApproximately(DataSource, String)
+     */
+    @Nullable
+    public static Long countApproximately(@Nonnull SqlSessionFactory sessionFactory, @Nonnull String table) {
+        Environment environment = sessionFactory.getConfiguration().getEnvironment();
+        return (environment == null || environment.getDataSource() == null) ? null : countApproximately(environment.getDataSource(), table);
+    }
+
+    /**
+     * Returns the approximate count of the rows of the table from the statistics of the database, or {@code null} if not supported
+     * <p>
+     * Supports MySQL, MariaDB, PostgreSQL, Oracle and SQL Server.
+     * The database is resolved from the cached meta-data of the data source, and the statistics are read on a connection obtained from the data source,
+     * which is the connection of the current transaction if any
+     *
+     * @param dataSource the data source
+     * @param table the table name
+     *
+     * @return the approximate count of the rows of the table from the statistics of the database, or {@code null} if not supported
+     *
+     * @throws org.springframework.dao.DataAccessException if reading the statistics failed
+     * @see com.yookue.commonplexus.springutil.util.JdbcUtilsWraps#getDatabaseMetaStruct(DataSource)
+     */
+    @Nullable
+    public static Long countApproximately(@Nonnull DataSource dataSource, @Nonnull String table) {
+        DatabaseMetaStruct metaStruct = JdbcUtilsWraps.getDatabaseMetaStructQuietly(dataSource);
+        if (metaStruct == null || metaStruct.getDatabaseDriver() == null) {
+            return null;
+        }
+        String sql = switch (metaStruct.getDatabaseDriver()) {
+            case MYSQL, MARIADB -> "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";    // $NON-NLS-1$
+            case POSTGRESQL -> "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)";    // $NON-NLS-1$
+            case ORACLE -> "SELECT NUM_ROWS FROM USER_TABLES WHERE TABLE_NAME = UPPER(?)";    // $NON-NLS-1$
+            case SQLSERVER -> "SELECT SUM(rows) FROM sys.partitions WHERE object_id = OBJECT_ID(?) AND index_id IN (0, 1)";    // $NON-NLS-1$
+            default -> null;
+        };
+        if (sql == null) {
+            return null;
+        }
+        return new JdbcTemplate(dataSource).query(sql, resultSet -> {
+            if (!resultSet.next()) {
+                return null;
+            }
+            long count = resultSet.getLong(1);
+            // PostgreSQL reports -1 for the tables that have never been analyzed
+            return (resultSet.wasNull() || count < 0L) ? null : count;
+        }, table);
+    }
+
+    @Nonnull
+    private static <T> List<T> selectWithoutCount(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, @Nonnull PageRowBounds bounds) {
+        bounds.setCount(false);
+        try {
+            return sqlSession.selectList(statementId, params, bounds);
+        } finally {
+            bounds.setCount(true);
+        }
+    }
+
+    private static long countIndependently(@Nonnull SqlSessionFactory sessionFactory, @Nonnull String statementId, @Nullable Map<String, Object> params) {
+        try (SqlSession session = sessionFactory.openSession()) {
+            return PageHelper.count(() -> session.selectList(statementId, params));
+        }
+    }
+
+    /**
+     * Returns a page of the statement by keyset pagination, or {@code null} if the seek key is absent
+     * <p>
+     * The seek key, the direction and the continuation token are read from the params by the names in {@link com.yookue.commonplexus.springutil.constant.MybatisPageConst}.
+     * The statement should contain a seek predicate and an order clause such as
+     * {@code <if test="_seek_value_ != null">AND ${_seek_column_} ${_seek_operator_} #{_seek_value_}</if> ORDER BY ${_seek_order_}},
+     * so that any page costs the same as the first page. The seek key should be unique, such as the primary key.
+     * The total is only counted for the first page, and then carried by the continuation token
+     *
+     * @param sqlSession the sql session
+     * @param statementId the id of the select statement
+     * @param params the parameters map
+     * @param pageSize the maximum count of the records of a page
+     * @param count whether to count the total for the first page
+     * @param rowType the type of the records, {@code null} for maps
+     *
+     * @return a page of the statement by keyset pagination, or {@code null} if the seek key is absent
+     *
+     * @throws IllegalArgumentException if the continuation token is malformed, or the seek field of the last record is {@code null}
+     */
+    @Nullable
+    public static <T> KeysetPageStruct<T> selectKeysetPage(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Map<String, Object> params, int pageSize, boolean count, @Nullable Class<T> rowType) {
+        String seekKey = RegexUtilsWraps.reserveWord(MapPlainWraps.getString(params, MybatisPageConst.SEEK_KEY));
+        if (StringUtils.isBlank(seekKey)) {
+            return null;
+        }
+        String seekField = StringUtils.defaultIfBlank(MapPlainWraps.getString(params, MybatisPageConst.SEEK_FIELD), seekKey);
+        boolean descending = StringUtils.equalsIgnoreCase(MapPlainWraps.getString(params, MybatisPageConst.SEEK_DIR), SEEK_DESC);
+        Object[] token = decodeSeekToken(MapPlainWraps.getString(params, MybatisPageConst.SEEK_TOKEN));
+        Map<String, Object> seekParams = new LinkedHashMap<>(params);
+        seekParams.put(MybatisPageConst.SEEK_COLUMN_PARAM, seekKey);
+        seekParams.put(MybatisPageConst.SEEK_OPERATOR_PARAM, descending ? "<" : ">");    // $NON-NLS-1$ // $NON-NLS-2$
+        seekParams.put(MybatisPageConst.SEEK_ORDER_PARAM, seekKey + StringUtils.SPACE + (descending ? SEEK_DESC : SEEK_ASC));
+        if (token != null) {
+            seekParams.put(MybatisPageConst.SEEK_VALUE_PARAM, token[1]);
+        }
+        int limit = Math.max(1, pageSize);
+        // Fetch one more row to know whether there is a next page
+        PageRowBounds bounds = newPageRowBounds(0, limit + 1, count && token == null);
+        String typedId = MybatisStatementWraps.getTypedStatementId(sqlSession, statementId, rowType);
+        List<T> resultSets = sqlSession.selectList(typedId, seekParams, bounds);
+        boolean hasNext = resultSets.size() > limit;
+        List<T> records = hasNext ? new ArrayList<>(resultSets.subList(0, limit)) : resultSets;
+        Long total = (token != null) ? (Long) token[0] : (bounds.getCount() ? bounds.getTotal() : null);
+        KeysetPageStruct<T> result = new KeysetPageStruct<>();
+        result.setRecordsDetails(records);
+        result.setRecordsTotal(total);
+        if (hasNext) {
+            Object seekValue = getSeekValue(records.get(limit - 1), seekField);
+            if (seekValue == null) {
+                throw new IllegalArgumentException("Seek field '" + seekField + "' of the last record must not be null");    // $NON-NLS-1$ // $NON-NLS-2$
+            }
+            result.setContinuationToken(encodeSeekToken(seekValue, total));
+        }
+        return result;
+    }
+
+    /**
+     * Returns a continuation token that holds the last seen value and the total
+     *
+     * @param value the last seen value of the seek key
+     * @param total the total of the records, or {@code null} if unknown
+     *
+     * @return a continuation token that holds the last seen value and the total
+     *
+     * @throws IllegalArgumentException if the value is {@code null}, which cannot be sought from
+     */
+    @Nonnull
+    public static String encodeSeekToken(@Nonnull Object value, @Nullable Long total) {
+        if (value == null) {
+            throw new IllegalArgumentException("Seek value must not be null");    // $NON-NLS-1$
+        }
+        String text;
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte || value instanceof BigInteger) {
+            text = "L:" + value;    // $NON-NLS-1$
+        } else if (value instanceof Number alias) {
+            text = "N:" + new BigDecimal(alias.toString()).toPlainString();    // $NON-NLS-1$
+        } else if (value instanceof LocalDateTime alias) {
+            text = "T:" + alias;    // $NON-NLS-1$
+        } else if (value instanceof LocalDate alias) {
+            text = "A:" + alias;    // $NON-NLS-1$
+        } else if (value instanceof Date alias) {
+            text = "M:" + alias.getTime();    // $NON-NLS-1$
+        } else {
+            text = "S:" + value;    // $NON-NLS-1$
+        }
+        String content = ((total == null) ? StringUtils.EMPTY : total.toString()) + '|' + text;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns an array of the total and the last seen value, or {@code null} if the token is blank
+     *
+     * @param token the continuation token
+     *
+     * @return an array of the total and the last seen value, or {@code null} if the token is blank
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    @Nullable
+    public static Object[] decodeSeekToken(@Nullable String token) {
+        if (StringUtils.isBlank(token)) {
+            return null;
+        }
+        String content;
+        try {
+            content = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Malformed continuation token: " + token, ex);    // $NON-NLS-1$
+        }
+        int separator = content.indexOf('|');
+        if (separator < 0 || content.length() < separator + 3 || content.charAt(separator + 2) != ':') {
+            throw new IllegalArgumentException("Malformed continuation token: " + token);    // $NON-NLS-1$
+        }
+        Long total;
+        Object value;
+        String text = content.substring(separator + 3);
+        try {
+            total = (separator == 0) ? null : Long.valueOf(content.substring(0, separator));
+            value = switch (content.charAt(separator + 1)) {
+                case 'L' -> Long.valueOf(text);
+                case 'N' -> new BigDecimal(text);
+                case 'T' -> LocalDateTime.parse(text);
+                case 'A' -> LocalDate.parse(text);
+                case 'M' -> new Date(Long.parseLong(text));
+                case 'S' -> text;
+                default -> null;
+            };
+        } catch (NumberFormatException | DateTimeException ex) {
+            // Never restart from the first page silently
+            throw new IllegalArgumentException("Malformed continuation token: " + token, ex);    // $NON-NLS-1$
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Malformed continuation token: " + token);    // $NON-NLS-1$
+        }
+        return new Object[] {total, value};
+    }
+
+    @Nullable
+    private static Object getSeekValue(@Nullable Object row, @Nonnull String field) {
+        if (row == null) {
+            return null;
+        }
+        if (row instanceof Map<?, ?> alias) {
+            if (alias.containsKey(field)) {
+                return alias.get(field);
+            }
+            for (Map.Entry<?, ?> entry : alias.entrySet()) {
+                if (entry.getKey() instanceof String key && StringUtils.equalsIgnoreCase(key, field)) {
+                    return entry.getValue();
+                }
+            }
+            return null;
+        }
+        return BeanMapSpec.of(row.getClass(), false, Collections.singleton(field)).asMap(row).get(field);
+    }
 }
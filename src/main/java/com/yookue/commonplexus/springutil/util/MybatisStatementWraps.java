@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.util;
+
+
+import java.lang.reflect.Field;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import javax.sql.DataSource;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.util.ReflectionUtils;
+import com.yookue.commonplexus.springutil.structure.DatabaseMetaStruct;
+
+
+/**
+ * Utilities for mybatis mapped statements
+ *
+ * @author David Hsing
+ * @reference "https://mybatis.org/mybatis-3/sqlmap-xml.html#auto-mapping"
+ * @see org.apache.ibatis.mapping.MappedStatement
+ */
+@SuppressWarnings({"unused", "JavadocDeclaration", "JavadocLinkAsPlainText"})
+public abstract class MybatisStatementWraps {
+    public static final int DEFAULT_STREAMING_FETCH_SIZE = 1000;
+    private static final String TYPED_SEPARATOR = "#";    // $NON-NLS-1$
+    private static final String INLINE_SUFFIX = "-Inline";    // $NON-NLS-1$
+    private static final String STREAMING_SUFFIX = "-Streaming";    // $NON-NLS-1$
+    private static final String MAPPED_STATEMENTS_FIELD = "mappedStatements";    // $NON-NLS-1$
+
+    /**
+     * Returns the id of a statement that maps the rows of the given statement to the result type
+     * <p>
+     * The derived statement shares the sql source of the given statement, but uses an auto-mapping result map of the result type,
+     * so that the rows are mapped straight into the typed objects (or records) by mybatis, without intermediate {@link java.util.Map}s.
+     * It is registered into the configuration once, and reused by later queries.
+     * A statement that is not registered by {@link #registerTypedStatement(Configuration, String, Class)} up front is registered lazily,
+     * only if the mapped statements of the configuration are held by a concurrent map, which the queries of other threads can read without lock
+     * The dots of the type name are escaped in the derived id, so that its short name is unique per statement and type,
+     * and never collides with the derived statements of other statements that use the same type
+     *
+     * @param sqlSession the sql session
+     * @param statementId the id of the given statement
+     * @param resultType the type of the result objects
+     *
+     * @return the id of a statement that maps the rows of the given statement to the result type
+     *
+     * @throws IllegalStateException if the statement is not registered up front, and the configuration cannot be extended safely
+     */
+    @Nonnull
+    public static String getTypedStatementId(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Class<?> resultType) {
+        return resolveTypedStatementId(sqlSession.getConfiguration(), statementId, resultType, false);
+    }
+
+    /**
+     * Registers a statement that maps the rows of the given statement to the result type, before the configuration serves any query
+     *
+     * @param configuration the configuration that is being built
+     * @param statementId the id of the given statement
+     * @param resultType the type of the result objects
+     *
+     * @return the id of the statement that maps the rows of the given statement to the result type
+     *
+     * @see #getTypedStatementId(SqlSession, String, Class)
+     */
+    @Nonnull
+    public static String registerTypedStatement(@Nonnull Configuration configuration, @Nonnull String statementId, @Nullable Class<?> resultType) {
+        return resolveTypedStatementId(configuration, statementId, resultType, true);
+    }
+
+    @Nonnull
+    private static String resolveTypedStatementId(@Nonnull Configuration configuration, @Nonnull String statementId, @Nullable Class<?> resultType, boolean upfront) {
+        if (resultType == null || Map.class.isAssignableFrom(resultType)) {
+            return statementId;
+        }
+        String typedId = statementId + TYPED_SEPARATOR + StringUtils.replaceChars(resultType.getName(), '.', '_');
+        if (configuration.hasStatement(typedId, false)) {
+            return typedId;
+        }
+        MappedStatement source = configuration.getMappedStatement(statementId);
+        if (isResultType(source, resultType)) {
+            return statementId;
+        }
+        checkRegistrable(configuration, typedId, upfront);
+        synchronized (configuration) {
+            if (!configuration.hasStatement(typedId, false)) {
+                ResultMap resultMap = new ResultMap.Builder(configuration, typedId + INLINE_SUFFIX, resultType, Collections.emptyList()).build();
+                configuration.addMappedStatement(deriveStatement(configuration, source, typedId, Collections.singletonList(resultMap), source.getFetchSize()));
+            }
+        }
+        return typedId;
+    }
+
+    /**
+     * Returns the id of a statement that streams the rows of the given statement, mapped to the result type
+     * <p>
+     * If the given statement has no {@code fetchSize}, the derived statement specifies one, so that the jdbc driver fetches the rows in batches,
+     * instead of loading the whole result set into memory. It is {@code Integer.MIN_VALUE} for MySQL, which streams the rows one by one,
+     * or {@link #DEFAULT_STREAMING_FETCH_SIZE} for the others, such as PostgreSQL, which uses a cursor when the session is not auto-commit.
+     * The same as {@link #getTypedStatementId(SqlSession, String, Class)}, it can be registered up front by {@link #registerStreamingStatement(Configuration, String, Class)}
+     *
+     * @param sqlSession the sql session
+     * @param statementId the id of the given statement
+     * @param resultType the type of the result objects, {@code null} for the result type of the given statement
+     *
+     * @return the id of a statement that streams the rows of the given statement, mapped to the result type
+     *
+     * @throws IllegalStateException if the statement is not registered up front, and the configuration cannot be extended safely
+     */
+    @Nonnull
+    public static String getStreamingStatementId(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Class<?> resultType) {
+        return resolveStreamingStatementId(sqlSession.getConfiguration(), statementId, resultType, false);
+    }
+
+    /**
+     * Registers a statement that streams the rows of the given statement, mapped to the result type, before the configuration serves any query
+     *
+     * @param configuration the configuration that is being built
+     * @param statementId the id of the given statement
+     * @param resultType the type of the result objects, {@code null} for the result type of the given statement
+     *
+     * @return the id of the statement that streams the rows of the given statement, mapped to the result type
+     *
+     * @see #getStreamingStatementId(SqlSession, String, Class)
+     */
+    @Nonnull
+    public static String registerStreamingStatement(@Nonnull Configuration configuration, @Nonnull String statementId, @Nullable Class<?> resultType) {
+        return resolveStreamingStatementId(configuration, statementId, resultType, true);
+    }
+
+    @Nonnull
+    private static String resolveStreamingStatementId(@Nonnull Configuration configuration, @Nonnull String statementId, @Nullable Class<?> resultType, boolean upfront) {
+        String typedId = resolveTypedStatementId(configuration, statementId, resultType, upfront);
+        String streamingId = typedId + STREAMING_SUFFIX;
+        if (configuration.hasStatement(streamingId, false)) {
+            return streamingId;
+        }
+        MappedStatement source = configuration.getMappedStatement(typedId);
+        if (source.getFetchSize() != null) {
+            return typedId;
+        }
+        int fetchSize = resolveStreamingFetchSize(configuration.getEnvironment());
+        checkRegistrable(configuration, streamingId, upfront);
+        synchronized (configuration) {
+            if (!configuration.hasStatement(streamingId, false)) {
+                configuration.addMappedStatement(deriveStatement(configuration, source, streamingId, source.getResultMaps(), fetchSize));
+            }
+        }
+        return streamingId;
+    }
+
+    /**
+     * Returns the column labels of the rows of the statement, by describing the prepared statement without executing it
+     * <p>
+     * The statement is described in a session of its own, since the connection of a managed session may be released after each call
+     *
+     * @param sqlSession the sql session
+     * @param statementId the id of the statement
+     * @param params the parameter object of the statement
+     *
+     * @return the column labels of the rows of the statement, or {@code null} if the jdbc driver cannot describe it
+     */
+    @Nullable
+    public static String[] getResultColumns(@Nonnull SqlSession sqlSession, @Nonnull String statementId, @Nullable Object params) {
+        Configuration configuration = sqlSession.getConfiguration();
+        BoundSql boundSql = configuration.getMappedStatement(statementId).getBoundSql(params);
+        try (SqlSession session = new DefaultSqlSessionFactory(configuration).openSession(); PreparedStatement statement = session.getConnection().prepareStatement(boundSql.getSql())) {
+            ResultSetMetaData metaData = statement.getMetaData();
+            if (metaData == null) {
+                return null;
+            }
+            String[] result = new String[metaData.getColumnCount()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = configuration.isUseColumnLabel() ? metaData.getColumnLabel(i + 1) : metaData.getColumnName(i + 1);
+            }
+            return result;
+        } catch (SQLException ignored) {
+            // Some jdbc drivers cannot describe a statement before executing it
+            return null;
+        }
+    }
+
+    /**
+     * Ensures that a derived statement can be added to the configuration, which may be serving the queries of other threads
+     * <p>
+     * Some versions of mybatis hold the mapped statements by a plain hash map, and read it without lock,
+     * so the derived statements must be registered up front for them
+     */
+    private static void checkRegistrable(@Nonnull Configuration configuration, @Nonnull String derivedId, boolean upfront) {
+        if (upfront) {
+            return;
+        }
+        Field field = ReflectionUtils.findField(Configuration.class, MAPPED_STATEMENTS_FIELD);
+        if (field != null) {
+            ReflectionUtils.makeAccessible(field);
+            if (ReflectionUtils.getField(field, configuration) instanceof ConcurrentMap) {
+                return;
+            }
+        }
+        throw new IllegalStateException("Statement '" + derivedId + "' must be registered up front, since the mapped statements of the configuration are not thread-safe");    // $NON-NLS-1$ // $NON-NLS-2$
+    }
+
+    private static int resolveStreamingFetchSize(@Nullable Environment environment) {
+        DataSource dataSource = (environment == null) ? null : environment.getDataSource();
+        DatabaseMetaStruct metaStruct = JdbcUtilsWraps.getDatabaseMetaStructQuietly(dataSource);
+        return (metaStruct != null && metaStruct.getDatabaseDriver() == DatabaseDriver.MYSQL) ? Integer.MIN_VALUE : DEFAULT_STREAMING_FETCH_SIZE;
+    }
+
+    private static boolean isResultType(@Nonnull MappedStatement statement, @Nonnull Class<?> resultType) {
+        List<ResultMap> resultMaps = statement.getResultMaps();
+        return resultMaps != null && resultMaps.size() == 1 && resultMaps.get(0).getType() == resultType;
+    }
+
+    @Nonnull
+    private static MappedStatement deriveStatement(@Nonnull Configuration configuration, @Nonnull MappedStatement source, @Nonnull String derivedId, @Nonnull List<ResultMap> resultMaps, @Nullable Integer fetchSize) {
+        return new MappedStatement.Builder(configuration, derivedId, source.getSqlSource(), source.getSqlCommandType())
+            .resource(source.getResource())
+            .databaseId(source.getDatabaseId())
+            .lang(source.getLang())
+            .statementType(source.getStatementType())
+            .parameterMap(source.getParameterMap())
+            .resultMaps(resultMaps)
+            .resultSetType(source.getResultSetType())
+            .resultOrdered(source.isResultOrdered())
+            .fetchSize(fetchSize)
+            .timeout(source.getTimeout())
+            .flushCacheRequired(source.isFlushCacheRequired())
+            .useCache(source.isUseCache())
+            .cache(source.getCache())
+            .keyGenerator(source.getKeyGenerator())
+            .keyProperty(joinNames(source.getKeyProperties()))
+            .keyColumn(joinNames(source.getKeyColumns()))
+            .resultSets(joinNames(source.getResultSets()))
+            .build();
+    }
+
+    @Nullable
+    private static String joinNames(@Nullable String[] names) {
+        return (names == null || names.length == 0) ? null : StringUtils.join(names, ',');
+    }
+}
@@ -17,38 +17,64 @@
 package com.yookue.commonplexus.springutil.util;
 
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import jakarta.annotation.Nonnull;
 import jakarta.annotation.Nullable;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.ObjectUtils;
-import org.apache.commons.lang3.function.Failable;
+import org.apache.commons.lang3.mutable.MutableLong;
+import org.springframework.data.redis.connection.DecoratedRedisConnection;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.util.CollectionUtils;
 import com.yookue.commonplexus.javaseutil.util.ArrayUtilsWraps;
-import com.yookue.commonplexus.javaseutil.util.CollectionPlainWraps;
+import com.yookue.commonplexus.springutil.support.RedisScanStrategy;
 
 
 /**
  * Utilities for operating {@link org.springframework.data.redis.core.RedisTemplate}
  *
  * @author David Hsing
+ * @reference "https://redis.io/docs/latest/commands/scan/"
  * @see org.springframework.data.redis.core.RedisTemplate
  */
-@SuppressWarnings({"unused", "BooleanMethodIsAlwaysInverted", "UnusedReturnValue"})
+@SuppressWarnings({"unused", "BooleanMethodIsAlwaysInverted", "UnusedReturnValue", "JavadocDeclaration"})
 public abstract class RedisTemplateWraps {
     @SafeVarargs
     public static <K> long countKey(@Nullable RedisTemplate<K, ?> template, @Nullable K... keys) {
         return countKey(template, ArrayUtilsWraps.asList(keys));
     }
 
-    @SuppressWarnings({"DataFlowIssue", "RedundantSuppression"})
+    /**
+     * Returns the count of the existing keys, by multi-key redis {@code EXISTS} commands in batches
+     * <p>
+     * A key that is given more than once is counted more than once, which is the same as redis {@code EXISTS}
+     *
+     * @param template the redis template
+     * @param keys the keys to check
+     *
+     * @return the count of the existing keys
+     */
     public static <K> long countKey(@Nullable RedisTemplate<K, ?> template, @Nullable Collection<K> keys) {
         if (template == null || CollectionUtils.isEmpty(keys)) {
             return 0;
         }
-        return keys.stream().filter(element -> Objects.nonNull(element) && template.hasKey(element)).count();
+        long result = 0;
+        for (List<K> batch : partitionKeys(keys.stream().filter(Objects::nonNull).toList())) {
+            result += countBatch(template, batch);
+        }
+        return result;
     }
 
     @SafeVarargs
@@ -56,25 +82,109 @@ public abstract class RedisTemplateWraps {
         return countPattern(template, ArrayUtilsWraps.asList(patterns));
     }
 
-    @SuppressWarnings({"DataFlowIssue", "RedundantSuppression"})
     public static <K> long countPattern(@Nullable RedisTemplate<K, ?> template, @Nullable Collection<K> patterns) {
+        return countPattern(template, patterns, null);
+    }
+
+    /**
+     * Returns the count of the keys that match the patterns, by iterating with redis {@code SCAN}
+     * <p>
+     * Please note that {@code SCAN} may return a key more than once if the keyspace is rehashing, so the count is not exact under heavy writes
+     *
+     * @param template the redis template
+     * @param patterns the key patterns
+     * @param strategy the strategy of scanning
+     *
+     * @return the count of the keys that match the patterns
+     */
+    public static <K> long countPattern(@Nullable RedisTemplate<K, ?> template, @Nullable Collection<K> patterns, @Nullable RedisScanStrategy strategy) {
         if (template == null || CollectionUtils.isEmpty(patterns)) {
             return 0;
         }
-        return patterns.stream().filter(Objects::nonNull).map(template::keys).filter(CollectionPlainWraps::isNotEmpty).mapToLong(template::countExistingKeys).sum();
+        return patterns.stream().filter(Objects::nonNull).mapToLong(pattern -> scanPattern(template, pattern, strategy, key -> {})).sum();
+    }
+
+    /**
+     * Iterate the keys that match the pattern by redis {@code SCAN}, and pass each key to the consumer as soon as it is fetched
+     * <p>
+     * Unlike {@code KEYS}, {@code SCAN} does not block the server, and the keys are never collected into the client memory.
+     * On a redis cluster, the keys of each master node are scanned in turn
+     *
+     * @param template the redis template
+     * @param pattern the key pattern
+     * @param strategy the strategy of scanning
+     * @param consumer the consumer of each key
+     *
+     * @return the count of the scanned keys
+     */
+    public static <K> long scanPattern(@Nullable RedisTemplate<K, ?> template, @Nullable K pattern, @Nullable RedisScanStrategy strategy, @Nonnull Consumer<? super K> consumer) {
+        if (template == null || pattern == null) {
+            return 0;
+        }
+        RedisScanStrategy alias = (strategy != null) ? strategy : new RedisScanStrategy();
+        long result = scanKeys(template, pattern, alias, consumer);
+        if (result % Math.max(1, alias.getBatchSize()) != 0) {
+            alias.notifyProgress(result);
+        }
+        return result;
     }
 
     @SafeVarargs
     public static <K> void deleteKey(@Nullable RedisTemplate<K, ?> template, @Nullable K... keys) {
-        deleteKey(template, ArrayUtilsWraps.asList(keys));
+        deleteKeys(template, ArrayUtilsWraps.asList(keys));
     }
 
-    @SuppressWarnings({"DataFlowIssue", "RedundantSuppression"})
     public static <K> void deleteKey(@Nullable RedisTemplate<K, ?> template, @Nullable Collection<K> keys) {
+        deleteKeys(template, keys);
+    }
+
+    @SafeVarargs
+    public static <K> long deleteKeys(@Nullable RedisTemplate<K, ?> template, @Nullable K... keys) {
+        return deleteKeys(template, ArrayUtilsWraps.asList(keys));
+    }
+
+    /**
+     * Delete the keys, by multi-key redis {@code DEL} commands in batches
+     *
+     * @param template the redis template
+     * @param keys the keys to delete
+     *
+     * @return the count of the deleted keys
+     */
+    public static <K> long deleteKeys(@Nullable RedisTemplate<K, ?> template, @Nullable Collection<K> keys) {
         if (template == null || CollectionUtils.isEmpty(keys)) {
-            return;
+            return 0;
+        }
+        long result = 0;
+        for (List<K> batch : partitionKeys(distinctKeys(keys))) {
+            Long count = template.delete(batch);
+            result += (count == null) ? 0L : count;
         }
-        keys.stream().filter(Objects::nonNull).forEach(Failable.asConsumer(template::delete));
+        return result;
+    }
+
+    @SafeVarargs
+    public static <K> long unlinkKey(@Nullable RedisTemplate<K, ?> template, @Nullable K... keys) {
+        return unlinkKey(template, ArrayUtilsWraps.asList(keys));
+    }
+
+    /**
+     * Unlink the keys, by multi-key redis {@code UNLINK} commands in batches, the memory of the keys is freed in background
+     *
+     * @param template the redis template
+     * @param keys the keys to unlink
+     *
+     * @return the count of the unlinked keys
+     */
+    public static <K> long unlinkKey(@Nullable RedisTemplate<K, ?> template, @Nullable Collection<K> keys) {
+        if (template == null || CollectionUtils.isEmpty(keys)) {
+            return 0;
+        }
+        long result = 0;
+        for (List<K> batch : partitionKeys(distinctKeys(keys))) {
+            result += unlinkBatch(template, batch);
+        }
+        return result;
     }
 
     @SafeVarargs
@@ -82,12 +192,133 @@ public abstract class RedisTemplateWraps {
         deletePattern(template, ArrayUtilsWraps.asList(patterns));
     }
 
-    @SuppressWarnings({"DataFlowIssue", "RedundantSuppression"})
     public static <K> void deletePattern(@Nullable RedisTemplate<K, ?> template, @Nullable Collection<K> patterns) {
+        unlinkPattern(template, patterns);
+    }
+
+    @SafeVarargs
+    public static <K> long unlinkPattern(@Nullable RedisTemplate<K, ?> template, @Nullable K... patterns) {
+        return unlinkPattern(template, ArrayUtilsWraps.asList(patterns));
+    }
+
+    public static <K> long unlinkPattern(@Nullable RedisTemplate<K, ?> template, @Nullable Collection<K> patterns) {
+        return unlinkPattern(template, patterns, null);
+    }
+
+    /**
+     * Unlink the keys that match the patterns, by iterating with redis {@code SCAN} and unlinking with redis {@code UNLINK} in batches
+     * <p>
+     * Each batch of {@code batchSize} keys is unlinked by a single multi-key {@code UNLINK} command on the scanning connection, which frees the memory in background.
+     * If the strategy is cancelled, the keys of the pending batch are not unlinked
+     *
+     * @param template the redis template
+     * @param patterns the key patterns
+     * @param strategy the strategy of scanning
+     *
+     * @return the count of the unlinked keys
+     */
+    public static <K> long unlinkPattern(@Nullable RedisTemplate<K, ?> template, @Nullable Collection<K> patterns, @Nullable RedisScanStrategy strategy) {
         if (template == null || CollectionUtils.isEmpty(patterns)) {
-            return;
+            return 0;
+        }
+        RedisScanStrategy alias = (strategy != null) ? strategy : new RedisScanStrategy();
+        return patterns.stream().filter(Objects::nonNull).mapToLong(pattern -> unlinkMatches(template, pattern, alias)).sum();
+    }
+
+    private static <K> long unlinkMatches(@Nonnull RedisTemplate<K, ?> template, @Nonnull K pattern, @Nonnull RedisScanStrategy strategy) {
+        ScanOptions options = buildScanOptions(template, pattern, strategy.getScanCount());
+        int batchSize = Math.max(1, strategy.getBatchSize());
+        Long result = template.execute((RedisCallback<Long>) connection -> {
+            List<byte[]> batch = new ArrayList<>(batchSize);
+            MutableLong unlinked = new MutableLong();
+            long scanned = scanConnection(connection, options, strategy, key -> {
+                batch.add(key);
+                if (batch.size() >= batchSize) {
+                    unlinked.add(unlinkBatch(connection, batch));
+                    batch.clear();
+                }
+            });
+            if (!batch.isEmpty() && !strategy.isCancelled()) {
+                unlinked.add(unlinkBatch(connection, batch));
+                strategy.notifyProgress(scanned);
+            }
+            return unlinked.longValue();
+        }, true);
+        return (result == null) ? 0L : result;
+    }
+
+    private static <K> long scanKeys(@Nonnull RedisTemplate<K, ?> template, @Nonnull K pattern, @Nonnull RedisScanStrategy strategy, @Nonnull Consumer<? super K> consumer) {
+        ScanOptions options = buildScanOptions(template, pattern, strategy.getScanCount());
+        Long result = template.execute((RedisCallback<Long>) connection -> scanConnection(connection, options, strategy, key -> consumer.accept(deserializeKey(template, key))), true);
+        return (result == null) ? 0L : result;
+    }
+
+    /**
+     * Iterate the raw keys that match the options by redis {@code SCAN}, and notify the progress after each batch of keys
+     * <p>
+     * {@link org.springframework.data.redis.core.RedisTemplate#scan} is not supported by some cluster connections (such as the one of jedis),
+     * so the master nodes of a cluster are scanned one by one
+     *
+     * @return the count of the scanned keys
+     */
+    private static long scanConnection(@Nonnull RedisConnection connection, @Nonnull ScanOptions options, @Nonnull RedisScanStrategy strategy, @Nonnull Consumer<byte[]> consumer) {
+        RedisConnection target = (connection instanceof DecoratedRedisConnection alias) ? alias.getDelegate() : connection;
+        if (!(target instanceof RedisClusterConnection alias)) {
+            return scanCursor(target.keyCommands().scan(options), strategy, consumer, 0L);
+        }
+        long result = 0L;
+        for (RedisClusterNode node : alias.clusterGetNodes()) {
+            if (node.isMaster() && !strategy.isCancelled()) {
+                result = scanCursor(alias.scan(node, options), strategy, consumer, result);
+            }
+        }
+        return result;
+    }
+
+    private static long scanCursor(@Nonnull Cursor<byte[]> cursor, @Nonnull RedisScanStrategy strategy, @Nonnull Consumer<byte[]> consumer, long scanned) {
+        int batchSize = Math.max(1, strategy.getBatchSize());
+        long result = scanned;
+        try (cursor) {
+            while (!strategy.isCancelled() && cursor.hasNext()) {
+                consumer.accept(cursor.next());
+                if (++result % batchSize == 0) {
+                    strategy.notifyProgress(result);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static <K> K deserializeKey(@Nonnull RedisTemplate<K, ?> template, @Nullable byte[] key) {
+        RedisSerializer<K> serializer = (RedisSerializer<K>) template.getKeySerializer();
+        return (serializer != null) ? serializer.deserialize(key) : (K) key;
+    }
+
+    private static <K> long unlinkBatch(@Nonnull RedisTemplate<K, ?> template, @Nonnull List<K> keys) {
+        Long result = template.unlink(keys);
+        return (result == null) ? 0L : result;
+    }
+
+    private static long unlinkBatch(@Nonnull RedisConnection connection, @Nonnull List<byte[]> keys) {
+        Long result = connection.keyCommands().unlink(keys.toArray(new byte[0][]));
+        return (result == null) ? 0L : result;
+    }
+
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private static <K> ScanOptions buildScanOptions(@Nonnull RedisTemplate<K, ?> template, @Nonnull K pattern, long scanCount) {
+        ScanOptions.ScanOptionsBuilder builder = ScanOptions.scanOptions().count(Math.max(1L, scanCount));
+        RedisSerializer<K> serializer = (RedisSerializer<K>) template.getKeySerializer();
+        if (serializer != null) {
+            builder.match(serializer.serialize(pattern));
+        } else if (pattern instanceof byte[] alias) {
+            builder.match(alias);
+        } else {
+            builder.match(pattern.toString());
         }
-        patterns.stream().filter(Objects::nonNull).map(template::keys).filter(CollectionPlainWraps::isNotEmpty).forEach(Failable.asConsumer(template::delete));
+        return builder.build();
     }
 
     @SuppressWarnings({"DataFlowIssue", "RedundantSuppression"})
@@ -100,8 +331,26 @@ public abstract class RedisTemplateWraps {
         return existsAllKeys(template, ArrayUtilsWraps.asList(keys));
     }
 
+    /**
+     * Returns whether all the keys exist, by multi-key redis {@code EXISTS} commands in batches
+     * <p>
+     * The remaining batches are skipped as soon as a batch contains a missing key
+     *
+     * @param template the redis template
+     * @param keys the keys to check
+     *
+     * @return whether all the keys exist
+     */
     public static <K> boolean existsAllKeys(@Nullable RedisTemplate<K, ?> template, @Nullable Collection<K> keys) {
-        return template != null && !CollectionUtils.isEmpty(keys) && keys.stream().filter(Objects::nonNull).allMatch(key -> existsKey(template, key));
+        if (template == null || CollectionUtils.isEmpty(keys)) {
+            return false;
+        }
+        for (List<K> batch : partitionKeys(distinctKeys(keys))) {
+            if (countBatch(template, batch) < batch.size()) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @SafeVarargs
@@ -109,8 +358,49 @@ public abstract class RedisTemplateWraps {
         return existsAnyKeys(template, ArrayUtilsWraps.asList(keys));
     }
 
+    /**
+     * Returns whether any of the keys exists, by multi-key redis {@code EXISTS} commands in batches
+     * <p>
+     * The remaining batches are skipped as soon as a batch contains an existing key
+     *
+     * @param template the redis template
+     * @param keys the keys to check
+     *
+     * @return whether any of the keys exists
+     */
     public static <K> boolean existsAnyKeys(@Nullable RedisTemplate<K, ?> template, @Nullable Collection<K> keys) {
-        return template != null && !CollectionUtils.isEmpty(keys) && keys.stream().filter(Objects::nonNull).anyMatch(key -> existsKey(template, key));
+        if (template == null || CollectionUtils.isEmpty(keys)) {
+            return false;
+        }
+        for (List<K> batch : partitionKeys(distinctKeys(keys))) {
+            if (countBatch(template, batch) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nonnull
+    private static <K> List<K> distinctKeys(@Nonnull Collection<K> keys) {
+        return keys.stream().filter(Objects::nonNull).distinct().toList();
+    }
+
+    @Nonnull
+    private static <K> List<List<K>> partitionKeys(@Nonnull List<K> keys) {
+        int batchSize = RedisScanStrategy.DEFAULT_BATCH_SIZE;
+        if (keys.size() <= batchSize) {
+            return keys.isEmpty() ? List.of() : List.of(keys);
+        }
+        List<List<K>> result = new ArrayList<>((keys.size() + batchSize - 1) / batchSize);
+        for (int i = 0; i < keys.size(); i += batchSize) {
+            result.add(keys.subList(i, Math.min(i + batchSize, keys.size())));
+        }
+        return result;
+    }
+
+    private static <K> long countBatch(@Nonnull RedisTemplate<K, ?> template, @Nonnull List<K> keys) {
+        Long result = template.countExistingKeys(keys);
+        return (result == null) ? 0L : result;
     }
 
     @Nullable
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cache;
+
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import com.yookue.commonplexus.javaseutil.util.StackTraceWraps;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Tests for {@link com.yookue.commonplexus.springutil.cache.HashCodeKeyGenerator}
+ *
+ * @author David Hsing
+ */
+@Slf4j
+class HashCodeKeyGeneratorTest {
+    @Test
+    void changeProperties() throws NoSuchMethodException {
+        HashCodeKeyGenerator generator = new HashCodeKeyGenerator();
+        MockKeyService target = new MockKeyService();
+        Method method = MockKeyService.class.getMethod("query", String.class);    // $NON-NLS-1$
+        generator.setPrefix("first");    // $NON-NLS-1$
+        String first = (String) generator.generate(target, method, "yookue");    // $NON-NLS-1$
+        generator.setPrefix("second");    // $NON-NLS-1$
+        generator.setParamParentheses(false);
+        String second = (String) generator.generate(target, method, "yookue");    // $NON-NLS-1$
+        log.info("{}: {} -> {}", StackTraceWraps.getExecutingMethodName(), first, second);
+        Assertions.assertTrue(first.startsWith("first:query("));    // $NON-NLS-1$
+        Assertions.assertTrue(second.startsWith("second:query["));    // $NON-NLS-1$
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "deprecation"})
+    void legacySubclass() throws NoSuchMethodException {
+        AbstractKeyGenerator generator = new AbstractKeyGenerator() {
+            @Override
+            protected String resolveParams(@Nonnull Object target, @Nonnull Method method, @Nullable Object... params) {
+                return "(legacy)";    // $NON-NLS-1$
+            }
+        };
+        generator.setPrefix("cache");    // $NON-NLS-1$
+        Method method = MockKeyService.class.getMethod("query", String.class);    // $NON-NLS-1$
+        Object result = generator.generate(new MockKeyService(), method, "yookue");    // $NON-NLS-1$
+        log.info("{}: {}", StackTraceWraps.getExecutingMethodName(), result);
+        Assertions.assertEquals("cache:query(legacy)", result);    // $NON-NLS-1$
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "deprecation"})
+    void legacyBeforeGenerate() throws NoSuchMethodException {
+        AbstractKeyGenerator generator = new AbstractKeyGenerator() {
+            @Override
+            protected void beforeGenerate(@Nonnull Object target, @Nonnull Method method, @Nullable Object... params) {
+                super.setPrefix((String) params[0]);
+            }
+        };
+        Method method = MockKeyService.class.getMethod("query", String.class);    // $NON-NLS-1$
+        Object first = generator.generate(new MockKeyService(), method, "first");    // $NON-NLS-1$
+        Object second = generator.generate(new MockKeyService(), method, "second");    // $NON-NLS-1$
+        log.info("{}: {} -> {}", StackTraceWraps.getExecutingMethodName(), first, second);
+        Assertions.assertTrue(((String) first).startsWith("first:query["));    // $NON-NLS-1$
+        Assertions.assertTrue(((String) second).startsWith("second:query["));    // $NON-NLS-1$
+    }
+
+    @Test
+    void serializeStructuredKey() throws Exception {
+        HashCodeKeyGenerator generator = new HashCodeKeyGenerator();
+        generator.setStructuredKey(true);
+        Method method = MockKeyService.class.getMethod("query", String.class);    // $NON-NLS-1$
+        Object key = generator.generate(new MockKeyService(), method, "yookue");    // $NON-NLS-1$
+        Object restored = SerializationUtils.deserialize(SerializationUtils.serialize((Serializable) key));
+        log.info("{}: {} -> {}", StackTraceWraps.getExecutingMethodName(), key, restored);
+        Assertions.assertEquals(key, restored);
+        Assertions.assertEquals(key.hashCode(), restored.hashCode());
+        Assertions.assertEquals(key.toString(), restored.toString());
+        Assertions.assertEquals(key, generator.generate(new MockKeyService(), method, "yookue"));    // $NON-NLS-1$
+    }
+
+    public static class MockKeyService {
+        @Nonnull
+        public String query(@Nonnull String name) {
+            return name;
+        }
+    }
+}
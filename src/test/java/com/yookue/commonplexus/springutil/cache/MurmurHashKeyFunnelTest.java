@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cache;
+
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import com.google.common.hash.HashCode;
+import com.yookue.commonplexus.javaseutil.util.StackTraceWraps;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Tests for {@link com.yookue.commonplexus.springutil.cache.MurmurHashKeyFunnel}
+ *
+ * @author David Hsing
+ */
+@Slf4j
+class MurmurHashKeyFunnelTest {
+    @Test
+    void hashParams() {
+        LocalDateTime time = LocalDateTime.of(2016, 1, 1, 8, 0);
+        HashCode first = MurmurHashKeyFunnel.hashParams("yookue", 200, time, new SimpleStruct(1, "yookue"), List.of(1L, 2L));
+        HashCode second = MurmurHashKeyFunnel.hashParams("yookue", 200, time, new SimpleStruct(1, "yookue"), List.of(1L, 2L));
+        log.info("{}: {}", StackTraceWraps.getExecutingMethodName(), first);
+        Assertions.assertEquals(first, second);
+        Assertions.assertEquals(32, first.toString().length());
+        Assertions.assertNotEquals(first, MurmurHashKeyFunnel.hashParams("yookue", 200, time, new SimpleStruct(2, "yookue"), List.of(1L, 2L)));
+        Assertions.assertNotEquals(MurmurHashKeyFunnel.hashParams(1, 2), MurmurHashKeyFunnel.hashParams(2, 1));
+    }
+
+    @Test
+    void hashUnorderedParams() {
+        Set<String> first = new HashSet<>(List.of("alpha", "beta", "gamma")), second = new HashSet<>(List.of("gamma", "beta", "alpha"));
+        Assertions.assertEquals(MurmurHashKeyFunnel.hashParams(first), MurmurHashKeyFunnel.hashParams(second));
+    }
+
+    @Test
+    void hashCollectionKinds() {
+        List<String> elements = List.of("alpha", "beta");    // $NON-NLS-1$ // $NON-NLS-2$
+        HashCode list = MurmurHashKeyFunnel.hashParams(elements);
+        HashCode sortedSet = MurmurHashKeyFunnel.hashParams(new TreeSet<>(elements));
+        HashCode linkedSet = MurmurHashKeyFunnel.hashParams(new LinkedHashSet<>(elements));
+        HashCode queue = MurmurHashKeyFunnel.hashParams(new ArrayDeque<>(elements));
+        log.info("{}: {} {} {} {}", StackTraceWraps.getExecutingMethodName(), list, sortedSet, linkedSet, queue);
+        Assertions.assertEquals(4, Set.of(list, sortedSet, linkedSet, queue).size());
+    }
+
+    @Test
+    void hashFieldOnlyParams() {
+        HashCode first = MurmurHashKeyFunnel.hashParams(new FieldOnlyStruct(1, "yookue"));
+        HashCode second = MurmurHashKeyFunnel.hashParams(new FieldOnlyStruct(2, "yookue"));
+        log.info("{}: {} {}", StackTraceWraps.getExecutingMethodName(), first, second);
+        Assertions.assertNotEquals(first, second);
+        Assertions.assertEquals(first, MurmurHashKeyFunnel.hashParams(new FieldOnlyStruct(1, "yookue")));
+    }
+
+    @Test
+    void hashDeepParams() {
+        Assertions.assertNotEquals(MurmurHashKeyFunnel.hashParams(nestList(20, "alpha")), MurmurHashKeyFunnel.hashParams(nestList(20, "beta")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MurmurHashKeyFunnel.hashParams(nestList(MurmurHashKeyFunnel.MAX_DEPTH + 1, "alpha")));
+    }
+
+    private Object nestList(int depth, Object leaf) {
+        Object result = leaf;
+        for (int i = 0; i < depth; i++) {
+            result = List.of(result);
+        }
+        return result;
+    }
+
+    @AllArgsConstructor
+    @SuppressWarnings({"unused", "FieldCanBeLocal"})
+    public static class FieldOnlyStruct {
+        private final int code;
+        private final String name;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class SimpleStruct {
+        private Integer code;
+        private String name;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cache;
+
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import com.yookue.commonplexus.javaseutil.util.StackTraceWraps;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Tests for {@link com.yookue.commonplexus.springutil.cache.NearCacheManager}
+ *
+ * @author David Hsing
+ */
+@Slf4j
+class NearCacheManagerTest {
+    @Test
+    void getFromTiers() {
+        ConcurrentMapCacheManager remoteManager = new ConcurrentMapCacheManager();
+        NearCacheManager manager = new NearCacheManager(remoteManager);
+        NearCache cache = (NearCache) manager.getCache("users");
+        Assertions.assertNotNull(cache);
+        Cache remoteCache = cache.getRemoteCache();
+        remoteCache.put("yookue", 200);
+        Assertions.assertEquals(200, cache.get("yookue", Integer.class));
+        Assertions.assertEquals(200, cache.get("yookue", Integer.class));
+        Assertions.assertNull(cache.get("david"));
+        log.info("{}: local hits = {}, remote hits = {}", StackTraceWraps.getExecutingMethodName(), cache.getLocalHitCount(), cache.getRemoteHitCount());
+        Assertions.assertEquals(1L, cache.getLocalHitCount());
+        Assertions.assertEquals(2L, cache.getLocalMissCount());
+        Assertions.assertEquals(1L, cache.getRemoteHitCount());
+        Assertions.assertEquals(1L, cache.getRemoteMissCount());
+    }
+
+    @Test
+    void evictLocal() {
+        NearCacheManager manager = new NearCacheManager(new ConcurrentMapCacheManager());
+        NearCache cache = (NearCache) manager.getCache("users");
+        Assertions.assertNotNull(cache);
+        cache.put("yookue", 200);
+        cache.getRemoteCache().put("yookue", 500);
+        Assertions.assertEquals(200, cache.get("yookue", Integer.class));
+        manager.evictLocal("users", "yookue");
+        Assertions.assertEquals(500, cache.get("yookue", Integer.class));
+        cache.put(200, "code");
+        Assertions.assertEquals(2L, cache.getLocalSize());
+        Assertions.assertNull(cache.get("200"));
+        manager.evictLocal("users", "200");
+        Assertions.assertEquals(1L, cache.getLocalSize());
+    }
+}
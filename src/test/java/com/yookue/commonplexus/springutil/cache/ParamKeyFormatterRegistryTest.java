@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cache;
+
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import com.yookue.commonplexus.javaseutil.util.StackTraceWraps;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Tests for {@link com.yookue.commonplexus.springutil.cache.ParamKeyFormatterRegistry}
+ *
+ * @author David Hsing
+ */
+@Slf4j
+class ParamKeyFormatterRegistryTest {
+    @Test
+    void formatIdentityProxy() {
+        ParamKeyFormatterRegistry registry = new ParamKeyFormatterRegistry();
+        StringBuilder entity = new StringBuilder(), proxy = new StringBuilder();
+        registry.format(new MockEntity(7L), entity);
+        registry.format(new MockEntity$HibernateProxy$Lazy(7L), proxy);
+        log.info("{}: {} {}", StackTraceWraps.getExecutingMethodName(), entity, proxy);
+        Assertions.assertEquals("ParamKeyFormatterRegistryTest.MockEntity{id=7}", entity.toString());    // $NON-NLS-1$
+        Assertions.assertEquals(entity.toString(), proxy.toString());
+    }
+
+    public static class MockEntity {
+        @ParamKeyIdentity
+        private Long id;
+
+        public MockEntity() {
+        }
+
+        public MockEntity(Long id) {
+            this.id = id;
+        }
+
+        public Long getId() {
+            return id;
+        }
+    }
+
+    /**
+     * Lazy proxy that never initializes the fields of the entity, but delegates the getters
+     */
+    @SuppressWarnings("checkstyle:TypeName")
+    public static class MockEntity$HibernateProxy$Lazy extends MockEntity {
+        private final Long target;
+
+        public MockEntity$HibernateProxy$Lazy(Long target) {
+            this.target = target;
+        }
+
+        @Override
+        public Long getId() {
+            return target;
+        }
+    }
+}
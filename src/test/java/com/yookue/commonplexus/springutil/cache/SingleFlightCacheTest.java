@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.cache;
+
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import com.yookue.commonplexus.javaseutil.util.StackTraceWraps;
+import com.yookue.commonplexus.springutil.processor.SingleFlightCacheProcessor;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Tests for {@link com.yookue.commonplexus.springutil.cache.SingleFlightCache}
+ *
+ * @author David Hsing
+ */
+@Slf4j
+class SingleFlightCacheTest {
+    @Test
+    void coalesceLoads() throws Exception {
+        Cache cache = new SingleFlightCacheManager(new ConcurrentMapCacheManager()).getCache("users");
+        Assertions.assertNotNull(cache);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    latch.await();
+                    return cache.get("yookue", () -> {
+                        Thread.sleep(200L);
+                        return loads.incrementAndGet();
+                    });
+                }));
+            }
+            latch.countDown();
+            for (Future<Integer> future : futures) {
+                Assertions.assertEquals(1, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("{}: loads = {}", StackTraceWraps.getExecutingMethodName(), loads.get());
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    void processManager() {
+        SingleFlightCacheProcessor processor = new SingleFlightCacheProcessor();
+        processor.setCacheManagerNames(new String[]{"cacheManager"});
+        Object bean = processor.postProcessAfterInitialization(new ConcurrentMapCacheManager(), "cacheManager");
+        log.info("{}: bean = {}", StackTraceWraps.getExecutingMethodName(), bean.getClass().getName());
+        Assertions.assertInstanceOf(ConcurrentMapCacheManager.class, bean);
+        Cache cache = ((ConcurrentMapCacheManager) bean).getCache("users");
+        Assertions.assertInstanceOf(SingleFlightCache.class, cache);
+        Assertions.assertSame(cache, ((ConcurrentMapCacheManager) bean).getCache("users"));
+        ConcurrentMapCacheManager other = new ConcurrentMapCacheManager();
+        Assertions.assertSame(other, processor.postProcessAfterInitialization(other, "otherManager"));
+    }
+}
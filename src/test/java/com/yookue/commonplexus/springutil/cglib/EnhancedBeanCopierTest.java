@@ -17,11 +17,25 @@
 package com.yookue.commonplexus.springutil.cglib;
 
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import jakarta.annotation.Nonnull;
+import jakarta.annotation.Nullable;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanInstantiationException;
 import org.springframework.cglib.core.DebuggingClassWriter;
 import com.yookue.commonplexus.javaseutil.util.StackTraceWraps;
+import com.yookue.commonplexus.springutil.enumeration.BeanCopierBackendType;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 
@@ -45,9 +59,225 @@ class EnhancedBeanCopierTest {
         Assertions.assertEquals("yookue", target.getName());
     }
 
+    @Test
+    void createCachedCopier() {
+        EnhancedBeanCopier plain = EnhancedBeanCopier.create(SimpleStruct.class, SimpleStruct.class, false);
+        EnhancedBeanCopier converted = EnhancedBeanCopier.create(SimpleStruct.class, SimpleStruct.class, true);
+        log.info("{} = {}, {}", StackTraceWraps.getExecutingMethodName(), plain.getClass().getName(), converted.getClass().getName());
+        Assertions.assertSame(plain, EnhancedBeanCopier.create(SimpleStruct.class, SimpleStruct.class, false));
+        Assertions.assertSame(converted, EnhancedBeanCopier.create(SimpleStruct.class, SimpleStruct.class, true));
+        Assertions.assertNotSame(plain, converted);
+    }
+
+    @Test
+    void newTargetFallback() {
+        Object plain = EnhancedBeanCopier.create(SimpleStruct.class, SimpleStruct.class, false).newTarget();
+        Object lambda = EnhancedBeanCopier.create(LambdaStruct.class, LambdaStruct.class, false).newTarget();
+        Object bulk = EnhancedBeanCopier.create(BulkStruct.class, BulkStruct.class, false).newTarget();
+        log.info("{} = {}, {}, {}", StackTraceWraps.getExecutingMethodName(), plain, lambda, bulk);
+        Assertions.assertInstanceOf(SimpleStruct.class, plain);
+        Assertions.assertInstanceOf(LambdaStruct.class, lambda);
+        Assertions.assertInstanceOf(BulkStruct.class, bulk);
+    }
+
+    @Test
+    void copyPrimitiveConverter() {
+        PrimitiveStruct source = new PrimitiveStruct(), target = new PrimitiveStruct();
+        source.setCount(3);
+        source.setAmount(5L);
+        source.setName("yookue");
+        target.setCount(7);
+        EnhancedBeanCopier copier = EnhancedBeanCopier.create(PrimitiveStruct.class, PrimitiveStruct.class, true);
+        copier.copy(source, target, new PrimitivePassingConverter() {
+            @Override
+            public int convertInt(int sourceValue, @Nonnull Object targetSetter, @Nonnull String targetName, int targetValue) {
+                return sourceValue + targetValue;
+            }
+
+            @Override
+            public Object convert(@Nullable Object sourceValue, @Nonnull Class<?> targetType, @Nonnull Object targetSetter, @Nonnull String targetName, @Nullable Object targetValue) {
+                return sourceValue;
+            }
+
+            @Override
+            public boolean isTargetValueRequired() {
+                return false;
+            }
+        });
+        log.info("{} = {}", StackTraceWraps.getExecutingMethodName(), target);
+        Assertions.assertEquals(3, target.getCount());
+        Assertions.assertEquals(5L, target.getAmount());
+        Assertions.assertEquals("yookue", target.getName());
+    }
+
+    @Test
+    void copyCompiledConversions() {
+        EntityStruct source = new EntityStruct();
+        source.setCount(3);
+        source.setAmount(5);
+        source.setState(Thread.State.RUNNABLE);
+        source.setCreated(LocalDateTime.of(2016, 1, 1, 8, 0));
+        DtoStruct target = new DtoStruct();
+        target.setCode(7);
+        EnhancedBeanCopier.create(EntityStruct.class, DtoStruct.class, false).copy(source, target, null);
+        log.info("{} = {}", StackTraceWraps.getExecutingMethodName(), target);
+        Assertions.assertEquals(3L, target.getCount());
+        Assertions.assertEquals(5L, target.getAmount());
+        Assertions.assertEquals(7, target.getCode());
+        Assertions.assertEquals("RUNNABLE", target.getState());
+        Assertions.assertEquals(source.getCreated(), LocalDateTime.ofInstant(target.getCreated().toInstant(), ZoneId.systemDefault()));
+        EntityStruct reverse = new EntityStruct();
+        EnhancedBeanCopier.create(DtoStruct.class, EntityStruct.class, false).copy(target, reverse, null);
+        Assertions.assertEquals(Thread.State.RUNNABLE, reverse.getState());
+        Assertions.assertEquals(source.getCreated(), reverse.getCreated());
+        target.setState("UNKNOWN");    // $NON-NLS-1$
+        EnhancedBeanCopier.create(DtoStruct.class, EntityStruct.class, false).copy(target, reverse, null);
+        Assertions.assertNull(reverse.getState());
+    }
+
+    @Test
+    void copyAllParallel() {
+        List<BulkStruct> sources = IntStream.range(0, 10000).mapToObj(index -> {
+            BulkStruct struct = new BulkStruct();
+            struct.setCode(index);
+            return struct;
+        }).toList();
+        EnhancedBulkCopier<BulkStruct> copier = new EnhancedBulkCopier<>(BulkStruct.class, null);
+        copier.setParallelThreshold(1000);
+        List<BulkStruct> targets = copier.copyAll(sources, true);
+        log.info("{} = {}", StackTraceWraps.getExecutingMethodName(), targets.size());
+        Assertions.assertEquals(sources.size(), targets.size());
+        Assertions.assertEquals(9999, targets.get(9999).getCode());
+        Assertions.assertNotSame(sources.get(0), targets.get(0));
+    }
+
+    @Test
+    void deepCopyCycle() {
+        NodeStruct parent = new NodeStruct(), child = new NodeStruct();
+        parent.setName("parent");
+        parent.setChildren(new ArrayList<>(List.of(child)));
+        parent.setAttributes(new HashMap<>(Map.of("key", new int[]{1, 2})));
+        child.setName("child");
+        child.setParent(parent);
+        NodeStruct copy = EnhancedDeepCopier.deepCopy(parent);
+        log.info("{} = {}", StackTraceWraps.getExecutingMethodName(), copy.getName());
+        Assertions.assertNotSame(parent, copy);
+        Assertions.assertNotSame(child, copy.getChildren().get(0));
+        Assertions.assertSame(copy, copy.getChildren().get(0).getParent());
+        Assertions.assertNotSame(parent.getAttributes().get("key"), copy.getAttributes().get("key"));
+        Assertions.assertArrayEquals((int[]) parent.getAttributes().get("key"), (int[]) copy.getAttributes().get("key"));
+    }
+
+    @Test
+    void deepCopyShared() {
+        NodeStruct parent = new NodeStruct();
+        parent.setChildren(List.of(new NodeStruct()));
+        Assertions.assertThrows(BeanInstantiationException.class, () -> EnhancedDeepCopier.deepCopy(parent));
+        NodeStruct copy = EnhancedDeepCopier.deepCopy(parent, NodeStruct.class, List.of(parent.getChildren().getClass()));
+        log.info("{} = {}", StackTraceWraps.getExecutingMethodName(), copy);
+        Assertions.assertNotNull(copy);
+        Assertions.assertSame(parent.getChildren(), copy.getChildren());
+    }
+
+    @Test
+    void copyLambdaBackend() {
+        EntityStruct source = new EntityStruct();
+        source.setCount(3);
+        source.setState(Thread.State.BLOCKED);
+        LambdaStruct target = new LambdaStruct();
+        target.setCode(7);
+        EnhancedBeanCopier copier = EnhancedBeanCopier.create(EntityStruct.class, LambdaStruct.class, false);
+        copier.copy(source, target, null);
+        log.info("{} = {}", StackTraceWraps.getExecutingMethodName(), target);
+        Assertions.assertInstanceOf(LambdaBeanCopier.class, copier);
+        Assertions.assertEquals(3L, target.getCount());
+        Assertions.assertEquals(7, target.getCode());
+        Assertions.assertEquals("BLOCKED", target.getState());
+        LambdaStruct converted = new LambdaStruct();
+        converted.setCount(2L);
+        EnhancedBeanCopier.create(LambdaStruct.class, LambdaStruct.class, true).copy(target, converted, new PrimitivePassingConverter() {
+            @Override
+            public long convertLong(long sourceValue, @Nonnull Object targetSetter, @Nonnull String targetName, long targetValue) {
+                return sourceValue + targetValue;
+            }
+
+            @Override
+            public Object convert(@Nullable Object sourceValue, @Nonnull Class<?> targetType, @Nonnull Object targetSetter, @Nonnull String targetName, @Nullable Object targetValue) {
+                return sourceValue;
+            }
+        });
+        Assertions.assertEquals(5L, converted.getCount());
+        Assertions.assertEquals("BLOCKED", converted.getState());
+    }
+
+    @Test
+    void copyLambdaSpec() {
+        LambdaStruct source = new LambdaStruct();
+        source.setCount(3L);
+        source.setCode(7);
+        source.setState("NEW");
+        LambdaStruct target = new LambdaStruct();
+        CopySpec spec = CopySpec.of(LambdaStruct.class, LambdaStruct.class, true, List.of("code"));
+        spec.copy(source, target);
+        log.info("{} = {}", StackTraceWraps.getExecutingMethodName(), target);
+        Assertions.assertInstanceOf(LambdaBeanCopier.class, spec.getCopier());
+        Assertions.assertEquals(3L, target.getCount());
+        Assertions.assertEquals(0, target.getCode());
+        Assertions.assertEquals("NEW", target.getState());
+        EnhancedBeanCopier copier = EnhancedBeanCopier.create(LambdaStruct.class, LambdaStruct.class, true);
+        Assertions.assertThrows(NullPointerException.class, () -> copier.copy(source, target, null));
+    }
+
     @Data
     private static class SimpleStruct {
         private Integer code;
         private String name;
     }
+
+    @Data
+    private static class PrimitiveStruct {
+        private int count;
+        private long amount;
+        private String name;
+    }
+
+    @Data
+    private static class EntityStruct {
+        private int count;
+        private Integer amount;
+        private Integer code;
+        private Thread.State state;
+        private LocalDateTime created;
+    }
+
+    @Data
+    private static class DtoStruct {
+        private long count;
+        private Long amount;
+        private int code;
+        private String state;
+        private Date created;
+    }
+
+    @Data
+    public static class BulkStruct {
+        private Integer code;
+    }
+
+    @Getter
+    @Setter
+    public static class NodeStruct {
+        private String name;
+        private NodeStruct parent;
+        private List<NodeStruct> children;
+        private Map<String, Object> attributes;
+    }
+
+    @Data
+    @BeanCopierBackend(value = BeanCopierBackendType.LAMBDA)
+    private static class LambdaStruct {
+        private long count;
+        private int code;
+        private String state;
+    }
 }
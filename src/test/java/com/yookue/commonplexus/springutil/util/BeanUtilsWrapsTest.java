@@ -17,11 +17,18 @@
 package com.yookue.commonplexus.springutil.util;
 
 
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.FatalBeanException;
 import com.yookue.commonplexus.javaseutil.structure.StatusTextStruct;
 import com.yookue.commonplexus.javaseutil.util.StackTraceWraps;
+import com.yookue.commonplexus.springutil.cglib.CopySpec;
+import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 
 
@@ -40,4 +47,137 @@ class BeanUtilsWrapsTest {
         log.info("{}: {}", StackTraceWraps.getExecutingMethodName(), struct.getStatus());
         Assertions.assertEquals(200, struct.getStatus());
     }
+
+    @Test
+    void copyPropertiesIncluded() throws BeansException {
+        CopyStruct source = new CopyStruct(), target = new CopyStruct();
+        source.setCode(200);
+        source.setName("yookue");    // $NON-NLS-1$
+        BeanUtilsWraps.copyProperties(source, target, false, "name");    // $NON-NLS-1$
+        log.info("{}: {}", StackTraceWraps.getExecutingMethodName(), target);
+        Assertions.assertNull(target.getCode());
+        Assertions.assertEquals("yookue", target.getName());    // $NON-NLS-1$
+        BeanUtilsWraps.copyProperties(source, target, true, "name");    // $NON-NLS-1$
+        Assertions.assertEquals(200, target.getCode());
+    }
+
+    @Test
+    void copyPropertiesExcluded() throws BeansException {
+        CopyStruct source = new CopyStruct(), target = new CopyStruct();
+        source.setCode(200);
+        source.setName("yookue");    // $NON-NLS-1$
+        target.setName("plexus");    // $NON-NLS-1$
+        BeanUtilsWraps.copyProperties(source, target, true, List.of("name", "name"));    // $NON-NLS-1$ // $NON-NLS-2$
+        log.info("{}: {}", StackTraceWraps.getExecutingMethodName(), target);
+        Assertions.assertEquals(200, target.getCode());
+        Assertions.assertEquals("plexus", target.getName());    // $NON-NLS-1$
+        Assertions.assertSame(CopySpec.of(CopyStruct.class, CopyStruct.class, true, List.of("name")), CopySpec.of(CopyStruct.class, CopyStruct.class, true, Set.of("name")));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertNotSame(CopySpec.of(CopyStruct.class, CopyStruct.class, true, List.of("name")), CopySpec.of(CopyStruct.class, CopyStruct.class, false, List.of("name")));    // $NON-NLS-1$ // $NON-NLS-2$
+        Assertions.assertSame(CopySpec.of(CopyStruct.class, CopyStruct.class, true, List.of("name")).getCopier(), CopySpec.of(CopyStruct.class, CopyStruct.class, false, List.of("name")).getCopier());    // $NON-NLS-1$ // $NON-NLS-2$
+    }
+
+    @Test
+    void copyPropertiesMismatched() throws BeansException {
+        MismatchStruct source = new MismatchStruct();
+        source.setCode(200L);
+        source.setState(Thread.State.NEW);
+        source.setNames(List.of(200));
+        MismatchTarget target = new MismatchTarget();
+        BeanUtilsWraps.copyProperties(source, target, true);
+        log.info("{}: {}", StackTraceWraps.getExecutingMethodName(), target);
+        Assertions.assertNull(target.getCode());
+        Assertions.assertNull(target.getState());
+        Assertions.assertNull(target.getNames());
+        BeanUtilsWraps.copyPropertiesConverting(source, target, true);
+        Assertions.assertEquals("NEW", target.getState());    // $NON-NLS-1$
+        Assertions.assertNull(target.getNames());
+    }
+
+    @Test
+    void copyPropertiesPrimitive() throws BeansException {
+        WrapperStruct source = new WrapperStruct();
+        PrimitiveStruct target = new PrimitiveStruct();
+        Assertions.assertThrows(FatalBeanException.class, () -> BeanUtilsWraps.copyProperties(source, target, false, "time"));    // $NON-NLS-1$
+        source.setTime(200L);
+        BeanUtilsWraps.copyProperties(source, target, false, "time");    // $NON-NLS-1$
+        log.info("{}: {}", StackTraceWraps.getExecutingMethodName(), target);
+        Assertions.assertEquals(200L, target.getTime());
+    }
+
+    @Test
+    void copyPropertiesInaccessible() throws BeansException {
+        WrapperStruct source = new WrapperStruct();
+        source.setTime(200L);
+        Date target = new Date();
+        BeanUtilsWraps.copyProperties(source, target, false, "time");    // $NON-NLS-1$
+        log.info("{}: {}", StackTraceWraps.getExecutingMethodName(), target.getTime());
+        Assertions.assertEquals(200L, target.getTime());
+        Assertions.assertNull(CopySpec.of(WrapperStruct.class, Date.class, false, List.of("time")).getCopier());    // $NON-NLS-1$
+    }
+
+    @Test
+    void beanToMapView() {
+        CopyStruct struct = new CopyStruct();
+        struct.setCode(200);
+        Map<String, ?> view = BeanUtilsWraps.beanToMapView(struct, true, "name");    // $NON-NLS-1$
+        log.info("{}: {}", StackTraceWraps.getExecutingMethodName(), view);
+        Assertions.assertNotNull(view);
+        Assertions.assertEquals(Set.of("code"), view.keySet());    // $NON-NLS-1$
+        struct.setCode(301);
+        Assertions.assertEquals(301, view.get("code"));    // $NON-NLS-1$
+        Assertions.assertEquals(BeanUtilsWraps.beanToMap(struct, true, "name"), view);    // $NON-NLS-1$
+        Assertions.assertEquals(Set.of("name"), BeanUtilsWraps.beanToMap(struct, false, "name").keySet());    // $NON-NLS-1$ // $NON-NLS-2$
+    }
+
+    @Test
+    void mapsToBeans() throws BeansException {
+        List<Map<String, ?>> rows = List.of(Map.of("code", 200L, "name", "yookue"), Map.of("code", 301));    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$ // $NON-NLS-4$
+        List<CopyStruct> beans = BeanUtilsWraps.mapsToBeans(rows, CopyStruct.class);
+        log.info("{}: {}", StackTraceWraps.getExecutingMethodName(), beans);
+        Assertions.assertNotNull(beans);
+        Assertions.assertEquals(200, beans.get(0).getCode());
+        Assertions.assertEquals("yookue", beans.get(0).getName());    // $NON-NLS-1$
+        Assertions.assertEquals(301, beans.get(1).getCode());
+    }
+
+    @Test
+    void mapToJdkBean() throws BeansException {
+        Date date = new Date();
+        BeanUtilsWraps.mapToBean(Map.of("time", 1000L), date);    // $NON-NLS-1$
+        log.info("{}: {}", StackTraceWraps.getExecutingMethodName(), date.getTime());
+        Assertions.assertEquals(1000L, date.getTime());
+        IllegalStateException exception = new IllegalStateException();
+        BeanUtilsWraps.mapToBean(Map.of("stackTrace", new StackTraceElement[0]), exception);    // $NON-NLS-1$
+        Assertions.assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Data
+    private static class WrapperStruct {
+        private Long time;
+    }
+
+    @Data
+    private static class PrimitiveStruct {
+        private long time;
+    }
+
+    @Data
+    public static class CopyStruct {
+        private Integer code;
+        private String name;
+    }
+
+    @Data
+    public static class MismatchStruct {
+        private Long code;
+        private Thread.State state;
+        private List<Integer> names;
+    }
+
+    @Data
+    public static class MismatchTarget {
+        private Integer code;
+        private String state;
+        private List<String> names;
+    }
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.util;
+
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import com.yookue.commonplexus.javaseutil.util.StackTraceWraps;
+import com.yookue.commonplexus.springutil.structure.DatabaseMetaStruct;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Tests for {@link com.yookue.commonplexus.springutil.util.JdbcUtilsWraps}
+ *
+ * @author David Hsing
+ */
+@Slf4j
+class JdbcUtilsWrapsTest {
+    private static final String JDBC_URL = "jdbc:mysql://127.0.0.1:3306/schema?characterEncoding=UTF-8";    // $NON-NLS-1$
+
+    @Test
+    void getHostSchemaName() {
+        String hostName = JdbcUtilsWraps.getHostName(JDBC_URL);
+        log.info("{}: {}", StackTraceWraps.getExecutingMethodName(), hostName);
+        Assertions.assertEquals("127.0.0.1:3306", hostName);    // $NON-NLS-1$
+        Assertions.assertSame(hostName, JdbcUtilsWraps.getHostName(JDBC_URL));
+        Assertions.assertEquals("127.0.0.1:3306/schema", JdbcUtilsWraps.getHostSchemaName(JDBC_URL));    // $NON-NLS-1$
+        Assertions.assertEquals("schema", JdbcUtilsWraps.getSchemaName(JDBC_URL));    // $NON-NLS-1$
+    }
+
+    @Test
+    void getDatabaseMetaStruct() throws MetaDataAccessException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:meta;DB_CLOSE_DELAY=-1");    // $NON-NLS-1$
+        DatabaseMetaStruct captured = JdbcUtilsWraps.getDatabaseMetaStruct(dataSource);
+        log.info("{}: {}", StackTraceWraps.getExecutingMethodName(), captured);
+        Assertions.assertEquals(DatabaseDriver.H2, captured.getDatabaseDriver());
+        Assertions.assertSame(captured, JdbcUtilsWraps.getDatabaseMetaStruct(dataSource));
+        DatabaseMetaStruct refreshed = JdbcUtilsWraps.refreshDatabaseMetaStruct(dataSource);
+        Assertions.assertNotSame(captured, refreshed);
+        Assertions.assertSame(refreshed, JdbcUtilsWraps.getDatabaseMetaStruct(dataSource));
+        JdbcUtilsWraps.evictDatabaseMetaStruct(dataSource);
+        Assertions.assertNotSame(refreshed, JdbcUtilsWraps.getDatabaseMetaStruct(dataSource));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.util;
+
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.exceptions.PersistenceException;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.managed.ManagedTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.yookue.commonplexus.javaseutil.util.StackTraceWraps;
+import com.yookue.commonplexus.springutil.structure.BatchWriteStruct;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Tests for {@link com.yookue.commonplexus.springutil.util.MybatisBatchWraps}
+ *
+ * @author David Hsing
+ */
+@Slf4j
+class MybatisBatchWrapsTest {
+    private static final String INSERT_ROW = DemoMapper.class.getName() + ".insertRow";    // $NON-NLS-1$
+    private static JdbcDataSource dataSource;
+    private static SqlSessionFactory sessionFactory;
+
+    @BeforeAll
+    static void createSessionFactory() throws SQLException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:batch;DB_CLOSE_DELAY=-1");    // $NON-NLS-1$
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE batch_demo (id BIGINT PRIMARY KEY, name VARCHAR(32))");    // $NON-NLS-1$
+        }
+        // The managed transaction ignores the auto-commit flag of opening sessions, as the one of mybatis-spring does
+        Configuration configuration = new Configuration(new Environment("test", new ManagedTransactionFactory(), dataSource));    // $NON-NLS-1$
+        configuration.addMapper(DemoMapper.class);
+        sessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    }
+
+    @BeforeEach
+    void clearRows() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM batch_demo");    // $NON-NLS-1$
+        }
+    }
+
+    @Test
+    void rollbackFailedChunk() {
+        List<Map<String, Object>> rows = List.of(newRow(1L), newRow(2L), newRow(3L), newRow(4L), newRow(5L), newRow(5L));
+        Assertions.assertThrows(PersistenceException.class, () -> MybatisBatchWraps.executeBatch(sessionFactory, INSERT_ROW, rows, 3, true, false));
+        List<Long> ids = selectIds();
+        log.info("{}: {}", StackTraceWraps.getExecutingMethodName(), ids);
+        // The first chunk is committed, and the failing chunk leaves no partial rows
+        Assertions.assertEquals(List.of(1L, 2L, 3L), ids);
+    }
+
+    @Test
+    void retryFailedChunk() {
+        List<Map<String, Object>> rows = List.of(newRow(10L), newRow(11L), newRow(11L), newRow(12L));
+        BatchWriteStruct struct = MybatisBatchWraps.executeBatch(sessionFactory, INSERT_ROW, rows, 4, true, true);
+        List<Long> ids = selectIds();
+        log.info("{}: {}, {}", StackTraceWraps.getExecutingMethodName(), struct, ids);
+        Assertions.assertNotNull(struct);
+        Assertions.assertEquals(1, struct.getRetriedChunks());
+        Assertions.assertEquals(List.of(2), struct.getFailedIndexes());
+        Assertions.assertEquals(3L, struct.getUpdateCount());
+        Assertions.assertEquals(List.of(10L, 11L, 12L), ids);
+    }
+
+    @Test
+    void rollbackAllChunks() {
+        List<Map<String, Object>> rows = List.of(newRow(20L), newRow(21L), newRow(21L));
+        Assertions.assertThrows(PersistenceException.class, () -> MybatisBatchWraps.executeBatch(sessionFactory, INSERT_ROW, rows, 2, false, true));
+        Assertions.assertTrue(selectIds().isEmpty());
+    }
+
+    private static Map<String, Object> newRow(long id) {
+        return Map.of("id", id, "name", "row" + id);    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+    }
+
+    private static List<Long> selectIds() {
+        try (SqlSession session = sessionFactory.openSession()) {
+            return session.selectList(DemoMapper.class.getName() + ".selectIds");    // $NON-NLS-1$
+        }
+    }
+
+
+    public interface DemoMapper {
+        @Insert(value = "INSERT INTO batch_demo (id, name) VALUES (#{id}, #{name})")    // $NON-NLS-1$
+        int insertRow(Map<String, Object> row);
+
+        @Select(value = "SELECT id FROM batch_demo ORDER BY id")    // $NON-NLS-1$
+        List<Long> selectIds();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.util;
+
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Date;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import com.yookue.commonplexus.javaseutil.util.StackTraceWraps;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Tests for {@link com.yookue.commonplexus.springutil.util.MybatisPageWraps}
+ *
+ * @author David Hsing
+ */
+@Slf4j
+class MybatisPageWrapsTest {
+    @Test
+    void seekTokenRoundTrip() {
+        Object[] values = {123L, new BigDecimal("12.50"), LocalDateTime.of(2016, 1, 2, 3, 4, 5), LocalDate.of(2016, 1, 2), new Date(1451703845000L), "yookue|plexus"};    // $NON-NLS-1$ // $NON-NLS-2$
+        for (Object value : values) {
+            String token = MybatisPageWraps.encodeSeekToken(value, 100L);
+            Object[] decoded = MybatisPageWraps.decodeSeekToken(token);
+            log.info("{}: {} -> {}", StackTraceWraps.getExecutingMethodName(), token, decoded);
+            Assertions.assertNotNull(decoded);
+            Assertions.assertEquals(100L, decoded[0]);
+            Assertions.assertEquals(value, decoded[1]);
+        }
+        Object[] decoded = MybatisPageWraps.decodeSeekToken(MybatisPageWraps.encodeSeekToken(7, null));
+        Assertions.assertNotNull(decoded);
+        Assertions.assertNull(decoded[0]);
+        Assertions.assertEquals(7L, decoded[1]);
+        Assertions.assertNull(MybatisPageWraps.decodeSeekToken(null));
+    }
+
+    @Test
+    void seekTokenNull() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MybatisPageWraps.encodeSeekToken(null, 100L));
+        // The token of the old null values must not restart from the first page
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MybatisPageWraps.decodeSeekToken(encodeText("100|Z:")));    // $NON-NLS-1$
+    }
+
+    @Test
+    void seekTokenMalformed() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MybatisPageWraps.decodeSeekToken("%%%"));    // $NON-NLS-1$
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MybatisPageWraps.decodeSeekToken(encodeText("100")));    // $NON-NLS-1$
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MybatisPageWraps.decodeSeekToken(encodeText("|L:99999999999999999999")));    // $NON-NLS-1$
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MybatisPageWraps.decodeSeekToken(encodeText("|T:2016-13-01")));    // $NON-NLS-1$
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MybatisPageWraps.decodeSeekToken(encodeText("x|L:1")));    // $NON-NLS-1$
+    }
+
+    @Test
+    void countUnsupported() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:page;DB_CLOSE_DELAY=-1");    // $NON-NLS-1$
+        // H2 has no table statistics, the caller falls back to an exact count
+        Assertions.assertNull(MybatisPageWraps.countApproximately(dataSource, "demo"));    // $NON-NLS-1$
+    }
+
+    private static String encodeText(String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
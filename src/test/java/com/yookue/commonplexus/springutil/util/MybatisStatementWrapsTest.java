@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2016 Yookue Ltd. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.yookue.commonplexus.springutil.util;
+
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import com.yookue.commonplexus.javaseutil.util.StackTraceWraps;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+
+/**
+ * Tests for {@link com.yookue.commonplexus.springutil.util.MybatisStatementWraps}
+ *
+ * @author David Hsing
+ */
+@Slf4j
+class MybatisStatementWrapsTest {
+    private static SqlSessionFactory sessionFactory;
+
+    @BeforeAll
+    static void createSessionFactory() throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:statement;DB_CLOSE_DELAY=-1");    // $NON-NLS-1$
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE demo (id BIGINT PRIMARY KEY, name VARCHAR(32))");    // $NON-NLS-1$
+            statement.execute("INSERT INTO demo VALUES (1, 'yookue'), (2, 'plexus')");    // $NON-NLS-1$
+        }
+        Configuration configuration = new Configuration(new Environment("test", new JdbcTransactionFactory(), dataSource));    // $NON-NLS-1$
+        configuration.addMapper(DemoMapper.class);
+        sessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    }
+
+    @Test
+    void selectTypedRows() {
+        try (SqlSession session = sessionFactory.openSession()) {
+            String statementId = DemoMapper.class.getName() + ".selectRows";    // $NON-NLS-1$
+            String typedId = MybatisStatementWraps.getTypedStatementId(session, statementId, DemoStruct.class);
+            List<DemoStruct> rows = session.selectList(typedId);
+            log.info("{}: {}", StackTraceWraps.getExecutingMethodName(), rows);
+            Assertions.assertEquals(2, rows.size());
+            Assertions.assertEquals("yookue", rows.get(0).getName());    // $NON-NLS-1$
+            Assertions.assertEquals(typedId, MybatisStatementWraps.getTypedStatementId(session, statementId, DemoStruct.class));
+        }
+    }
+
+    @Test
+    void selectRecordRows() {
+        try (SqlSession session = sessionFactory.openSession()) {
+            String statementId = DemoMapper.class.getName() + ".selectNames";    // $NON-NLS-1$
+            List<DemoRecord> rows = session.selectList(MybatisStatementWraps.getTypedStatementId(session, statementId, DemoRecord.class));
+            log.info("{}: {}", StackTraceWraps.getExecutingMethodName(), rows);
+            Assertions.assertEquals(List.of(new DemoRecord(1L, "yookue"), new DemoRecord(2L, "plexus")), rows);    // $NON-NLS-1$ // $NON-NLS-2$
+        }
+    }
+
+    @Test
+    void deriveSameType() {
+        try (SqlSession session = sessionFactory.openSession()) {
+            String rowsId = MybatisStatementWraps.getTypedStatementId(session, DemoMapper.class.getName() + ".selectRows", DemoStruct.class);    // $NON-NLS-1$
+            String namesId = MybatisStatementWraps.getTypedStatementId(session, DemoMapper.class.getName() + ".selectNames", DemoStruct.class);    // $NON-NLS-1$
+            log.info("{}: {}, {}", StackTraceWraps.getExecutingMethodName(), rowsId, namesId);
+            Assertions.assertNotEquals(rowsId, namesId);
+            Assertions.assertEquals(2, session.selectList(namesId).size());
+            // The short names of the derived statements must not be shared by the statements of the same type
+            Configuration configuration = session.getConfiguration();
+            Assertions.assertNotNull(configuration.getMappedStatement(rowsId.substring(rowsId.lastIndexOf('.') + 1)));
+            Assertions.assertNotNull(configuration.getMappedStatement(namesId.substring(namesId.lastIndexOf('.') + 1)));
+        }
+    }
+
+    @Test
+    void streamRows() {
+        try (SqlSession session = sessionFactory.openSession()) {
+            String streamingId = MybatisStatementWraps.getStreamingStatementId(session, DemoMapper.class.getName() + ".selectRows", DemoStruct.class);    // $NON-NLS-1$
+            log.info("{}: {}", StackTraceWraps.getExecutingMethodName(), streamingId);
+            Assertions.assertEquals(MybatisStatementWraps.DEFAULT_STREAMING_FETCH_SIZE, session.getConfiguration().getMappedStatement(streamingId).getFetchSize());
+            List<DemoStruct> rows = session.selectList(streamingId);
+            Assertions.assertEquals(2, rows.size());
+            Assertions.assertEquals(DemoStruct.class, rows.get(0).getClass());
+        }
+    }
+
+    @Test
+    void registerUpfront() {
+        Configuration configuration = sessionFactory.getConfiguration();
+        String statementId = DemoMapper.class.getName() + ".selectNulls";    // $NON-NLS-1$
+        String typedId = MybatisStatementWraps.registerTypedStatement(configuration, statementId, DemoStruct.class);
+        String streamingId = MybatisStatementWraps.registerStreamingStatement(configuration, statementId, DemoStruct.class);
+        log.info("{}: {}, {}", StackTraceWraps.getExecutingMethodName(), typedId, streamingId);
+        Assertions.assertTrue(configuration.hasStatement(typedId, false));
+        Assertions.assertTrue(configuration.hasStatement(streamingId, false));
+        try (SqlSession session = sessionFactory.openSession()) {
+            Assertions.assertEquals(typedId, MybatisStatementWraps.getTypedStatementId(session, statementId, DemoStruct.class));
+            Assertions.assertEquals(streamingId, MybatisStatementWraps.getStreamingStatementId(session, statementId, DemoStruct.class));
+        }
+    }
+
+    @Test
+    void describeColumns() {
+        try (SqlSession session = sessionFactory.openSession()) {
+            String[] columns = MybatisStatementWraps.getResultColumns(session, DemoMapper.class.getName() + ".selectNulls", null);    // $NON-NLS-1$
+            log.info("{}: {}", StackTraceWraps.getExecutingMethodName(), columns);
+            // The columns with null values are described as well
+            Assertions.assertArrayEquals(new String[] {"ID", "NAME", "REMARK"}, columns);    // $NON-NLS-1$ // $NON-NLS-2$ // $NON-NLS-3$
+        }
+    }
+
+
+    public interface DemoMapper {
+        @Select(value = "SELECT id, name FROM demo ORDER BY id")    // $NON-NLS-1$
+        List<Map<String, Object>> selectRows();
+
+        @Select(value = "SELECT id, name FROM demo ORDER BY id")    // $NON-NLS-1$
+        List<Map<String, Object>> selectNames();
+
+        @Select(value = "SELECT id, name, CAST(NULL AS VARCHAR) AS remark FROM demo ORDER BY id")    // $NON-NLS-1$
+        List<Map<String, Object>> selectNulls();
+    }
+
+    @Data
+    public static class DemoStruct {
+        private Long id;
+        private String name;
+    }
+
+    public record DemoRecord(Long id, String name) {
+    }
+}